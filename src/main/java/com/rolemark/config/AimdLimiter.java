@@ -0,0 +1,141 @@
+package com.rolemark.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Concurrency limit for one class of endpoints, adjusted by additive increase and
+ * multiplicative decrease (AIMD) on observed latency.
+ *
+ * A request that finishes within the latency target while the limit is in use raises
+ * the limit by {@code 1/limit}, about one per full window of requests. A request that
+ * runs over the target, or is answered 503 downstream, cuts the limit by
+ * {@code backoffRatio}, at most once per target interval so one slow burst does not
+ * collapse it. Requests over the limit are rejected instead of queued.
+ *
+ * No tenant may hold more than {@code tenantShare} of the current limit, so one
+ * caller's burst is turned away before it can fill the class for everyone else.
+ * Requests without a tenant are bound by the class limit alone.
+ */
+public class AimdLimiter {
+    
+    /** Outcome of {@link #tryAcquire}. */
+    public enum Admission {
+        ADMITTED,
+        /** The tenant already holds its share of the limit. */
+        TENANT_LIMITED,
+        /** The class as a whole is at its limit. */
+        OVERLOADED
+    }
+    
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final double tenantShare;
+    private final Counter tenantRejections;
+    private final Counter overloadRejections;
+    private final Map<String, Integer> inFlightByTenant = new HashMap<>();
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+    
+    public AimdLimiter(String name,
+                       int initialLimit,
+                       int minLimit,
+                       int maxLimit,
+                       Duration latencyTarget,
+                       double backoffRatio,
+                       double tenantShare,
+                       MeterRegistry meterRegistry) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalStateException("Concurrency limits of " + name + " must satisfy 1 <= min <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalStateException("Backoff ratio of " + name + " must be between 0 and 1");
+        }
+        if (tenantShare <= 0 || tenantShare > 1) {
+            throw new IllegalStateException("Tenant share of " + name + " must be above 0 and at most 1");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.tenantShare = tenantShare;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime() - latencyTargetNanos;
+        this.tenantRejections = Counter.builder("rolemark.concurrency.rejected").tag("endpoint", name)
+                .tag("reason", "tenant").description("Requests rejected by the concurrency limit").register(meterRegistry);
+        this.overloadRejections = Counter.builder("rolemark.concurrency.rejected").tag("endpoint", name)
+                .tag("reason", "limit").description("Requests rejected by the concurrency limit").register(meterRegistry);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+    
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+    
+    /** Requests one tenant may have in flight under the current limit; always at least one. */
+    public synchronized int getTenantLimit() {
+        return Math.max(1, (int) Math.ceil((int) limit * tenantShare));
+    }
+    
+    /**
+     * Admits a request of {@code tenant} (null for none) if both its share and the class
+     * limit allow it. Every admitted request must be {@link #release}d with the same tenant.
+     */
+    public Admission tryAcquire(String tenant) {
+        Admission admission;
+        synchronized (this) {
+            int tenantInFlight = tenant == null ? 0 : inFlightByTenant.getOrDefault(tenant, 0);
+            if (tenantInFlight >= getTenantLimit()) {
+                admission = Admission.TENANT_LIMITED;
+            } else if (inFlight >= (int) limit) {
+                admission = Admission.OVERLOADED;
+            } else {
+                inFlight++;
+                if (tenant != null) {
+                    inFlightByTenant.put(tenant, tenantInFlight + 1);
+                }
+                return Admission.ADMITTED;
+            }
+        }
+        (admission == Admission.TENANT_LIMITED ? tenantRejections : overloadRejections).increment();
+        return admission;
+    }
+    
+    /**
+     * Ends an admitted request of {@code tenant} that took {@code latencyNanos};
+     * {@code overloaded} marks a request the downstream work shed itself.
+     */
+    public synchronized void release(String tenant, long latencyNanos, boolean overloaded) {
+        boolean limitInUse = inFlight >= limit / 2;
+        inFlight--;
+        if (tenant != null) {
+            inFlightByTenant.computeIfPresent(tenant, (key, count) -> count > 1 ? count - 1 : null);
+        }
+        if (overloaded || latencyNanos > latencyTargetNanos) {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos >= latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if (limitInUse) {
+            // Only grow while the limit is what bounds us; idle traffic says nothing about capacity
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.rolemark.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Adaptive concurrency limits for the endpoint classes whose cost dwarfs the rest:
+ * uploads (PDF preflight), evaluation runs (snapshot and queueing) and auth (BCrypt).
+ * Each class has its own limit, so a storm of one cannot take the capacity of another.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rolemark.concurrency-limits.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+    
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${rolemark.concurrency-limits.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${rolemark.concurrency-limits.tenant-share:0.5}") double tenantShare,
+            @Value("${rolemark.concurrency-limits.retry-after:1s}") Duration retryAfter,
+            @Value("${rolemark.concurrency-limits.upload.initial-limit:8}") int uploadInitial,
+            @Value("${rolemark.concurrency-limits.upload.max-limit:64}") int uploadMax,
+            @Value("${rolemark.concurrency-limits.upload.latency-target:2s}") Duration uploadTarget,
+            @Value("${rolemark.concurrency-limits.run.initial-limit:16}") int runInitial,
+            @Value("${rolemark.concurrency-limits.run.max-limit:128}") int runMax,
+            @Value("${rolemark.concurrency-limits.run.latency-target:1s}") Duration runTarget,
+            @Value("${rolemark.concurrency-limits.auth.initial-limit:8}") int authInitial,
+            @Value("${rolemark.concurrency-limits.auth.max-limit:64}") int authMax,
+            @Value("${rolemark.concurrency-limits.auth.latency-target:1s}") Duration authTarget,
+            JwtUtil jwtUtil,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        AimdLimiter upload = register(new AimdLimiter("upload", uploadInitial, 1, uploadMax, uploadTarget,
+                backoffRatio, tenantShare, meterRegistry), meterRegistry);
+        AimdLimiter run = register(new AimdLimiter("run", runInitial, 1, runMax, runTarget,
+                backoffRatio, tenantShare, meterRegistry), meterRegistry);
+        AimdLimiter auth = register(new AimdLimiter("auth", authInitial, 1, authMax, authTarget,
+                backoffRatio, tenantShare, meterRegistry), meterRegistry);
+        
+        List<ConcurrencyLimitFilter.Route> routes = List.of(
+                new ConcurrencyLimitFilter.Route("POST", "/api/resumes", upload),
+                new ConcurrencyLimitFilter.Route("POST", "/resumes", upload),
+                new ConcurrencyLimitFilter.Route("POST", "/api/evaluations/*/run", run),
+                new ConcurrencyLimitFilter.Route("POST", "/evaluations/*/run", run),
+                new ConcurrencyLimitFilter.Route(null, "/api/auth/**", auth));
+        
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(routes, request -> tenantOf(request, jwtUtil), retryAfter, objectMapper));
+        // Ahead of Spring Security, so a shed request is not authenticated first
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+    
+    /**
+     * The user of a valid bearer token, or null for a caller without one (sign-in and
+     * signup). Behind the load balancer every anonymous caller has the same remote
+     * address, so it cannot tell them apart; they are held to the class limit only.
+     * The cached verification is reused by the JWT filter.
+     */
+    static String tenantOf(HttpServletRequest request, JwtUtil jwtUtil) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        return jwtUtil.verify(authHeader.substring(7))
+                .map(verified -> "user:" + verified.getUserId())
+                .orElse(null);
+    }
+    
+    private static AimdLimiter register(AimdLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder("rolemark.concurrency.limit", limiter, AimdLimiter::getLimit).tag("endpoint", limiter.getName())
+                .description("Current concurrency limit").register(meterRegistry);
+        Gauge.builder("rolemark.concurrency.in.flight", limiter, AimdLimiter::getInFlight).tag("endpoint", limiter.getName())
+                .description("Requests currently admitted").register(meterRegistry);
+        return limiter;
+    }
+}
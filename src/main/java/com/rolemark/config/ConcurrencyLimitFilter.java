@@ -0,0 +1,133 @@
+package com.rolemark.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rolemark.exception.GlobalExceptionHandler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Admission control in front of the expensive endpoints. Each route is bound to the
+ * {@link AimdLimiter} of its endpoint class; a request over its class's limit is
+ * answered 503 with Retry-After at once instead of waiting for a servlet thread, and
+ * a request whose tenant already holds its share of the limit is answered 429.
+ * API routes get the usual JSON error body, web form routes a plain-text one.
+ * Requests matching no route pass through untouched.
+ *
+ * The filter runs ahead of Spring Security so shed requests cost no authentication;
+ * {@code tenantOf} identifies the caller from the raw request, or returns null for a
+ * caller it cannot tell apart from others, who then has no share to exceed.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private final List<Route> routes;
+    private final Function<HttpServletRequest, String> tenantOf;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    public ConcurrencyLimitFilter(List<Route> routes,
+                                  Function<HttpServletRequest, String> tenantOf,
+                                  Duration retryAfter,
+                                  ObjectMapper objectMapper) {
+        this.routes = routes;
+        this.tenantOf = tenantOf;
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AimdLimiter limiter = limiterFor(request);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String tenant = tenantOf.apply(request);
+        AimdLimiter.Admission admission = limiter.tryAcquire(tenant);
+        if (admission == AimdLimiter.Admission.TENANT_LIMITED) {
+            reject(request, response, HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many concurrent " + limiter.getName() + " requests, please retry shortly");
+            return;
+        }
+        if (admission == AimdLimiter.Admission.OVERLOADED) {
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Server is busy with " + limiter.getName() + " requests, please retry shortly");
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean overloaded = false;
+        try {
+            filterChain.doFilter(request, response);
+            overloaded = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        } finally {
+            limiter.release(tenant, System.nanoTime() - start, overloaded);
+        }
+    }
+    
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+    
+    private AimdLimiter limiterFor(HttpServletRequest request) {
+        String path = pathOf(request);
+        for (Route route : routes) {
+            if ((route.method == null || route.method.equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(route.pattern, path)) {
+                return route.limiter;
+            }
+        }
+        return null;
+    }
+    
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+        if (!pathOf(request).startsWith("/api/")) {
+            // A browser submitting a form shows the body as is
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write(message);
+            return;
+        }
+        GlobalExceptionHandler.ErrorResponse error = new GlobalExceptionHandler.ErrorResponse(
+                LocalDateTime.now(),
+                status.value(),
+                status == HttpStatus.TOO_MANY_REQUESTS ? "TOO_MANY_REQUESTS" : "SERVICE_UNAVAILABLE",
+                message,
+                null,
+                UUID.randomUUID().toString()
+        );
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+    
+    /** Requests with {@code method} (any method when null) on paths matching {@code pattern}. */
+    public static class Route {
+        private final String method;
+        private final String pattern;
+        private final AimdLimiter limiter;
+        
+        public Route(String method, String pattern, AimdLimiter limiter) {
+            this.method = method;
+            this.pattern = pattern;
+            this.limiter = limiter;
+        }
+    }
+}
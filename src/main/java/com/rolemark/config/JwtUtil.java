@@ -1,26 +1,64 @@
 package com.rolemark.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Issues and verifies the API's JWTs. The signing key and parser are built once.
+ *
+ * Verified tokens are kept in a bounded cache keyed by a SHA-256 of the token, so a
+ * client sending the same token on every request pays for the signature check and
+ * JSON parsing once. A cached token is still rejected once it expires.
+ *
+ * Inserts cost O(1) amortised: expired entries are swept once every max-size inserts,
+ * and a full cache drops arbitrary entries instead of searching for the best ones.
+ */
 @Component
 public class JwtUtil {
     
-    @Value("${JWT_SECRET:defaultSecretKeyThatShouldBeChangedInProduction}")
-    private String jwtSecret;
-    
     private static final long JWT_EXPIRATION_MS = 86400000; // 24 hours
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final int claimsCacheMaxSize;
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final AtomicInteger insertsSinceSweep = new AtomicInteger();
+    private final Counter hits;
+    private final Counter misses;
+    
+    public JwtUtil(@Value("${JWT_SECRET:defaultSecretKeyThatShouldBeChangedInProduction}") String jwtSecret,
+                   @Value("${rolemark.jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize,
+                   MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.claimsCacheMaxSize = claimsCacheMaxSize;
+        this.hits = Counter.builder("rolemark.jwt.claims.cache.requests").tag("result", "hit")
+                .description("Token verifications served from memory").register(meterRegistry);
+        this.misses = Counter.builder("rolemark.jwt.claims.cache.requests").tag("result", "miss")
+                .description("Token verifications that checked the signature").register(meterRegistry);
+        Gauge.builder("rolemark.jwt.claims.cache.size", verifiedTokens, Map::size)
+                .description("Cached verified tokens").register(meterRegistry);
     }
     
     public String generateToken(String email, UUID userId) {
@@ -32,39 +70,100 @@ public class JwtUtil {
                 .claim("userId", userId.toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+    /**
+     * Claims of a token with a valid signature that has not expired, or empty for any
+     * other token.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (claimsCacheMaxSize < 1) {
+            return parse(token);
+        }
+        String key = sha256Hex(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(key, cached);
+        }
+        misses.increment();
+        Optional<VerifiedToken> verified = parse(token);
+        verified.ifPresent(value -> {
+            verifiedTokens.put(key, value);
+            if (insertsSinceSweep.updateAndGet(n -> n + 1 >= claimsCacheMaxSize ? 0 : n + 1) == 0) {
+                verifiedTokens.values().removeIf(VerifiedToken::isExpired);
+            }
+            trimToSize();
+        });
+        return verified;
+    }
+    
+    private Optional<VerifiedToken> parse(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            String userId = claims.get("userId", String.class);
+            if (userId == null || claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new VerifiedToken(claims.getSubject(), UUID.fromString(userId),
+                    claims.getExpiration().getTime()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
     
-    public UUID getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        String userIdStr = claims.get("userId", String.class);
-        return UUID.fromString(userIdStr);
+    private void trimToSize() {
+        // Any entry will do; a dropped token is only verified again
+        if (verifiedTokens.size() <= claimsCacheMaxSize) {
+            return;
+        }
+        Iterator<String> keys = verifiedTokens.keySet().iterator();
+        while (verifiedTokens.size() > claimsCacheMaxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
     }
     
-    public boolean validateToken(String token) {
+    private static String sha256Hex(String value) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+    
+    /** The claims the API relies on from a verified token. */
+    public static class VerifiedToken {
+        private final String email;
+        private final UUID userId;
+        private final long expiresAtMillis;
+        
+        VerifiedToken(String email, UUID userId, long expiresAtMillis) {
+            this.email = email;
+            this.userId = userId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+        
+        public String getEmail() {
+            return email;
+        }
+        
+        public UUID getUserId() {
+            return userId;
+        }
+        
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+        
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
         }
     }
 }
-
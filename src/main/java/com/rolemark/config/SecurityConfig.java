@@ -1,7 +1,12 @@
 package com.rolemark.config;
 
+import com.rolemark.security.AdminAuthorizationManager;
+import com.rolemark.security.BoundedPasswordEncoder;
 import com.rolemark.security.JwtAuthenticationFilter;
 import com.rolemark.security.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,6 +20,13 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.time.Duration;
 
 /**
  * Security configuration for JWT-based authentication.
@@ -35,18 +47,41 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
     
+    /** Async dispatches of the routes that answer with a {@code StreamingResponseBody}. */
+    private static final RequestMatcher STREAMED_ASYNC_DISPATCH = new AndRequestMatcher(
+            new DispatcherTypeRequestMatcher(DispatcherType.ASYNC),
+            new OrRequestMatcher(
+                    new AntPathRequestMatcher("/api/evaluations/*/results", HttpMethod.GET.name()),
+                    new AntPathRequestMatcher("/api/evaluations/*/export", HttpMethod.GET.name()),
+                    new AntPathRequestMatcher("/api/admin/jfr-recordings/*", HttpMethod.GET.name())));
+    
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsServiceImpl userDetailsService;
+    private final AdminAuthorizationManager adminAuthorizationManager;
     
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, 
-                         UserDetailsServiceImpl userDetailsService) {
+                         UserDetailsServiceImpl userDetailsService,
+                         AdminAuthorizationManager adminAuthorizationManager) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.userDetailsService = userDetailsService;
+        this.adminAuthorizationManager = adminAuthorizationManager;
     }
     
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /**
+     * BCrypt at the configured cost, run on a bounded pool of its own so a login storm
+     * is shed with 503s instead of starving other requests. By default the pool gets
+     * half the cores.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(@Value("${rolemark.auth.bcrypt-strength:10}") int strength,
+                                                  @Value("${rolemark.auth.password-hashing.threads:0}") int threads,
+                                                  @Value("${rolemark.auth.password-hashing.queue-capacity:64}") int queueCapacity,
+                                                  @Value("${rolemark.auth.password-hashing.max-queue-wait:2s}") Duration maxQueueWait,
+                                                  @Value("${rolemark.auth.password-hashing.retry-after:1s}") Duration retryAfter,
+                                                  MeterRegistry meterRegistry) {
+        int poolThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolThreads, queueCapacity,
+                maxQueueWait, retryAfter, meterRegistry);
     }
     
     /**
@@ -55,10 +90,10 @@ public class SecurityConfig {
      * The provider is wired to our custom UserDetailsServiceImpl and BCryptPasswordEncoder.
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
     
@@ -71,8 +106,22 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
     
+    /**
+     * Requests for {@code pattern} that arrived on the management port. The security chain
+     * also guards the management server, but only requests there skip authentication; the
+     * same path on the application port does not. Never matches when actuator shares the
+     * application port.
+     */
+    private static RequestMatcher onManagementPort(int managementPort, String pattern) {
+        return new AndRequestMatcher(
+                request -> managementPort > 0 && request.getLocalPort() == managementPort,
+                new AntPathRequestMatcher(pattern, HttpMethod.GET.name()));
+    }
+    
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   DaoAuthenticationProvider authenticationProvider,
+                                                   @Value("${management.server.port:-1}") int managementPort) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -80,14 +129,21 @@ public class SecurityConfig {
             .formLogin(form -> form.disable())
             .httpBasic(basic -> basic.disable())
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches of the streaming routes finish a request that was already authorized;
+                // the JWT filter does not run on them, so they would otherwise be denied
+                .requestMatchers(STREAMED_ASYNC_DISPATCH).permitAll()
                 // Permit GET /api/health without authentication
                 .requestMatchers(HttpMethod.GET, "/api/health").permitAll()
                 // Permit all /api/auth/** endpoints (login, signup, register)
                 .requestMatchers("/api/auth/**").permitAll()
+                // Prometheus scrapes without a token, but only on the internal management port
+                .requestMatchers(onManagementPort(managementPort, "/actuator/prometheus")).permitAll()
+                // Operator endpoints (on-demand JFR recordings) need a user flagged admin in the database
+                .requestMatchers("/api/admin/**").access(adminAuthorizationManager)
                 // Require authentication for all other requests
                 .anyRequest().authenticated()
             )
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
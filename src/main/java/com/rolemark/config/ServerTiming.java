@@ -0,0 +1,115 @@
+package com.rolemark.config;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Time spent per stage (extract, hash, parse, db-read, score, db-write) while serving
+ * one request, reported in its {@code Server-Timing} header by {@link ServerTimingFilter}.
+ *
+ * The timing of the request being served is current on its thread, and context
+ * snapshots carry it onto the executors the request hands work to. Outside such a
+ * request {@link #time} just runs the work, at the cost of one thread-local read.
+ */
+public final class ServerTiming {
+    
+    public static final String EXTRACT = "extract";
+    public static final String HASH = "hash";
+    public static final String PARSE = "parse";
+    public static final String DB_READ = "db-read";
+    public static final String SCORE = "score";
+    public static final String DB_WRITE = "db-write";
+    
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    
+    private final long startNanos = System.nanoTime();
+    // In order of first use; guarded by this
+    private final Map<String, long[]> stages = new LinkedHashMap<>();
+    
+    private ServerTiming() {
+    }
+    
+    /** Starts timing a request served on this thread. */
+    static ServerTiming start() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+    
+    static void clear() {
+        CURRENT.remove();
+    }
+    
+    /** Timing of the request served on this thread, or null. */
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+    
+    /** Runs {@code work}, adding its duration to {@code stage} of the current request if any. */
+    public static <T> T time(String stage, Supplier<T> work) {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) {
+            return work.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            timing.add(stage, System.nanoTime() - start);
+        }
+    }
+    
+    public synchronized void add(String stage, long nanos) {
+        long[] totals = stages.computeIfAbsent(stage, key -> new long[2]);
+        totals[0] += nanos;
+        totals[1]++;
+    }
+    
+    /**
+     * Header value, e.g. {@code hash;dur=0.41, db-read;dur=3.20;desc="4 calls", total;dur=9.87}.
+     * Durations are milliseconds; stages that overlap (a repository call made while
+     * scoring) count in both.
+     */
+    public synchronized String headerValue() {
+        StringJoiner header = new StringJoiner(", ");
+        stages.forEach((stage, totals) -> header.add(stage + ";dur=" + millis(totals[0])
+                + (totals[1] > 1 ? ";desc=\"" + totals[1] + " calls\"" : "")));
+        header.add("total;dur=" + millis(System.nanoTime() - startNanos));
+        return header.toString();
+    }
+    
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+    
+    /** Makes the current request's timing travel with context snapshots. */
+    public static class Accessor implements ThreadLocalAccessor<ServerTiming> {
+        
+        public static final String KEY = "rolemark.server-timing";
+        
+        @Override
+        public Object key() {
+            return KEY;
+        }
+        
+        @Override
+        public ServerTiming getValue() {
+            return CURRENT.get();
+        }
+        
+        @Override
+        public void setValue(ServerTiming value) {
+            CURRENT.set(value);
+        }
+        
+        @Override
+        public void setValue() {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.rolemark.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Modifying;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feeds {@link ServerTiming}: PDF extraction, parsing and scoring calls, and repository
+ * calls split into reads and writes. Calls outside a timed request pass straight through.
+ */
+@Aspect
+public class ServerTimingAspect {
+    
+    private static final String[] WRITE_PREFIXES = {"save", "delete", "insert", "update", "flush"};
+    
+    private final Map<Method, String> repositoryStages = new ConcurrentHashMap<>();
+    
+    @Around("execution(public * com.rolemark.service.PdfExtractionService.extractPages(..))"
+            + " || execution(public * com.rolemark.service.PdfExtractionService.preflight(..))")
+    public Object timeExtract(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTiming.EXTRACT);
+    }
+    
+    @Around("execution(public * com.rolemark.service.ResumeParserService.parseResume(java.util.List))")
+    public Object timeParse(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTiming.PARSE);
+    }
+    
+    @Around("execution(public * com.rolemark.service.ScoringService.scoreResume(..))")
+    public Object timeScore(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTiming.SCORE);
+    }
+    
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ServerTiming.current() == null) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return time(joinPoint, repositoryStages.computeIfAbsent(method, ServerTimingAspect::repositoryStage));
+    }
+    
+    private Object time(ProceedingJoinPoint joinPoint, String stage) throws Throwable {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.add(stage, System.nanoTime() - start);
+        }
+    }
+    
+    /** Derived saves and deletes and {@code @Modifying} queries write; everything else reads. */
+    private static String repositoryStage(Method method) {
+        if (AnnotatedElementUtils.hasAnnotation(method, Modifying.class)) {
+            return ServerTiming.DB_WRITE;
+        }
+        for (String prefix : WRITE_PREFIXES) {
+            if (method.getName().startsWith(prefix)) {
+                return ServerTiming.DB_WRITE;
+            }
+        }
+        return ServerTiming.DB_READ;
+    }
+}
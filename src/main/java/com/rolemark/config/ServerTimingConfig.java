@@ -0,0 +1,35 @@
+package com.rolemark.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * {@code Server-Timing} headers on uploads, evaluation runs and result reads, for
+ * diagnosing latency from a browser or curl. The filter and aspect are only set up when
+ * {@code rolemark.server-timing.enabled} is true, so a disabled instance pays nothing
+ * beyond a thread-local read when context is handed to another thread. That hand-off
+ * goes through {@link ServerTiming.Accessor}, registered with the context-propagation
+ * library in {@code META-INF/services}, and the task decorator in {@link TracingConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rolemark.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig {
+    
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        List<ServerTimingFilter.Route> routes = List.of(
+                new ServerTimingFilter.Route("POST", "/api/resumes"),
+                new ServerTimingFilter.Route("POST", "/api/evaluations/*/run"),
+                new ServerTimingFilter.Route("GET", "/api/evaluations/*/results"));
+        return new FilterRegistrationBean<>(new ServerTimingFilter(routes));
+    }
+    
+    @Bean
+    public ServerTimingAspect serverTimingAspect() {
+        return new ServerTimingAspect();
+    }
+}
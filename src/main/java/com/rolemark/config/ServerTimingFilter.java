@@ -0,0 +1,91 @@
+package com.rolemark.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Adds a {@code Server-Timing} header with the request's {@link ServerTiming} to the
+ * routes it is set up for. The header goes out with the response headers, so it covers
+ * the work done until the response is committed: for a streamed body, the queries that
+ * produced its first elements but not the rest of the stream.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "Server-Timing";
+    
+    private final List<Route> routes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    public ServerTimingFilter(List<Route> routes) {
+        this.routes = routes;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Route route : routes) {
+            if (route.method.equalsIgnoreCase(request.getMethod()) && pathMatcher.match(route.pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.start();
+        TimedResponse timedResponse = new TimedResponse(response, timing);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            ServerTiming.clear();
+            // A streamed body is still being written elsewhere and sets the header when it commits
+            if (!request.isAsyncStarted()) {
+                timedResponse.writeHeader();
+            }
+        }
+    }
+    
+    /** Requests with {@code method} on paths matching {@code pattern}. */
+    public static class Route {
+        private final String method;
+        private final String pattern;
+        
+        public Route(String method, String pattern) {
+            this.method = method;
+            this.pattern = pattern;
+        }
+    }
+    
+    /** Sets the header just before the response commits, whichever way it does. */
+    private static class TimedResponse extends OnCommittedResponseWrapper {
+        private final ServerTiming timing;
+        private boolean written;
+        
+        TimedResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+        
+        @Override
+        protected void onResponseCommitted() {
+            writeHeader();
+        }
+        
+        synchronized void writeHeader() {
+            if (!written && !isCommitted()) {
+                setHeader(HEADER, timing.headerValue());
+            }
+            written = true;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.rolemark.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Child spans for the stages of the upload and evaluation flows and for the writes
+ * they are made of: the resume row, its text, its extracted signals and the scored
+ * breakdowns. Other repository calls are left to their enclosing stage. Calls outside
+ * any trace, such as the workers' polling queries, are not traced, so idle instances
+ * export nothing.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+    
+    /** Repositories whose writes are steps of the upload and evaluation flows. */
+    private static final Set<String> TRACED_REPOSITORIES = Set.of(
+            "ResumeRepository", "ResumeTextRepository", "ExtractedSignalRepository", "ScoreBreakdownRepository");
+    
+    private final Tracer tracer;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+    
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+    
+    @Around("execution(public * com.rolemark.service.ResumeService.uploadResume(..))"
+            + " || execution(public * com.rolemark.service.PdfExtractionService.extractPages(..))"
+            + " || execution(public * com.rolemark.service.PdfExtractionService.preflight(..))"
+            + " || execution(public * com.rolemark.service.ResumeParserService.parseResume(java.util.List))"
+            + " || execution(public * com.rolemark.service.ExtractionCacheService.*(..))"
+            + " || execution(public * com.rolemark.service.ScoringService.scoreResume(..))"
+            + " || execution(public * com.rolemark.service.EvaluationService.runEvaluation(..))"
+            + " || execution(public * com.rolemark.service.EvaluationQueueService.enqueue(..))")
+    public Object traceStage(ProceedingJoinPoint joinPoint) throws Throwable {
+        String name = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        return trace(joinPoint, name, "stage");
+    }
+    
+    // Spring Data advises its proxies by their SimpleJpaRepository target, so the pointcut
+    // cannot tell repositories apart; the ones not in the flows are skipped by name
+    @Around("execution(* save*(..)) && this(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), TracingAspect::repositoryName);
+        if (!TRACED_REPOSITORIES.contains(repository)) {
+            return joinPoint.proceed();
+        }
+        return trace(joinPoint, repository + "." + joinPoint.getSignature().getName(), "repository");
+    }
+    
+    private Object trace(ProceedingJoinPoint joinPoint, String name, String component) throws Throwable {
+        if (tracer.currentSpan() == null) {
+            return joinPoint.proceed();
+        }
+        Span span = tracer.nextSpan().name(name).tag("component", component).start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+    
+    /** The application's repository interface behind a Spring Data proxy. */
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : proxyClass.getInterfaces()) {
+            if (type.getName().startsWith("com.rolemark.")) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
@@ -0,0 +1,46 @@
+package com.rolemark.config;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.contextpropagation.ObservationAwareSpanThreadLocalAccessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Tracing beyond what Spring Boot sets up. Boot traces HTTP requests and exports to
+ * OTLP when {@code management.otlp.tracing.endpoint} is set; this adds a file exporter
+ * for local runs and carries spans across {@link WorkExecutors} hand-offs and onto
+ * Spring MVC's task executor.
+ */
+@Configuration
+public class TracingConfig {
+    
+    /** Lets context snapshots carry spans started through the Tracer, not only observations. */
+    @Bean
+    public ObservationAwareSpanThreadLocalAccessor spanThreadLocalAccessor(Tracer tracer) {
+        ObservationAwareSpanThreadLocalAccessor accessor = new ObservationAwareSpanThreadLocalAccessor(tracer);
+        ContextRegistry.getInstance().registerThreadLocalAccessor(accessor);
+        return accessor;
+    }
+    
+    /**
+     * Streamed results are written on Spring MVC's task executor; this carries the
+     * request's span (and {@link ServerTiming}, when enabled) onto that thread.
+     */
+    @Bean
+    public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+    
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnExpression("!'${rolemark.tracing.file:}'.isBlank()")
+    public JsonLinesSpanExporter fileSpanExporter(@Value("${rolemark.tracing.file}") Path file) throws IOException {
+        return new JsonLinesSpanExporter(file);
+    }
+}
@@ -0,0 +1,114 @@
+package com.rolemark.config;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executors for work done off the request thread.
+ *
+ * With {@code spring.threads.virtual.enabled}, servlet requests (configured by Spring
+ * Boot) and worker poll loops run on virtual threads. CPU-bound
+ * work (PDF extraction, parsing, scoring) always runs on a bounded pool of platform
+ * threads, so no number of virtual threads can oversubscribe the cores. Its queue and
+ * active threads are published as {@code rolemark.executor.*} with name {@code cpu-work}.
+ *
+ * Tasks run with the submitter's context (current observation and span), so work
+ * handed to the pool stays in the trace of the request or job that submitted it.
+ */
+@Component
+public class WorkExecutors {
+    
+    private final boolean virtual;
+    private final int cpuThreads;
+    private final ExecutorService cpuExecutor;
+    
+    public WorkExecutors(@Value("${spring.threads.virtual.enabled:false}") boolean virtual,
+                         @Value("${rolemark.executors.cpu-threads:0}") int cpuThreads,
+                         MeterRegistry meterRegistry) {
+        this.virtual = virtual;
+        this.cpuThreads = cpuThreads > 0 ? cpuThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService cpuPool = Executors.newFixedThreadPool(this.cpuThreads, platformThreads("cpu-work"));
+        new ExecutorServiceMetrics(cpuPool, "cpu-work", "rolemark", Tags.empty()).bindTo(meterRegistry);
+        ContextSnapshotFactory snapshots = ContextSnapshotFactory.builder().build();
+        this.cpuExecutor = ContextExecutorService.wrap(cpuPool, snapshots::captureAll);
+    }
+    
+    public boolean isVirtual() {
+        return virtual;
+    }
+    
+    public int getCpuThreads() {
+        return cpuThreads;
+    }
+    
+    /** Threads for long-running loops that mostly wait on the database, named {@code name-0, name-1, ...}. */
+    public ThreadFactory loopThreads(String name) {
+        return virtual ? Thread.ofVirtual().name(name + "-", 0).factory() : platformThreads(name);
+    }
+    
+    /**
+     * Runs CPU-bound work on the bounded pool and waits for it. Exceptions thrown by the
+     * task are rethrown as they are.
+     */
+    public <T> T onCpu(Callable<T> task) throws Exception {
+        return await(cpuExecutor.submit(task));
+    }
+    
+    /** Runs the tasks on the bounded pool, in parallel up to its size, and returns their results in order. */
+    public <T> List<T> allOnCpu(List<Callable<T>> tasks) throws Exception {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(cpuExecutor.submit(task));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(await(future));
+            }
+        } finally {
+            // After a failure the remaining results are useless; free the pool
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        cpuExecutor.shutdownNow();
+    }
+    
+    private static <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    // Numbered, so thread dumps tell the pool's threads apart
+    private static ThreadFactory platformThreads(String name) {
+        return Thread.ofPlatform().name(name + "-", 0).daemon(true).factory();
+    }
+}
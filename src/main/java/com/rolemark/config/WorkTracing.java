@@ -0,0 +1,97 @@
+package com.rolemark.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Spans for work that does not come from an HTTP request, and the hand-off of trace
+ * context through the database queues.
+ *
+ * Queued work stores the W3C {@code traceparent} of the span that queued it. The
+ * worker that claims it continues that trace, so an upload's extraction, parsing and
+ * indexing, or a run's scoring chunks, show up under the request that started them.
+ */
+@Component
+public class WorkTracing {
+    
+    private static final String TRACE_PARENT = "traceparent";
+    
+    private final Tracer tracer;
+    private final Propagator propagator;
+    
+    public WorkTracing(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+    
+    /** {@code traceparent} of the current span, or null outside any trace. */
+    public String currentTraceParent() {
+        Span span = tracer.currentSpan();
+        if (span == null) {
+            return null;
+        }
+        Map<String, String> headers = new HashMap<>();
+        propagator.inject(span.context(), headers, Map::put);
+        return headers.get(TRACE_PARENT);
+    }
+    
+    /**
+     * Starts a span in the trace {@code traceParent} points to, or in a new trace when it
+     * is null or unreadable, and makes it current until closed.
+     */
+    public ScopedSpan startSpan(String name, String traceParent) {
+        Span.Builder builder = traceParent != null
+                ? propagator.extract(Map.of(TRACE_PARENT, traceParent), Map::get)
+                : tracer.spanBuilder().setNoParent();
+        Span span = builder.name(name).start();
+        return new ScopedSpan(span, tracer.withSpan(span));
+    }
+    
+    /** Runs {@code work} in a child span of the current one; outside a trace it just runs it. */
+    public <T> T inSpan(String name, Supplier<T> work) {
+        if (tracer.currentSpan() == null) {
+            return work.get();
+        }
+        Span span = tracer.nextSpan().name(name).start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return work.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+    
+    /** A started span that is current on this thread; closing it ends the span. */
+    public static class ScopedSpan implements AutoCloseable {
+        private final Span span;
+        private final Tracer.SpanInScope scope;
+        
+        ScopedSpan(Span span, Tracer.SpanInScope scope) {
+            this.span = span;
+            this.scope = scope;
+        }
+        
+        public ScopedSpan tag(String key, Object value) {
+            span.tag(key, String.valueOf(value));
+            return this;
+        }
+        
+        public void error(Throwable error) {
+            span.error(error);
+        }
+        
+        @Override
+        public void close() {
+            scope.close();
+            span.end();
+        }
+    }
+}
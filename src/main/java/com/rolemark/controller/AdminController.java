@@ -0,0 +1,87 @@
+package com.rolemark.controller;
+
+import com.rolemark.service.JfrRecordingService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Operator endpoints. Only users flagged {@code admin} in the database get through
+ * (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    
+    private final JfrRecordingService jfrRecordingService;
+    
+    public AdminController(JfrRecordingService jfrRecordingService) {
+        this.jfrRecordingService = jfrRecordingService;
+    }
+    
+    /**
+     * Starts recording this instance for {@code seconds} and answers 202 at once with the
+     * recording's id; collect the file from the Location given.
+     */
+    @PostMapping("/jfr-recordings")
+    public ResponseEntity<Map<String, Object>> startJfr(
+            @RequestParam(defaultValue = "30") long seconds,
+            @RequestParam(defaultValue = "default") String settings) throws IOException {
+        JfrRecordingService.RecordingStatus recording = jfrRecordingService.start(Duration.ofSeconds(seconds), settings);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/jfr-recordings/" + recording.getId()))
+                .body(describe(recording));
+    }
+    
+    /**
+     * The finished recording as a JFR file, which is then dropped from the instance; open it
+     * in JDK Mission Control or {@code jfr print}. While it is still recording, an empty
+     * 202 with Retry-After set to the time left.
+     */
+    @GetMapping("/jfr-recordings/{id}")
+    public ResponseEntity<StreamingResponseBody> collectJfr(@PathVariable long id) throws IOException {
+        Optional<Path> finished = jfrRecordingService.collect(id);
+        if (finished.isEmpty()) {
+            long secondsRemaining = jfrRecordingService.status(id).getRemaining().toSeconds();
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, secondsRemaining)))
+                    .build();
+        }
+        
+        Path file = finished.get();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("rolemark-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr")
+                        .build().toString())
+                .body(body);
+    }
+    
+    private static Map<String, Object> describe(JfrRecordingService.RecordingStatus recording) {
+        return Map.of(
+                "id", recording.getId(),
+                "status", recording.isRunning() ? "running" : "finished",
+                "secondsRemaining", recording.getRemaining().toSeconds());
+    }
+}
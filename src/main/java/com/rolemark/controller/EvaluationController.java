@@ -1,13 +1,21 @@
 package com.rolemark.controller;
 
+import com.rolemark.dto.CursorPage;
 import com.rolemark.dto.EvaluationRequest;
+import com.rolemark.dto.EvaluationSummary;
+import com.rolemark.dto.ListQuery;
 import com.rolemark.entity.Evaluation;
 import com.rolemark.service.EvaluationService;
+import com.rolemark.service.ResultExportService;
 import com.rolemark.util.SecurityUtil;
 import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -18,9 +26,11 @@ import java.util.UUID;
 public class EvaluationController {
     
     private final EvaluationService evaluationService;
+    private final ResultExportService resultExportService;
     
-    public EvaluationController(EvaluationService evaluationService) {
+    public EvaluationController(EvaluationService evaluationService, ResultExportService resultExportService) {
         this.evaluationService = evaluationService;
+        this.resultExportService = resultExportService;
     }
     
     @PostMapping
@@ -34,15 +44,18 @@ public class EvaluationController {
     @PostMapping("/{evaluationId}/run")
     public ResponseEntity<Map<String, String>> runEvaluation(@PathVariable Long evaluationId) {
         UUID userId = SecurityUtil.getCurrentUserId();
-        evaluationService.runEvaluation(userId, evaluationId);
-        return ResponseEntity.ok(Map.of("status", "completed", "message", "Evaluation completed successfully"));
+        boolean started = evaluationService.runEvaluation(userId, evaluationId);
+        // Scoring happens on the worker queue; poll GET /api/evaluations/{id} for the outcome.
+        // A duplicate request (double click, client retry) gets the same answer for the run in flight.
+        return ResponseEntity.accepted().body(Map.of("status", "running", "message",
+                started ? "Evaluation queued for scoring" : "Evaluation is already running"));
     }
     
     @GetMapping
-    public ResponseEntity<List<Evaluation>> getAllEvaluations() {
+    public ResponseEntity<List<EvaluationSummary>> getAllEvaluations(ListQuery query) {
         UUID userId = SecurityUtil.getCurrentUserId();
-        List<Evaluation> evaluations = evaluationService.getAllEvaluations(userId);
-        return ResponseEntity.ok(evaluations);
+        CursorPage<EvaluationSummary> page = evaluationService.listEvaluations(userId, query);
+        return page.toResponse();
     }
     
     @GetMapping("/{evaluationId}")
@@ -53,10 +66,27 @@ public class EvaluationController {
     }
     
     @GetMapping("/{evaluationId}/results")
-    public ResponseEntity<List<Map<String, Object>>> getEvaluationResults(@PathVariable Long evaluationId) {
+    public ResponseEntity<StreamingResponseBody> getEvaluationResults(@PathVariable Long evaluationId) {
         UUID userId = SecurityUtil.getCurrentUserId();
-        List<Map<String, Object>> results = evaluationService.getEvaluationResults(userId, evaluationId);
-        return ResponseEntity.ok(results);
+        StreamingResponseBody results = evaluationService.streamEvaluationResults(userId, evaluationId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(results);
+    }
+    
+    @GetMapping("/{evaluationId}/export")
+    public ResponseEntity<StreamingResponseBody> exportEvaluationResults(
+            @PathVariable Long evaluationId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        UUID userId = SecurityUtil.getCurrentUserId();
+        ResultExportService.Format exportFormat = ResultExportService.Format.parse(format);
+        StreamingResponseBody body = resultExportService.export(userId, evaluationId, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("evaluation-" + evaluationId + "-results." + exportFormat.getExtension())
+                        .build().toString())
+                .body(body);
     }
     
     @GetMapping("/{evaluationId}/compare")
@@ -1,5 +1,8 @@
 package com.rolemark.controller;
 
+import com.rolemark.dto.CursorPage;
+import com.rolemark.dto.ListQuery;
+import com.rolemark.dto.ResumeSummary;
 import com.rolemark.entity.Resume;
 import com.rolemark.service.ResumeService;
 import com.rolemark.util.SecurityUtil;
@@ -11,7 +14,9 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -29,20 +34,23 @@ public class ResumeController {
     @PostMapping
     public ResponseEntity<Resume> uploadResume(
             @RequestParam("file") MultipartFile file,
-            @RequestParam(value = "roleId", required = false) Long roleId) throws IOException {
+            @RequestParam(value = "roleId", required = false) Long roleId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws IOException {
         UUID userId = SecurityUtil.getCurrentUserId();
         logger.info("Uploading resume: filename={}, roleId={}, userId={}", 
                 file.getOriginalFilename(), roleId, userId);
-        Resume resume = resumeService.uploadResume(userId, file, roleId);
-        return ResponseEntity.status(HttpStatus.CREATED).body(resume);
+        ResumeService.UploadResult result = resumeService.uploadResume(userId, file, roleId, idempotencyKey);
+        // 201 for a new resume, 200 when the same file was already stored
+        HttpStatus status = result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(result.getResume());
     }
     
     @GetMapping
-    public ResponseEntity<List<Resume>> getAllResumes() {
+    public ResponseEntity<List<ResumeSummary>> getAllResumes(ListQuery query) {
         UUID userId = SecurityUtil.getCurrentUserId();
-        logger.info("Fetching all resumes for userId={}", userId);
-        List<Resume> resumes = resumeService.getAllResumes(userId);
-        return ResponseEntity.ok(resumes);
+        logger.info("Fetching resumes for userId={}", userId);
+        CursorPage<ResumeSummary> page = resumeService.listResumes(userId, query);
+        return page.toResponse();
     }
     
     @GetMapping("/{resumeId}")
@@ -53,6 +61,17 @@ public class ResumeController {
         return ResponseEntity.ok(resume);
     }
     
+    @GetMapping("/{resumeId}/pages/{pageNumber}")
+    public ResponseEntity<Map<String, Object>> getResumePage(@PathVariable Long resumeId, @PathVariable int pageNumber) {
+        UUID userId = SecurityUtil.getCurrentUserId();
+        String text = resumeService.getResumePageText(userId, resumeId, pageNumber);
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("resumeId", resumeId);
+        page.put("pageNumber", pageNumber);
+        page.put("text", text);
+        return ResponseEntity.ok(page);
+    }
+    
     @DeleteMapping("/{resumeId}")
     public ResponseEntity<Void> deleteResume(@PathVariable Long resumeId) {
         UUID userId = SecurityUtil.getCurrentUserId();
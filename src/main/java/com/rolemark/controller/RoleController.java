@@ -1,5 +1,7 @@
 package com.rolemark.controller;
 
+import com.rolemark.dto.CursorPage;
+import com.rolemark.dto.ListQuery;
 import com.rolemark.dto.RoleRequest;
 import com.rolemark.dto.RoleResponse;
 import com.rolemark.service.RoleService;
@@ -34,10 +36,10 @@ public class RoleController {
     }
     
     @GetMapping
-    public ResponseEntity<List<RoleResponse>> getAllRoles() {
+    public ResponseEntity<List<RoleResponse>> getAllRoles(ListQuery query) {
         UUID userId = SecurityUtil.getCurrentUserId();
-        List<RoleResponse> roles = roleService.getAllRoles(userId);
-        return ResponseEntity.ok(roles);
+        CursorPage<RoleResponse> page = roleService.listRoles(userId, query);
+        return page.toResponse();
     }
     
     @GetMapping("/{roleId}")
@@ -22,13 +22,16 @@ public class WebController {
     private final CriterionService criterionService;
     private final ResumeService resumeService;
     private final EvaluationService evaluationService;
+    private final DashboardService dashboardService;
     
     public WebController(RoleService roleService, CriterionService criterionService,
-                        ResumeService resumeService, EvaluationService evaluationService) {
+                        ResumeService resumeService, EvaluationService evaluationService,
+                        DashboardService dashboardService) {
         this.roleService = roleService;
         this.criterionService = criterionService;
         this.resumeService = resumeService;
         this.evaluationService = evaluationService;
+        this.dashboardService = dashboardService;
     }
     
     @GetMapping("/login")
@@ -39,16 +42,23 @@ public class WebController {
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
         UUID userId = SecurityUtil.getCurrentUserId();
-        List<RoleResponse> roles = roleService.getAllRoles(userId);
-        List<Resume> resumes = resumeService.getAllResumes(userId);
-        List<Evaluation> evaluations = evaluationService.getAllEvaluations(userId);
+        DashboardService.Dashboard dashboard = dashboardService.getDashboard(userId);
         
-        model.addAttribute("roles", roles);
-        model.addAttribute("resumes", resumes);
-        model.addAttribute("evaluations", evaluations);
+        model.addAttribute("counts", dashboard.getCounts());
+        model.addAttribute("roles", dashboard.getRecentRoles());
+        model.addAttribute("resumes", dashboard.getRecentResumes());
+        model.addAttribute("evaluations", dashboard.getRecentEvaluations());
         return "dashboard";
     }
     
+    @GetMapping("/roles")
+    public String rolesPage(ListQuery query, Model model) {
+        UUID userId = SecurityUtil.getCurrentUserId();
+        model.addAttribute("page", roleService.listRoleSummaries(userId, query));
+        model.addAttribute("query", query);
+        return "roles";
+    }
+    
     @GetMapping("/roles/new")
     public String newRoleForm(Model model) {
         model.addAttribute("role", new RoleRequest());
@@ -87,6 +97,14 @@ public class WebController {
         return "redirect:/roles/" + roleId + "/criteria";
     }
     
+    @GetMapping("/resumes")
+    public String resumesPage(ListQuery query, Model model) {
+        UUID userId = SecurityUtil.getCurrentUserId();
+        model.addAttribute("page", resumeService.listResumes(userId, query));
+        model.addAttribute("query", query);
+        return "resumes";
+    }
+    
     @GetMapping("/resumes/upload")
     public String uploadResumeForm() {
         return "resume-upload";
@@ -96,22 +114,35 @@ public class WebController {
     public String uploadResume(@RequestParam("file") MultipartFile file, RedirectAttributes redirectAttributes) {
         try {
             UUID userId = SecurityUtil.getCurrentUserId();
-            resumeService.uploadResume(userId, file);
-            redirectAttributes.addFlashAttribute("message", "Resume uploaded successfully");
+            ResumeService.UploadResult result = resumeService.uploadResume(userId, file, null, null);
+            redirectAttributes.addFlashAttribute("message", result.isCreated()
+                    ? "Resume uploaded; it can be evaluated once processing finishes"
+                    : "This resume was already uploaded");
         } catch (IOException e) {
             redirectAttributes.addFlashAttribute("error", "Failed to upload resume: " + e.getMessage());
         }
         return "redirect:/dashboard";
     }
     
+    @GetMapping("/evaluations")
+    public String evaluationsPage(ListQuery query, Model model) {
+        UUID userId = SecurityUtil.getCurrentUserId();
+        model.addAttribute("page", evaluationService.listEvaluations(userId, query));
+        model.addAttribute("query", query);
+        return "evaluations";
+    }
+    
     @GetMapping("/evaluations/new")
-    public String newEvaluationForm(Model model) {
+    public String newEvaluationForm(ListQuery query, Model model) {
         UUID userId = SecurityUtil.getCurrentUserId();
-        List<RoleResponse> roles = roleService.getAllRoles(userId);
-        List<Resume> resumes = resumeService.getAllResumes(userId);
+        // The query filters and pages the resume picker
+        List<RoleSummary> roles = roleService.listRoleSummaries(userId, ListQuery.firstPage(ListQuery.MAX_LIMIT)).getItems();
+        CursorPage<ResumeSummary> resumes = resumeService.listResumes(userId, query);
         
         model.addAttribute("roles", roles);
-        model.addAttribute("resumes", resumes);
+        model.addAttribute("resumes", resumes.getItems());
+        model.addAttribute("nextCursor", resumes.getNextCursor());
+        model.addAttribute("query", query);
         model.addAttribute("evaluation", new EvaluationRequest());
         return "evaluation-form";
     }
@@ -128,8 +159,10 @@ public class WebController {
     public String runEvaluation(@PathVariable Long evaluationId, RedirectAttributes redirectAttributes) {
         UUID userId = SecurityUtil.getCurrentUserId();
         try {
-            evaluationService.runEvaluation(userId, evaluationId);
-            redirectAttributes.addFlashAttribute("message", "Evaluation completed successfully");
+            boolean started = evaluationService.runEvaluation(userId, evaluationId);
+            redirectAttributes.addFlashAttribute("message", started
+                    ? "Evaluation started; results appear as candidates are scored"
+                    : "Evaluation is already running; results appear as candidates are scored");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Evaluation failed: " + e.getMessage());
         }
@@ -0,0 +1,50 @@
+package com.rolemark.dto;
+
+public class DashboardCounts {
+    private Long roleCount;
+    private Long resumeCount;
+    private Long evaluationCount;
+    private Long completedEvaluationCount;
+    
+    public DashboardCounts() {
+    }
+    
+    public DashboardCounts(Long roleCount, Long resumeCount, Long evaluationCount, Long completedEvaluationCount) {
+        this.roleCount = roleCount;
+        this.resumeCount = resumeCount;
+        this.evaluationCount = evaluationCount;
+        this.completedEvaluationCount = completedEvaluationCount;
+    }
+    
+    public Long getRoleCount() {
+        return roleCount;
+    }
+    
+    public void setRoleCount(Long roleCount) {
+        this.roleCount = roleCount;
+    }
+    
+    public Long getResumeCount() {
+        return resumeCount;
+    }
+    
+    public void setResumeCount(Long resumeCount) {
+        this.resumeCount = resumeCount;
+    }
+    
+    public Long getEvaluationCount() {
+        return evaluationCount;
+    }
+    
+    public void setEvaluationCount(Long evaluationCount) {
+        this.evaluationCount = evaluationCount;
+    }
+    
+    public Long getCompletedEvaluationCount() {
+        return completedEvaluationCount;
+    }
+    
+    public void setCompletedEvaluationCount(Long completedEvaluationCount) {
+        this.completedEvaluationCount = completedEvaluationCount;
+    }
+}
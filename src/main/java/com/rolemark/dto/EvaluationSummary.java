@@ -0,0 +1,89 @@
+package com.rolemark.dto;
+
+import com.rolemark.entity.Evaluation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * List view of an evaluation with its role title and a score summary.
+ */
+public class EvaluationSummary {
+    private Long id;
+    private Long roleId;
+    private String roleTitle;
+    private String status;
+    private LocalDateTime createdAt;
+    private Long candidateCount;
+    private BigDecimal topScorePct; // null until the evaluation has been scored
+    
+    public EvaluationSummary() {
+    }
+    
+    public EvaluationSummary(Long id, Long roleId, String roleTitle, Evaluation.Status status, LocalDateTime createdAt,
+                             Long candidateCount, BigDecimal topScorePct) {
+        this.id = id;
+        this.roleId = roleId;
+        this.roleTitle = roleTitle;
+        this.status = status.name();
+        this.createdAt = createdAt;
+        this.candidateCount = candidateCount;
+        this.topScorePct = topScorePct;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getRoleId() {
+        return roleId;
+    }
+    
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+    
+    public String getRoleTitle() {
+        return roleTitle;
+    }
+    
+    public void setRoleTitle(String roleTitle) {
+        this.roleTitle = roleTitle;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Long getCandidateCount() {
+        return candidateCount;
+    }
+    
+    public void setCandidateCount(Long candidateCount) {
+        this.candidateCount = candidateCount;
+    }
+    
+    public BigDecimal getTopScorePct() {
+        return topScorePct;
+    }
+    
+    public void setTopScorePct(BigDecimal topScorePct) {
+        this.topScorePct = topScorePct;
+    }
+}
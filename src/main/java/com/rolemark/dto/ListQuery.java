@@ -0,0 +1,133 @@
+package com.rolemark.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Paging and filter parameters shared by the list endpoints and pages.
+ * Filters that do not apply to a list are ignored by it.
+ */
+public class ListQuery {
+    
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    
+    // Stand-ins for open bounds, so every list query binds the same non-null parameters
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    
+    private String cursor;
+    private Integer limit;
+    private Long roleId;
+    private String status;
+    private String filenamePrefix;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+    
+    public ListQuery() {
+    }
+    
+    public static ListQuery firstPage(int limit) {
+        ListQuery query = new ListQuery();
+        query.setLimit(limit);
+        return query;
+    }
+    
+    public int resolveLimit() {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+    
+    /** Inclusive lower bound: the start of {@code createdFrom}. */
+    public LocalDateTime createdFromInclusive() {
+        return createdFrom != null ? createdFrom.atStartOfDay() : EARLIEST;
+    }
+    
+    /** Exclusive upper bound: the start of the day after {@code createdTo}. */
+    public LocalDateTime createdToExclusive() {
+        return createdTo != null ? createdTo.plusDays(1).atStartOfDay() : LATEST;
+    }
+    
+    /** Case-insensitive LIKE pattern for the filename prefix, with wildcards escaped. */
+    public String filenameLikePattern() {
+        if (filenamePrefix == null || filenamePrefix.isBlank()) {
+            return "%";
+        }
+        String escaped = filenamePrefix.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return escaped + "%";
+    }
+    
+    public KeysetCursor resolveCursor() {
+        return cursor == null || cursor.isBlank() ? KeysetCursor.START : KeysetCursor.decode(cursor);
+    }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+    
+    public Integer getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+    
+    public Long getRoleId() {
+        return roleId;
+    }
+    
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getFilenamePrefix() {
+        return filenamePrefix;
+    }
+    
+    public void setFilenamePrefix(String filenamePrefix) {
+        this.filenamePrefix = filenamePrefix;
+    }
+    
+    public LocalDate getCreatedFrom() {
+        return createdFrom;
+    }
+    
+    public void setCreatedFrom(LocalDate createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+    
+    public LocalDate getCreatedTo() {
+        return createdTo;
+    }
+    
+    public void setCreatedTo(LocalDate createdTo) {
+        this.createdTo = createdTo;
+    }
+}
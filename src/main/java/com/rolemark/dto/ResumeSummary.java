@@ -0,0 +1,99 @@
+package com.rolemark.dto;
+
+import com.rolemark.entity.Resume;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * List view of a resume: metadata only, never the extracted text.
+ */
+public class ResumeSummary {
+    private Long id;
+    private String filename;
+    private Long fileSize;
+    private LocalDateTime createdAt;
+    private Long roleId;
+    private String roleTitle;
+    private Resume.IngestionStatus ingestionStatus;
+    private BigDecimal preScorePct;
+    
+    public ResumeSummary() {
+    }
+    
+    public ResumeSummary(Long id, String filename, Long fileSize, LocalDateTime createdAt, Long roleId, String roleTitle,
+                         Resume.IngestionStatus ingestionStatus, BigDecimal preScorePct) {
+        this.id = id;
+        this.filename = filename;
+        this.fileSize = fileSize;
+        this.createdAt = createdAt;
+        this.roleId = roleId;
+        this.roleTitle = roleTitle;
+        this.ingestionStatus = ingestionStatus;
+        this.preScorePct = preScorePct;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getFilename() {
+        return filename;
+    }
+    
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+    
+    public Long getFileSize() {
+        return fileSize;
+    }
+    
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Long getRoleId() {
+        return roleId;
+    }
+    
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+    
+    public String getRoleTitle() {
+        return roleTitle;
+    }
+    
+    public void setRoleTitle(String roleTitle) {
+        this.roleTitle = roleTitle;
+    }
+    
+    public Resume.IngestionStatus getIngestionStatus() {
+        return ingestionStatus;
+    }
+    
+    public void setIngestionStatus(Resume.IngestionStatus ingestionStatus) {
+        this.ingestionStatus = ingestionStatus;
+    }
+    
+    public BigDecimal getPreScorePct() {
+        return preScorePct;
+    }
+    
+    public void setPreScorePct(BigDecimal preScorePct) {
+        this.preScorePct = preScorePct;
+    }
+}
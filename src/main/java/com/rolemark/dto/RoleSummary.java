@@ -0,0 +1,45 @@
+package com.rolemark.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of a role, without the job description.
+ */
+public class RoleSummary {
+    private Long id;
+    private String title;
+    private LocalDateTime createdAt;
+    
+    public RoleSummary() {
+    }
+    
+    public RoleSummary(Long id, String title, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.createdAt = createdAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -22,6 +22,14 @@ public class Evaluation {
     @Enumerated(EnumType.STRING)
     private Status status = Status.CREATED;
     
+    // Latest run started; 0 before the first
+    @Column(name = "run_number", nullable = false)
+    private Integer runNumber = 0;
+    
+    // Run whose scores are shown: the latest one that completed, or null
+    @Column(name = "results_run_number")
+    private Integer resultsRunNumber;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -67,6 +75,22 @@ public class Evaluation {
         this.status = status;
     }
     
+    public Integer getRunNumber() {
+        return runNumber;
+    }
+    
+    public void setRunNumber(Integer runNumber) {
+        this.runNumber = runNumber;
+    }
+    
+    public Integer getResultsRunNumber() {
+        return resultsRunNumber;
+    }
+    
+    public void setResultsRunNumber(Integer resultsRunNumber) {
+        this.resultsRunNumber = resultsRunNumber;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -1,10 +1,7 @@
 package com.rolemark.entity;
 
 import jakarta.persistence.*;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @Entity
 @Table(name = "evaluation_snapshots")
@@ -17,15 +14,11 @@ public class EvaluationSnapshot {
     @Column(name = "evaluation_id", nullable = false)
     private Long evaluationId;
     
-    @Column(name = "role_title", nullable = false, length = 120)
-    private String roleTitle;
+    @Column(name = "run_number", nullable = false)
+    private Integer runNumber;
     
-    @Column(name = "role_job_description", nullable = false, columnDefinition = "TEXT")
-    private String roleJobDescription;
-    
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "criteria_json", nullable = false, columnDefinition = "jsonb")
-    private Map<String, Object> criteriaJson;
+    @Column(name = "rubric_version_id", nullable = false)
+    private Long rubricVersionId;
     
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -52,28 +45,20 @@ public class EvaluationSnapshot {
         this.evaluationId = evaluationId;
     }
     
-    public String getRoleTitle() {
-        return roleTitle;
-    }
-    
-    public void setRoleTitle(String roleTitle) {
-        this.roleTitle = roleTitle;
-    }
-    
-    public String getRoleJobDescription() {
-        return roleJobDescription;
+    public Integer getRunNumber() {
+        return runNumber;
     }
     
-    public void setRoleJobDescription(String roleJobDescription) {
-        this.roleJobDescription = roleJobDescription;
+    public void setRunNumber(Integer runNumber) {
+        this.runNumber = runNumber;
     }
     
-    public Map<String, Object> getCriteriaJson() {
-        return criteriaJson;
+    public Long getRubricVersionId() {
+        return rubricVersionId;
     }
     
-    public void setCriteriaJson(Map<String, Object> criteriaJson) {
-        this.criteriaJson = criteriaJson;
+    public void setRubricVersionId(Long rubricVersionId) {
+        this.rubricVersionId = rubricVersionId;
     }
     
     public LocalDateTime getCreatedAt() {
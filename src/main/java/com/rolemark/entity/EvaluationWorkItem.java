@@ -0,0 +1,228 @@
+package com.rolemark.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One chunk of an evaluation run's candidates, queued for any instance to score.
+ */
+@Entity
+@Table(name = "evaluation_work_items")
+public class EvaluationWorkItem {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "evaluation_id", nullable = false)
+    private Long evaluationId;
+    
+    // User the work runs for; background work is shared fairly between users
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+    
+    // Queued while the user already had a backlog; ranked below interactive work
+    @Column(nullable = false)
+    private Boolean bulk = false;
+    
+    @Column(name = "trace_parent", length = 55)
+    private String traceParent;
+    
+    @Column(name = "run_number", nullable = false)
+    private Integer runNumber;
+    
+    @Column(name = "chunk_index", nullable = false)
+    private Integer chunkIndex;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "resume_ids", nullable = false, columnDefinition = "jsonb")
+    private List<Long> resumeIds;
+    
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.PENDING;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+    
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+    
+    @Column(name = "lease_token")
+    private UUID leaseToken;
+    
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        createdAt = now;
+        updatedAt = now;
+        if (availableAt == null) {
+            availableAt = now;
+        }
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getEvaluationId() {
+        return evaluationId;
+    }
+    
+    public void setEvaluationId(Long evaluationId) {
+        this.evaluationId = evaluationId;
+    }
+    
+    public UUID getTenantId() {
+        return tenantId;
+    }
+    
+    public void setTenantId(UUID tenantId) {
+        this.tenantId = tenantId;
+    }
+    
+    public Boolean getBulk() {
+        return bulk;
+    }
+    
+    public void setBulk(Boolean bulk) {
+        this.bulk = bulk;
+    }
+    
+    public String getTraceParent() {
+        return traceParent;
+    }
+    
+    public void setTraceParent(String traceParent) {
+        this.traceParent = traceParent;
+    }
+    
+    public Integer getRunNumber() {
+        return runNumber;
+    }
+    
+    public void setRunNumber(Integer runNumber) {
+        this.runNumber = runNumber;
+    }
+    
+    public Integer getChunkIndex() {
+        return chunkIndex;
+    }
+    
+    public void setChunkIndex(Integer chunkIndex) {
+        this.chunkIndex = chunkIndex;
+    }
+    
+    public List<Long> getResumeIds() {
+        return resumeIds;
+    }
+    
+    public void setResumeIds(List<Long> resumeIds) {
+        this.resumeIds = resumeIds;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public Integer getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+    
+    public void setAvailableAt(LocalDateTime availableAt) {
+        this.availableAt = availableAt;
+    }
+    
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+    
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+    
+    public UUID getLeaseToken() {
+        return leaseToken;
+    }
+    
+    public void setLeaseToken(UUID leaseToken) {
+        this.leaseToken = leaseToken;
+    }
+    
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+    
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,98 @@
+package com.rolemark.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Entity
+@Table(name = "extraction_cache")
+public class ExtractionCacheEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "checksum_sha256", nullable = false, length = 64)
+    private String checksumSha256;
+    
+    @Column(name = "parser_version", nullable = false)
+    private Integer parserVersion;
+    
+    @Column(name = "page_count", nullable = false)
+    private Integer pageCount;
+    
+    @Column(name = "extracted_text", nullable = false, columnDefinition = "TEXT")
+    private String extractedText;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "signals_json", nullable = false, columnDefinition = "jsonb")
+    private List<Map<String, Object>> signalsJson;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getChecksumSha256() {
+        return checksumSha256;
+    }
+    
+    public void setChecksumSha256(String checksumSha256) {
+        this.checksumSha256 = checksumSha256;
+    }
+    
+    public Integer getParserVersion() {
+        return parserVersion;
+    }
+    
+    public void setParserVersion(Integer parserVersion) {
+        this.parserVersion = parserVersion;
+    }
+    
+    public Integer getPageCount() {
+        return pageCount;
+    }
+    
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+    
+    public String getExtractedText() {
+        return extractedText;
+    }
+    
+    public void setExtractedText(String extractedText) {
+        this.extractedText = extractedText;
+    }
+    
+    public List<Map<String, Object>> getSignalsJson() {
+        return signalsJson;
+    }
+    
+    public void setSignalsJson(List<Map<String, Object>> signalsJson) {
+        this.signalsJson = signalsJson;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,6 +1,7 @@
 package com.rolemark.entity;
 
 import jakarta.persistence.*;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -27,15 +28,22 @@ public class Resume {
     @Column(name = "checksum_sha256", nullable = false, length = 64)
     private String checksumSha256;
     
-    @Column(name = "raw_extracted_text", nullable = false, columnDefinition = "TEXT")
-    private String rawExtractedText;
-    
     @Column(name = "storage_path", length = 500)
     private String storagePath; // Optional, for local temp storage
     
     @Column(name = "role_id")
     private Long roleId; // Optional, associates resume with a role
     
+    @Column(name = "ingestion_status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private IngestionStatus ingestionStatus = IngestionStatus.PENDING;
+    
+    @Column(name = "ingestion_error", columnDefinition = "TEXT")
+    private String ingestionError;
+    
+    @Column(name = "pre_score_pct", precision = 5, scale = 1)
+    private BigDecimal preScorePct; // Provisional score against the linked role's rubric
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -44,6 +52,13 @@ public class Resume {
         createdAt = LocalDateTime.now();
     }
     
+    /**
+     * PENDING until the ingestion pipeline has stored the resume's text and signals.
+     */
+    public enum IngestionStatus {
+        PENDING, READY, FAILED
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -93,14 +108,6 @@ public class Resume {
         this.checksumSha256 = checksumSha256;
     }
     
-    public String getRawExtractedText() {
-        return rawExtractedText;
-    }
-    
-    public void setRawExtractedText(String rawExtractedText) {
-        this.rawExtractedText = rawExtractedText;
-    }
-    
     public String getStoragePath() {
         return storagePath;
     }
@@ -117,6 +124,30 @@ public class Resume {
         this.roleId = roleId;
     }
     
+    public IngestionStatus getIngestionStatus() {
+        return ingestionStatus;
+    }
+    
+    public void setIngestionStatus(IngestionStatus ingestionStatus) {
+        this.ingestionStatus = ingestionStatus;
+    }
+    
+    public String getIngestionError() {
+        return ingestionError;
+    }
+    
+    public void setIngestionError(String ingestionError) {
+        this.ingestionError = ingestionError;
+    }
+    
+    public BigDecimal getPreScorePct() {
+        return preScorePct;
+    }
+    
+    public void setPreScorePct(BigDecimal preScorePct) {
+        this.preScorePct = preScorePct;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,87 @@
+package com.rolemark.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "resume_texts")
+public class ResumeText {
+    
+    @Id
+    @Column(name = "resume_id")
+    private Long resumeId;
+    
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Encoding encoding;
+    
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] content;
+    
+    @Column(name = "original_length", nullable = false)
+    private Integer originalLength; // UTF-8 byte length before encoding
+    
+    @Column(nullable = false)
+    private boolean paged; // Pages joined by form feeds; false for texts stored as one block
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public enum Encoding {
+        IDENTITY, DEFLATE
+    }
+    
+    // Getters and Setters
+    public Long getResumeId() {
+        return resumeId;
+    }
+    
+    public void setResumeId(Long resumeId) {
+        this.resumeId = resumeId;
+    }
+    
+    public Encoding getEncoding() {
+        return encoding;
+    }
+    
+    public void setEncoding(Encoding encoding) {
+        this.encoding = encoding;
+    }
+    
+    public byte[] getContent() {
+        return content;
+    }
+    
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+    
+    public Integer getOriginalLength() {
+        return originalLength;
+    }
+    
+    public void setOriginalLength(Integer originalLength) {
+        this.originalLength = originalLength;
+    }
+    
+    public boolean isPaged() {
+        return paged;
+    }
+    
+    public void setPaged(boolean paged) {
+        this.paged = paged;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
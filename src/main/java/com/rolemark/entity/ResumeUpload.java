@@ -0,0 +1,52 @@
+package com.rolemark.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Uploaded PDF bytes awaiting text extraction. Deleted once the text is stored.
+ */
+@Entity
+@Table(name = "resume_uploads")
+public class ResumeUpload {
+    
+    @Id
+    @Column(name = "resume_id")
+    private Long resumeId;
+    
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] content;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getResumeId() {
+        return resumeId;
+    }
+    
+    public void setResumeId(Long resumeId) {
+        this.resumeId = resumeId;
+    }
+    
+    public byte[] getContent() {
+        return content;
+    }
+    
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
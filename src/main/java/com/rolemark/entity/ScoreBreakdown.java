@@ -18,6 +18,9 @@ public class ScoreBreakdown {
     @Column(name = "evaluation_id", nullable = false)
     private Long evaluationId;
     
+    @Column(name = "run_number", nullable = false)
+    private Integer runNumber;
+    
     @Column(name = "resume_id", nullable = false)
     private Long resumeId;
     
@@ -59,6 +62,14 @@ public class ScoreBreakdown {
         this.evaluationId = evaluationId;
     }
     
+    public Integer getRunNumber() {
+        return runNumber;
+    }
+    
+    public void setRunNumber(Integer runNumber) {
+        this.runNumber = runNumber;
+    }
+    
     public Long getResumeId() {
         return resumeId;
     }
@@ -18,6 +18,10 @@ public class User {
     @Column(name = "password_hash", nullable = false)
     private String passwordHash;
     
+    // Allowed on /api/admin/**; only ever set by an operator in the database
+    @Column(nullable = false)
+    private Boolean admin = false;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -51,6 +55,14 @@ public class User {
         this.passwordHash = passwordHash;
     }
     
+    public Boolean getAdmin() {
+        return admin;
+    }
+    
+    public void setAdmin(Boolean admin) {
+        this.admin = admin;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
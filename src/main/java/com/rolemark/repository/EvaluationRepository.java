@@ -1,16 +1,55 @@
 package com.rolemark.repository;
 
+import com.rolemark.dto.EvaluationSummary;
 import com.rolemark.entity.Evaluation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface EvaluationRepository extends JpaRepository<Evaluation, Long> {
-    List<Evaluation> findByUserId(UUID userId);
     Optional<Evaluation> findByIdAndUserId(Long id, UUID userId);
+    boolean existsByIdAndUserId(Long id, UUID userId);
+    
+    // Transaction-scoped advisory lock on the (classId, objectId) key; waits for the holder
+    // and is released automatically on commit or rollback
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:classId, :objectId)) l", nativeQuery = true)
+    Integer acquireTransactionLock(@Param("classId") int classId, @Param("objectId") int objectId);
+    
+    // Serializes status changes of one evaluation across the workers scoring its chunks
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Evaluation e WHERE e.id = :id")
+    Optional<Evaluation> findByIdForUpdate(@Param("id") Long id);
+    
+    // Keyset page: rows strictly after the cursor in (createdAt DESC, id DESC) order.
+    // The <= bound is the index range; the OR only filters rows sharing the cursor timestamp.
+    @Query("SELECT new com.rolemark.dto.EvaluationSummary(e.id, e.roleId, role.title, e.status, e.createdAt, " +
+            "(SELECT COUNT(c) FROM EvaluationCandidate c WHERE c.evaluationId = e.id), " +
+            "(SELECT MAX(s.totalScorePct) FROM ScoreBreakdown s WHERE s.evaluationId = e.id AND s.runNumber = e.resultsRunNumber)) " +
+            "FROM Evaluation e LEFT JOIN Role role ON role.id = e.roleId " +
+            "WHERE e.userId = :userId " +
+            "AND (:roleId IS NULL OR e.roleId = :roleId) " +
+            "AND e.status IN :statuses " +
+            "AND e.createdAt >= :createdFrom AND e.createdAt < :createdTo " +
+            "AND e.createdAt <= :cursorCreatedAt AND (e.createdAt < :cursorCreatedAt OR e.id < :cursorId) " +
+            "ORDER BY e.createdAt DESC, e.id DESC")
+    List<EvaluationSummary> findSummaryPage(@Param("userId") UUID userId,
+                                            @Param("roleId") Long roleId,
+                                            @Param("statuses") Collection<Evaluation.Status> statuses,
+                                            @Param("createdFrom") LocalDateTime createdFrom,
+                                            @Param("createdTo") LocalDateTime createdTo,
+                                            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                            @Param("cursorId") Long cursorId,
+                                            Limit limit);
 }
 
@@ -2,12 +2,20 @@ package com.rolemark.repository;
 
 import com.rolemark.entity.EvaluationSnapshot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface EvaluationSnapshotRepository extends JpaRepository<EvaluationSnapshot, Long> {
-    Optional<EvaluationSnapshot> findByEvaluationId(Long evaluationId);
+    Optional<EvaluationSnapshot> findByEvaluationIdAndRunNumber(Long evaluationId, Integer runNumber);
+    
+    // Snapshots of every run of the evaluation except runNumber
+    @Modifying
+    @Query("DELETE FROM EvaluationSnapshot s WHERE s.evaluationId = :evaluationId AND s.runNumber <> :runNumber")
+    int deleteOtherRuns(@Param("evaluationId") Long evaluationId, @Param("runNumber") Integer runNumber);
 }
 
@@ -0,0 +1,76 @@
+package com.rolemark.repository;
+
+import com.rolemark.entity.EvaluationWorkItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EvaluationWorkItemRepository extends JpaRepository<EvaluationWorkItem, Long> {
+    
+    // The next chunk to claim, in one pass over the queue. Each chunk is due, or its holder
+    // stopped renewing its lease, and belongs to a RUNNING evaluation. Window aggregates
+    // rank each chunk's tenant by its weighted work in flight, as described on
+    // FairWorkScheduler; tenants at the cap are left out. Within a tenant, interactive work
+    // comes first. Rows another worker has locked are skipped rather than waited on, so
+    // claimers never collide.
+    @Query(value = "SELECT w.* FROM evaluation_work_items w JOIN (" +
+            "SELECT id, " +
+            "COUNT(*) FILTER (WHERE NOT due) OVER t AS in_flight, " +
+            "BOOL_AND(bulk) FILTER (WHERE due) OVER t AS bulk_only, " +
+            "MIN(available_at) FILTER (WHERE due) OVER t AS oldest_due_at, " +
+            "due " +
+            "FROM (SELECT id, tenant_id, bulk, available_at, " +
+            "((status = 'PENDING' AND available_at <= :now) OR (status = 'RUNNING' AND lease_expires_at < :now)) " +
+            "AND EXISTS (SELECT 1 FROM evaluations e WHERE e.id = evaluation_id AND e.status = 'RUNNING') AS due " +
+            "FROM evaluation_work_items " +
+            "WHERE (status = 'PENDING' AND available_at <= :now) OR status = 'RUNNING') queued " +
+            "WINDOW t AS (PARTITION BY tenant_id)) ranked ON ranked.id = w.id " +
+            "WHERE ranked.due AND ranked.in_flight < :maxInFlight " +
+            "AND ((w.status = 'PENDING' AND w.available_at <= :now) " +
+            "OR (w.status = 'RUNNING' AND w.lease_expires_at < :now)) " +
+            "ORDER BY (ranked.in_flight + 1) * CASE WHEN ranked.bulk_only THEN :bulkWeight ELSE 1 END, " +
+            "ranked.oldest_due_at, w.tenant_id, w.bulk, w.available_at, w.id " +
+            "LIMIT 1 FOR UPDATE OF w SKIP LOCKED", nativeQuery = true)
+    Optional<EvaluationWorkItem> findNextClaimable(@Param("now") LocalDateTime now,
+                                                   @Param("maxInFlight") int maxInFlight,
+                                                   @Param("bulkWeight") int bulkWeight);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM EvaluationWorkItem w WHERE w.id = :id")
+    Optional<EvaluationWorkItem> findByIdForUpdate(@Param("id") Long id);
+    
+    long countByEvaluationIdAndStatusNot(Long evaluationId, EvaluationWorkItem.Status status);
+    
+    long countByTenantIdAndStatusIn(UUID tenantId, Collection<EvaluationWorkItem.Status> statuses);
+    
+    @Modifying
+    @Query("UPDATE EvaluationWorkItem w SET w.leaseExpiresAt = :until, w.updatedAt = :now " +
+            "WHERE w.leaseToken IN :tokens AND w.status = :status")
+    int renewLeases(@Param("tokens") Collection<UUID> tokens,
+                    @Param("status") EvaluationWorkItem.Status status,
+                    @Param("until") LocalDateTime until,
+                    @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE EvaluationWorkItem w SET w.status = :to, w.updatedAt = :now " +
+            "WHERE w.evaluationId = :evaluationId AND w.status = :from")
+    int updateStatus(@Param("evaluationId") Long evaluationId,
+                     @Param("from") EvaluationWorkItem.Status from,
+                     @Param("to") EvaluationWorkItem.Status to,
+                     @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM EvaluationWorkItem w WHERE w.evaluationId = :evaluationId")
+    int deleteByEvaluationId(@Param("evaluationId") Long evaluationId);
+}
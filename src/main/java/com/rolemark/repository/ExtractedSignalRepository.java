@@ -2,6 +2,9 @@ package com.rolemark.repository;
 
 import com.rolemark.entity.ExtractedSignal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,5 +13,9 @@ import java.util.List;
 public interface ExtractedSignalRepository extends JpaRepository<ExtractedSignal, Long> {
     List<ExtractedSignal> findByResumeId(Long resumeId);
     List<ExtractedSignal> findByResumeIdAndType(Long resumeId, String type);
+    
+    @Modifying
+    @Query("DELETE FROM ExtractedSignal s WHERE s.resumeId = :resumeId")
+    int deleteByResumeId(@Param("resumeId") Long resumeId);
 }
 
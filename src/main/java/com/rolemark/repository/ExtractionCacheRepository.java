@@ -0,0 +1,42 @@
+package com.rolemark.repository;
+
+import com.rolemark.entity.ExtractionCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+public interface ExtractionCacheRepository extends JpaRepository<ExtractionCacheEntry, Long> {
+    Optional<ExtractionCacheEntry> findByChecksumSha256AndParserVersion(String checksumSha256, Integer parserVersion);
+    
+    boolean existsByChecksumSha256AndParserVersionAndCreatedAtGreaterThanEqual(String checksumSha256, Integer parserVersion,
+                                                                              LocalDateTime createdAt);
+    
+    // Only the signals column; the text is not needed once it is stored for the resume
+    Optional<CachedSignals> findSignalsByChecksumSha256AndParserVersionAndCreatedAtGreaterThanEqual(
+            String checksumSha256, Integer parserVersion, LocalDateTime createdAt);
+    
+    interface CachedSignals {
+        List<Map<String, Object>> getSignalsJson();
+    }
+    
+    // Concurrent uploads of the same file may both write the entry; the content is identical
+    @Modifying
+    @Query(value = "INSERT INTO extraction_cache (checksum_sha256, parser_version, page_count, extracted_text, signals_json) " +
+            "VALUES (:checksum, :parserVersion, :pageCount, :extractedText, CAST(:signalsJson AS jsonb)) " +
+            "ON CONFLICT (checksum_sha256, parser_version) DO UPDATE SET " +
+            "page_count = EXCLUDED.page_count, extracted_text = EXCLUDED.extracted_text, " +
+            "signals_json = EXCLUDED.signals_json, created_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int upsert(@Param("checksum") String checksum,
+                       @Param("parserVersion") Integer parserVersion,
+                       @Param("pageCount") Integer pageCount,
+                       @Param("extractedText") String extractedText,
+                       @Param("signalsJson") String signalsJson);
+}
@@ -0,0 +1,67 @@
+package com.rolemark.repository;
+
+import com.rolemark.entity.IngestionOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface IngestionOutboxRepository extends JpaRepository<IngestionOutboxEvent, Long> {
+    
+    // The next event of the stage to claim, in one pass over the stage's queue. Each event
+    // is due, or its holder stopped renewing its lease. Window aggregates rank each event's
+    // tenant by its weighted work in flight, as described on FairWorkScheduler; tenants at
+    // the cap are left out. Within a tenant, interactive work comes first. Rows another
+    // poller has locked are skipped rather than waited on.
+    @Query(value = "SELECT o.* FROM ingestion_outbox o JOIN (" +
+            "SELECT id, " +
+            "COUNT(*) FILTER (WHERE NOT due) OVER t AS in_flight, " +
+            "BOOL_AND(bulk) FILTER (WHERE due) OVER t AS bulk_only, " +
+            "MIN(available_at) FILTER (WHERE due) OVER t AS oldest_due_at, " +
+            "due " +
+            "FROM (SELECT id, tenant_id, bulk, available_at, " +
+            "(status = 'PENDING' AND available_at <= :now) OR (status = 'RUNNING' AND lease_expires_at < :now) AS due " +
+            "FROM ingestion_outbox " +
+            "WHERE stage = :stage AND ((status = 'PENDING' AND available_at <= :now) OR status = 'RUNNING')) queued " +
+            "WINDOW t AS (PARTITION BY tenant_id)) ranked ON ranked.id = o.id " +
+            "WHERE ranked.due AND ranked.in_flight < :maxInFlight " +
+            "AND ((o.status = 'PENDING' AND o.available_at <= :now) " +
+            "OR (o.status = 'RUNNING' AND o.lease_expires_at < :now)) " +
+            "ORDER BY (ranked.in_flight + 1) * CASE WHEN ranked.bulk_only THEN :bulkWeight ELSE 1 END, " +
+            "ranked.oldest_due_at, o.tenant_id, o.bulk, o.available_at, o.id " +
+            "LIMIT 1 FOR UPDATE OF o SKIP LOCKED", nativeQuery = true)
+    Optional<IngestionOutboxEvent> findNextClaimable(@Param("stage") String stage,
+                                                     @Param("now") LocalDateTime now,
+                                                     @Param("maxInFlight") int maxInFlight,
+                                                     @Param("bulkWeight") int bulkWeight);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM IngestionOutboxEvent e WHERE e.id = :id")
+    Optional<IngestionOutboxEvent> findByIdForUpdate(@Param("id") Long id);
+    
+    boolean existsByResumeIdAndStage(Long resumeId, IngestionOutboxEvent.Stage stage);
+    
+    long countByTenantIdAndStatusIn(UUID tenantId, Collection<IngestionOutboxEvent.Status> statuses);
+    
+    @Modifying
+    @Query("UPDATE IngestionOutboxEvent e SET e.leaseExpiresAt = :until, e.updatedAt = :now " +
+            "WHERE e.leaseToken IN :tokens AND e.status = :status")
+    int renewLeases(@Param("tokens") Collection<UUID> tokens,
+                    @Param("status") IngestionOutboxEvent.Status status,
+                    @Param("until") LocalDateTime until,
+                    @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM IngestionOutboxEvent e WHERE e.resumeId = :resumeId")
+    int deleteByResumeId(@Param("resumeId") Long resumeId);
+}
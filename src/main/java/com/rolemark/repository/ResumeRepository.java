@@ -1,17 +1,48 @@
 package com.rolemark.repository;
 
+import com.rolemark.dto.ResumeSummary;
 import com.rolemark.entity.Resume;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ResumeRepository extends JpaRepository<Resume, Long> {
-    List<Resume> findByUserId(UUID userId);
     Optional<Resume> findByIdAndUserId(Long id, UUID userId);
     Optional<Resume> findByChecksumSha256(String checksum);
+    Optional<Resume> findFirstByUserIdAndChecksumSha256OrderByIdAsc(UUID userId, String checksum);
+    Optional<Resume> findByUserIdAndChecksumSha256AndRoleId(UUID userId, String checksum, Long roleId);
+    Optional<Resume> findFirstByUserIdAndChecksumSha256AndRoleIdIsNullOrderByIdAsc(UUID userId, String checksum);
+    
+    // Keyset page: rows strictly after the cursor in (createdAt DESC, id DESC) order.
+    // The <= bound is the index range; the OR only filters rows sharing the cursor timestamp.
+    @Query("SELECT new com.rolemark.dto.ResumeSummary(r.id, r.filename, r.fileSize, r.createdAt, r.roleId, role.title, " +
+            "r.ingestionStatus, r.preScorePct) " +
+            "FROM Resume r LEFT JOIN Role role ON role.id = r.roleId " +
+            "WHERE r.userId = :userId " +
+            "AND (:roleId IS NULL OR r.roleId = :roleId) " +
+            "AND r.createdAt >= :createdFrom AND r.createdAt < :createdTo " +
+            "AND LOWER(r.filename) LIKE :filenamePattern ESCAPE '\\' " +
+            "AND r.createdAt <= :cursorCreatedAt AND (r.createdAt < :cursorCreatedAt OR r.id < :cursorId) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ResumeSummary> findSummaryPage(@Param("userId") UUID userId,
+                                        @Param("roleId") Long roleId,
+                                        @Param("createdFrom") LocalDateTime createdFrom,
+                                        @Param("createdTo") LocalDateTime createdTo,
+                                        @Param("filenamePattern") String filenamePattern,
+                                        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                        @Param("cursorId") Long cursorId,
+                                        Limit limit);
+    
+    // Transaction-scoped advisory lock; released automatically on commit or rollback
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) l", nativeQuery = true)
+    Integer acquireTransactionLock(@Param("key") long key);
 }
 
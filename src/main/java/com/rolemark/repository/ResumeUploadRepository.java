@@ -0,0 +1,9 @@
+package com.rolemark.repository;
+
+import com.rolemark.entity.ResumeUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ResumeUploadRepository extends JpaRepository<ResumeUpload, Long> {
+}
@@ -1,17 +1,53 @@
 package com.rolemark.repository;
 
+import com.rolemark.dto.RoleSummary;
 import com.rolemark.entity.Role;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
-    List<Role> findByUserId(UUID userId);
     Optional<Role> findByIdAndUserId(Long id, UUID userId);
     boolean existsByUserIdAndTitle(UUID userId, String title);
+    
+    // Serializes changes to one role's criteria, such as the per-role limit check
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Role r WHERE r.id = :id")
+    Optional<Role> findByIdForUpdate(@Param("id") Long id);
+    
+    // Keyset page: rows strictly after the cursor in (createdAt DESC, id DESC) order.
+    // The <= bound is the index range; the OR only filters rows sharing the cursor timestamp.
+    @Query("SELECT new com.rolemark.dto.RoleSummary(r.id, r.title, r.createdAt) " +
+            "FROM Role r WHERE r.userId = :userId " +
+            "AND r.createdAt >= :createdFrom AND r.createdAt < :createdTo " +
+            "AND r.createdAt <= :cursorCreatedAt AND (r.createdAt < :cursorCreatedAt OR r.id < :cursorId) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RoleSummary> findSummaryPage(@Param("userId") UUID userId,
+                                      @Param("createdFrom") LocalDateTime createdFrom,
+                                      @Param("createdTo") LocalDateTime createdTo,
+                                      @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                      @Param("cursorId") Long cursorId,
+                                      Limit limit);
+    
+    @Query("SELECT r FROM Role r WHERE r.userId = :userId " +
+            "AND r.createdAt >= :createdFrom AND r.createdAt < :createdTo " +
+            "AND r.createdAt <= :cursorCreatedAt AND (r.createdAt < :cursorCreatedAt OR r.id < :cursorId) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Role> findPage(@Param("userId") UUID userId,
+                        @Param("createdFrom") LocalDateTime createdFrom,
+                        @Param("createdTo") LocalDateTime createdTo,
+                        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                        @Param("cursorId") Long cursorId,
+                        Limit limit);
 }
 
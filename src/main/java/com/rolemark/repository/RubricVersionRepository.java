@@ -0,0 +1,33 @@
+package com.rolemark.repository;
+
+import com.rolemark.entity.RubricVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RubricVersionRepository extends JpaRepository<RubricVersion, Long> {
+    
+    @Query("SELECT v.id FROM RubricVersion v WHERE v.roleId = :roleId AND v.contentHash = :contentHash")
+    Optional<Long> findIdByRoleIdAndContentHash(@Param("roleId") Long roleId, @Param("contentHash") String contentHash);
+    
+    @Query("SELECT v FROM RubricVersion v, EvaluationSnapshot s " +
+            "WHERE s.evaluationId = :evaluationId AND s.runNumber = :runNumber AND v.id = s.rubricVersionId")
+    Optional<RubricVersion> findByEvaluationRun(@Param("evaluationId") Long evaluationId,
+                                                @Param("runNumber") Integer runNumber);
+    
+    // Two first runs of the same new rubric may race to record it; the content is identical
+    @Modifying
+    @Query(value = "INSERT INTO rubric_versions (role_id, content_hash, role_title, role_job_description, criteria_json) " +
+            "VALUES (:roleId, :contentHash, :roleTitle, :roleJobDescription, CAST(:criteriaJson AS jsonb)) " +
+            "ON CONFLICT (role_id, content_hash) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("roleId") Long roleId,
+                       @Param("contentHash") String contentHash,
+                       @Param("roleTitle") String roleTitle,
+                       @Param("roleJobDescription") String roleJobDescription,
+                       @Param("criteriaJson") String criteriaJson);
+}
@@ -1,15 +1,34 @@
 package com.rolemark.repository;
 
 import com.rolemark.entity.ScoreBreakdown;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ScoreBreakdownRepository extends JpaRepository<ScoreBreakdown, Long> {
-    List<ScoreBreakdown> findByEvaluationId(Long evaluationId);
-    Optional<ScoreBreakdown> findByEvaluationIdAndResumeId(Long evaluationId, Long resumeId);
+    List<ScoreBreakdown> findByEvaluationIdAndRunNumberOrderByTotalScoreDescIdAsc(Long evaluationId, Integer runNumber);
+    Optional<ScoreBreakdown> findByEvaluationIdAndRunNumberAndResumeId(Long evaluationId, Integer runNumber, Long resumeId);
+    
+    // Must be consumed inside a transaction; rows are fetched from a cursor in batches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT b FROM ScoreBreakdown b WHERE b.evaluationId = :evaluationId AND b.runNumber = :runNumber " +
+            "ORDER BY b.totalScore DESC, b.id")
+    Stream<ScoreBreakdown> streamByEvaluationIdAndRunNumber(@Param("evaluationId") Long evaluationId,
+                                                            @Param("runNumber") Integer runNumber);
+    
+    // Scores of every run of the evaluation except runNumber
+    @Modifying
+    @Query("DELETE FROM ScoreBreakdown b WHERE b.evaluationId = :evaluationId AND b.runNumber <> :runNumber")
+    int deleteOtherRuns(@Param("evaluationId") Long evaluationId, @Param("runNumber") Integer runNumber);
 }
 
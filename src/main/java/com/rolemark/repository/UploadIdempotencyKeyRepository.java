@@ -0,0 +1,13 @@
+package com.rolemark.repository;
+
+import com.rolemark.entity.UploadIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UploadIdempotencyKeyRepository extends JpaRepository<UploadIdempotencyKey, Long> {
+    Optional<UploadIdempotencyKey> findByUserIdAndIdempotencyKey(UUID userId, String idempotencyKey);
+}
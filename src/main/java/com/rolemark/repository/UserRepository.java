@@ -1,7 +1,10 @@
 package com.rolemark.repository;
 
+import com.rolemark.dto.DashboardCounts;
 import com.rolemark.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,5 +14,16 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    boolean existsByIdAndAdminTrue(UUID id);
+    
+    // All dashboard counts in one round trip, anchored on the user row
+    @Query("SELECT new com.rolemark.dto.DashboardCounts(" +
+            "(SELECT COUNT(r) FROM Role r WHERE r.userId = u.id), " +
+            "(SELECT COUNT(res) FROM Resume res WHERE res.userId = u.id), " +
+            "(SELECT COUNT(e) FROM Evaluation e WHERE e.userId = u.id), " +
+            "(SELECT COUNT(ce) FROM Evaluation ce WHERE ce.userId = u.id " +
+            "AND ce.status = com.rolemark.entity.Evaluation$Status.COMPLETED)) " +
+            "FROM User u WHERE u.id = :userId")
+    Optional<DashboardCounts> findDashboardCounts(@Param("userId") UUID userId);
 }
 
@@ -0,0 +1,36 @@
+package com.rolemark.security;
+
+import com.rolemark.repository.UserRepository;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Admits a request to the operator endpoints when its authenticated user has the
+ * {@code admin} flag set in the database. The flag is looked up on each request to
+ * these endpoints only, so granting or revoking access takes effect at once.
+ */
+@Component
+public class AdminAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    
+    private final UserRepository userRepository;
+    
+    public AdminAuthorizationManager(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication current = authentication.get();
+        // The JWT filter authenticates with the user id as principal; anything else is anonymous
+        boolean admin = current != null && current.isAuthenticated()
+                && current.getPrincipal() instanceof UUID userId
+                && userRepository.existsByIdAndAdminTrue(userId);
+        return new AuthorizationDecision(admin);
+    }
+}
@@ -0,0 +1,125 @@
+package com.rolemark.security;
+
+import com.rolemark.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a password encoder (BCrypt) on its own bounded pool instead of the request
+ * thread, so a burst of logins or signups cannot occupy every servlet thread.
+ *
+ * Work beyond the pool's threads waits in a queue of fixed depth. When the queue is
+ * full, or a task has already waited longer than {@code maxQueueWait} when a thread
+ * picks it up, the caller gets a {@link ServiceUnavailableException} (503 with
+ * Retry-After) at once rather than a slow answer.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    
+    private static final String OVERLOADED = "Too many sign-in requests, please retry shortly";
+    
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+    private final Duration retryAfter;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejections;
+    
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  int threads,
+                                  int queueCapacity,
+                                  Duration maxQueueWait,
+                                  Duration retryAfter,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.retryAfter = retryAfter;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = Timer.builder("rolemark.auth.password.hash").tag("operation", "encode")
+                .description("Time spent hashing a password").register(meterRegistry);
+        this.matchesTimer = Timer.builder("rolemark.auth.password.hash").tag("operation", "matches")
+                .description("Time spent checking a password against its hash").register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("rolemark.auth.password.queue.wait")
+                .description("Time password work waited for a hashing thread").register(meterRegistry);
+        this.rejections = Counter.builder("rolemark.auth.password.rejected")
+                .description("Password work shed because the hashing pool was saturated").register(meterRegistry);
+        Gauge.builder("rolemark.auth.password.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password work waiting for a hashing thread").register(meterRegistry);
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    /** Called by Spring when the context closes. */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private <T> T run(Timer timer, Callable<T> work) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long waited = System.nanoTime() - submittedAt;
+                queueWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    // The caller has waited long enough; spending a hash on it only delays the rest
+                    throw overloaded();
+                }
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            throw overloaded();
+        }
+        
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+    
+    private ServiceUnavailableException overloaded() {
+        rejections.increment();
+        return new ServiceUnavailableException(OVERLOADED, retryAfter);
+    }
+}
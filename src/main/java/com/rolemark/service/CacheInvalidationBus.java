@@ -0,0 +1,164 @@
+package com.rolemark.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link InvalidatableCache}s consistent across instances over Postgres
+ * {@code LISTEN/NOTIFY}.
+ *
+ * {@link #publish} evicts the local entry at once and sends a notice on the caller's
+ * transaction. Postgres delivers it only if that transaction commits, and every other
+ * instance evicts the same key when it arrives. Each instance listens on a dedicated
+ * connection outside the pool, from a thread that runs between context start and
+ * stop; after reconnecting it clears every cache, since notices sent while it was
+ * away are lost.
+ */
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+    
+    static final String CHANNEL = "rolemark_cache_invalidation";
+    
+    private static final int POLL_MILLIS = 1_000;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+    
+    private final Map<String, InvalidatableCache> caches;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    // Lets the listener skip notices this instance already applied in publish()
+    private final String origin = UUID.randomUUID().toString();
+    private Thread listener;
+    private volatile boolean running;
+    
+    public CacheInvalidationBus(List<InvalidatableCache> caches,
+                                JdbcTemplate jdbcTemplate,
+                                DataSourceProperties dataSourceProperties,
+                                @Value("${rolemark.cache-invalidation.enabled:true}") boolean enabled) {
+        this.caches = caches.stream().collect(Collectors.toMap(InvalidatableCache::cacheName, Function.identity()));
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+    }
+    
+    /**
+     * Evicts {@code key} from the named cache on every instance. Call after the write,
+     * inside the writing transaction, so other instances only hear of committed changes.
+     */
+    public void publish(String cacheName, Object key) {
+        InvalidatableCache cache = caches.get(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("Unknown cache: " + cacheName);
+        }
+        cache.evict(String.valueOf(key));
+        if (enabled) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+            }, CHANNEL, origin + ":" + cacheName + ":" + key);
+        }
+    }
+    
+    @Override
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+    
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener = null;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void listen() {
+        long reconnectDelay = POLL_MILLIS;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                // Anything cached before LISTEN took effect may have missed its notice
+                caches.values().forEach(InvalidatableCache::evictAll);
+                reconnectDelay = POLL_MILLIS;
+                logger.debug("Listening for cache invalidations on {}", CHANNEL);
+                
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Cache invalidation listener lost its connection, retrying in {} ms: {}",
+                        reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MILLIS);
+            }
+        }
+    }
+    
+    private void apply(String payload) {
+        // origin:cache:key; the key is last so it may itself contain ':'
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3) {
+            logger.warn("Ignoring malformed cache invalidation notice: {}", payload);
+            return;
+        }
+        if (parts[0].equals(origin)) {
+            return;
+        }
+        InvalidatableCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.evict(parts[2]);
+        } catch (RuntimeException e) {
+            // One bad notice must not stop the listener; clearing the cache is always safe
+            logger.warn("Could not apply cache invalidation notice {}: {}", payload, e.getMessage());
+            cache.evictAll();
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.rolemark.service;
 import com.rolemark.dto.CriterionRequest;
 import com.rolemark.dto.CriterionResponse;
 import com.rolemark.entity.Criterion;
-import com.rolemark.entity.Role;
 import com.rolemark.repository.CriterionRepository;
 import com.rolemark.repository.RoleRepository;
 import com.rolemark.validator.CriterionConfigValidator;
@@ -17,24 +16,31 @@ import java.util.stream.Collectors;
 @Service
 public class CriterionService {
     
+    static final int MAX_CRITERIA_PER_ROLE = 15;
+    
     private final CriterionRepository criterionRepository;
     private final RoleRepository roleRepository;
+    private final RoleAggregateCache roleCache;
+    private final CacheInvalidationBus invalidationBus;
     
-    public CriterionService(CriterionRepository criterionRepository, RoleRepository roleRepository) {
+    public CriterionService(CriterionRepository criterionRepository, RoleRepository roleRepository,
+                            RoleAggregateCache roleCache, CacheInvalidationBus invalidationBus) {
         this.criterionRepository = criterionRepository;
         this.roleRepository = roleRepository;
+        this.roleCache = roleCache;
+        this.invalidationBus = invalidationBus;
     }
     
     @Transactional
     public CriterionResponse createCriterion(UUID userId, Long roleId, CriterionRequest request) {
         // Verify role ownership
-        Role role = roleRepository.findByIdAndUserId(roleId, userId)
-                .orElseThrow(() -> new IllegalArgumentException("Role not found"));
+        roleCache.getOwned(userId, roleId);
         
-        // Check criteria count limit (max 15)
-        Long currentCount = criterionRepository.countByRoleId(roleId);
-        if (currentCount >= 15) {
-            throw new IllegalArgumentException("Maximum 15 criteria allowed per role");
+        // Check criteria count limit (max 15); the role lock makes concurrent creates count one at a time
+        roleRepository.findByIdForUpdate(roleId)
+                .orElseThrow(() -> new IllegalArgumentException("Role not found"));
+        if (criterionRepository.countByRoleId(roleId) >= MAX_CRITERIA_PER_ROLE) {
+            throw new IllegalArgumentException("Maximum " + MAX_CRITERIA_PER_ROLE + " criteria allowed per role");
         }
         
         // Validate config based on type
@@ -48,35 +54,29 @@ public class CriterionService {
         criterion.setType(request.getType());
         criterion.setConfigJson(request.getConfig());
         criterion = criterionRepository.save(criterion);
+        invalidationBus.publish(RoleAggregateCache.NAME, roleId);
         
         return toResponse(criterion);
     }
     
     public List<CriterionResponse> getAllCriteria(UUID userId, Long roleId) {
-        // Verify role ownership
-        roleRepository.findByIdAndUserId(roleId, userId)
-                .orElseThrow(() -> new IllegalArgumentException("Role not found"));
-        
-        return criterionRepository.findByRoleId(roleId).stream()
+        return roleCache.getOwned(userId, roleId).getCriteria().stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
     public CriterionResponse getCriterionById(UUID userId, Long roleId, Long criterionId) {
-        // Verify role ownership
-        roleRepository.findByIdAndUserId(roleId, userId)
-                .orElseThrow(() -> new IllegalArgumentException("Role not found"));
-        
-        Criterion criterion = criterionRepository.findByIdAndRoleId(criterionId, roleId)
+        return roleCache.getOwned(userId, roleId).getCriteria().stream()
+                .filter(criterion -> criterion.getId().equals(criterionId))
+                .findFirst()
+                .map(this::toResponse)
                 .orElseThrow(() -> new IllegalArgumentException("Criterion not found"));
-        return toResponse(criterion);
     }
     
     @Transactional
     public CriterionResponse updateCriterion(UUID userId, Long roleId, Long criterionId, CriterionRequest request) {
         // Verify role ownership
-        roleRepository.findByIdAndUserId(roleId, userId)
-                .orElseThrow(() -> new IllegalArgumentException("Role not found"));
+        roleCache.getOwned(userId, roleId);
         
         Criterion criterion = criterionRepository.findByIdAndRoleId(criterionId, roleId)
                 .orElseThrow(() -> new IllegalArgumentException("Criterion not found"));
@@ -90,6 +90,7 @@ public class CriterionService {
         criterion.setType(request.getType());
         criterion.setConfigJson(request.getConfig());
         criterion = criterionRepository.save(criterion);
+        invalidationBus.publish(RoleAggregateCache.NAME, roleId);
         
         return toResponse(criterion);
     }
@@ -97,18 +98,18 @@ public class CriterionService {
     @Transactional
     public void deleteCriterion(UUID userId, Long roleId, Long criterionId) {
         // Verify role ownership
-        roleRepository.findByIdAndUserId(roleId, userId)
-                .orElseThrow(() -> new IllegalArgumentException("Role not found"));
+        roleCache.getOwned(userId, roleId);
         
         Criterion criterion = criterionRepository.findByIdAndRoleId(criterionId, roleId)
                 .orElseThrow(() -> new IllegalArgumentException("Criterion not found"));
         criterionRepository.delete(criterion);
+        invalidationBus.publish(RoleAggregateCache.NAME, roleId);
     }
     
-    public void validateWeightsSumTo100(Long roleId) {
-        Integer sum = criterionRepository.sumWeightsByRoleId(roleId);
-        if (sum == null || sum != 100) {
-            throw new IllegalArgumentException("Criteria weights must sum to exactly 100. Current sum: " + (sum == null ? 0 : sum));
+    public void validateWeightsSumTo100(RoleAggregate role) {
+        int sum = role.getWeightSum();
+        if (sum != 100) {
+            throw new IllegalArgumentException("Criteria weights must sum to exactly 100. Current sum: " + sum);
         }
     }
     
@@ -124,5 +125,18 @@ public class CriterionService {
                 criterion.getUpdatedAt()
         );
     }
+    
+    private CriterionResponse toResponse(RoleAggregate.CriterionView criterion) {
+        return new CriterionResponse(
+                criterion.getId(),
+                criterion.getName(),
+                criterion.getDescription(),
+                criterion.getWeight(),
+                criterion.getType(),
+                criterion.getConfig(),
+                criterion.getCreatedAt(),
+                criterion.getUpdatedAt()
+        );
+    }
 }
 
@@ -0,0 +1,87 @@
+package com.rolemark.service;
+
+import com.rolemark.dto.DashboardCounts;
+import com.rolemark.dto.EvaluationSummary;
+import com.rolemark.dto.ListQuery;
+import com.rolemark.dto.ResumeSummary;
+import com.rolemark.dto.RoleSummary;
+import com.rolemark.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dashboard data: totals from a single aggregate query plus the most recent items of each kind.
+ */
+@Service
+public class DashboardService {
+    
+    private final UserRepository userRepository;
+    private final RoleService roleService;
+    private final ResumeService resumeService;
+    private final EvaluationService evaluationService;
+    private final int recentLimit;
+    
+    public DashboardService(UserRepository userRepository,
+                            RoleService roleService,
+                            ResumeService resumeService,
+                            EvaluationService evaluationService,
+                            @Value("${rolemark.dashboard.recent-limit:10}") int recentLimit) {
+        this.userRepository = userRepository;
+        this.roleService = roleService;
+        this.resumeService = resumeService;
+        this.evaluationService = evaluationService;
+        this.recentLimit = recentLimit;
+    }
+    
+    @Transactional(readOnly = true)
+    public Dashboard getDashboard(UUID userId) {
+        DashboardCounts counts = userRepository.findDashboardCounts(userId)
+                .orElseGet(() -> new DashboardCounts(0L, 0L, 0L, 0L));
+        ListQuery recent = ListQuery.firstPage(recentLimit);
+        
+        // Skip list queries for kinds the counts show are empty
+        List<RoleSummary> roles = counts.getRoleCount() > 0
+                ? roleService.listRoleSummaries(userId, recent).getItems() : List.of();
+        List<ResumeSummary> resumes = counts.getResumeCount() > 0
+                ? resumeService.listResumes(userId, recent).getItems() : List.of();
+        List<EvaluationSummary> evaluations = counts.getEvaluationCount() > 0
+                ? evaluationService.listEvaluations(userId, recent).getItems() : List.of();
+        
+        return new Dashboard(counts, roles, resumes, evaluations);
+    }
+    
+    public static class Dashboard {
+        private final DashboardCounts counts;
+        private final List<RoleSummary> recentRoles;
+        private final List<ResumeSummary> recentResumes;
+        private final List<EvaluationSummary> recentEvaluations;
+        
+        public Dashboard(DashboardCounts counts, List<RoleSummary> recentRoles,
+                         List<ResumeSummary> recentResumes, List<EvaluationSummary> recentEvaluations) {
+            this.counts = counts;
+            this.recentRoles = recentRoles;
+            this.recentResumes = recentResumes;
+            this.recentEvaluations = recentEvaluations;
+        }
+        
+        public DashboardCounts getCounts() {
+            return counts;
+        }
+        
+        public List<RoleSummary> getRecentRoles() {
+            return recentRoles;
+        }
+        
+        public List<ResumeSummary> getRecentResumes() {
+            return recentResumes;
+        }
+        
+        public List<EvaluationSummary> getRecentEvaluations() {
+            return recentEvaluations;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkTracing;
+import com.rolemark.entity.Evaluation;
+import com.rolemark.entity.EvaluationWorkItem;
+import com.rolemark.entity.ScoreBreakdown;
+import com.rolemark.repository.EvaluationRepository;
+import com.rolemark.repository.EvaluationSnapshotRepository;
+import com.rolemark.repository.EvaluationWorkItemRepository;
+import com.rolemark.repository.ScoreBreakdownRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database-backed queue of evaluation work. A run is split into chunks of candidates
+ * that any instance's {@link EvaluationWorker} can claim, score and complete.
+ *
+ * Every state change of a chunk locks its evaluation row first and then the chunk, so
+ * the last chunk to finish reliably sees all the others done and completes the run.
+ * Completing a run publishes its scores and drops those of the run it replaces.
+ */
+@Service
+public class EvaluationQueueService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationQueueService.class);
+    
+    private static final int MAX_ERROR_LENGTH = 2_000;
+    
+    private final EvaluationWorkItemRepository workItemRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final ScoreBreakdownRepository breakdownRepository;
+    private final EvaluationSnapshotRepository snapshotRepository;
+    private final FairWorkScheduler fairWorkScheduler;
+    private final WorkTracing workTracing;
+    private final int chunkSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    // Lets work enqueued on this instance start without waiting for the next poll
+    private final Semaphore localWork = new Semaphore(0);
+    
+    public EvaluationQueueService(EvaluationWorkItemRepository workItemRepository,
+                                  EvaluationRepository evaluationRepository,
+                                  ScoreBreakdownRepository breakdownRepository,
+                                  EvaluationSnapshotRepository snapshotRepository,
+                                  FairWorkScheduler fairWorkScheduler,
+                                  WorkTracing workTracing,
+                                  @Value("${rolemark.evaluation-queue.chunk-size:5}") int chunkSize,
+                                  @Value("${rolemark.evaluation-queue.lease:60s}") Duration lease,
+                                  @Value("${rolemark.evaluation-queue.max-attempts:3}") int maxAttempts,
+                                  @Value("${rolemark.evaluation-queue.retry-backoff:5s}") Duration retryBackoff) {
+        if (chunkSize < 1 || maxAttempts < 1) {
+            throw new IllegalStateException("Evaluation chunk size and max attempts must be positive");
+        }
+        this.workItemRepository = workItemRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.breakdownRepository = breakdownRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.fairWorkScheduler = fairWorkScheduler;
+        this.workTracing = workTracing;
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+    
+    public Duration getLease() {
+        return lease;
+    }
+    
+    /** Span for scoring a claimed chunk, in the trace of the run that queued it. */
+    public WorkTracing.ScopedSpan startSpan(ClaimedChunk chunk) {
+        return workTracing.startSpan("evaluation chunk", chunk.getTraceParent())
+                .tag("evaluation.id", chunk.getEvaluationId())
+                .tag("chunk.size", chunk.getResumeIds().size())
+                .tag("attempt", chunk.getAttempt());
+    }
+    
+    /**
+     * Queues the candidates of run {@code runNumber} in chunks for {@code tenantId}, as bulk work if the tenant
+     * already has a backlog. Must run in the transaction that marks the evaluation
+     * RUNNING; workers see the chunks once it commits.
+     */
+    @Transactional
+    public void enqueue(Long evaluationId, int runNumber, UUID tenantId, List<Long> resumeIds) {
+        boolean bulk = fairWorkScheduler.isBulk(workItemRepository.countByTenantIdAndStatusIn(tenantId,
+                List.of(EvaluationWorkItem.Status.PENDING, EvaluationWorkItem.Status.RUNNING)));
+        // Chunks continue the trace of the run request
+        String traceParent = workTracing.currentTraceParent();
+        List<EvaluationWorkItem> items = new ArrayList<>();
+        for (int start = 0; start < resumeIds.size(); start += chunkSize) {
+            EvaluationWorkItem item = new EvaluationWorkItem();
+            item.setEvaluationId(evaluationId);
+            item.setRunNumber(runNumber);
+            item.setTenantId(tenantId);
+            item.setBulk(bulk);
+            item.setTraceParent(traceParent);
+            item.setChunkIndex(items.size());
+            item.setResumeIds(new ArrayList<>(resumeIds.subList(start, Math.min(start + chunkSize, resumeIds.size()))));
+            items.add(item);
+        }
+        workItemRepository.saveAll(items);
+        
+        int chunks = items.size();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    localWork.release(chunks);
+                }
+            });
+        }
+    }
+    
+    /** Drops queued work of an earlier run, so a re-run starts from a clean slate. */
+    @Transactional
+    public void clear(Long evaluationId) {
+        workItemRepository.deleteByEvaluationId(evaluationId);
+    }
+    
+    /**
+     * Claims a due chunk for {@code owner}, or a chunk whose previous holder's lease ran
+     * out, from the tenant {@link FairWorkScheduler} ranks first. A chunk that has used
+     * up its attempts fails its evaluation instead. Only chunks of RUNNING evaluations
+     * are claimed.
+     */
+    @Transactional
+    public Optional<ClaimedChunk> claim(String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        return workItemRepository.findNextClaimable(now,
+                        fairWorkScheduler.getMaxInFlightPerTenant(), fairWorkScheduler.getBulkWeight())
+                .flatMap(item -> claim(item, owner, now));
+    }
+    
+    private Optional<ClaimedChunk> claim(EvaluationWorkItem item, String owner, LocalDateTime now) {
+        if (item.getAttempts() >= maxAttempts) {
+            // Only reachable through lease expiry: the last holder died mid-chunk
+            failEvaluation(item.getEvaluationId(), item.getId(), "Lease expired after " + item.getAttempts() + " attempts");
+            return Optional.empty();
+        }
+        
+        if (item.getStatus() == EvaluationWorkItem.Status.PENDING) {
+            fairWorkScheduler.recordQueueWait("evaluation", item.getTenantId(), item.getBulk(), item.getAvailableAt(), now);
+        }
+        item.setStatus(EvaluationWorkItem.Status.RUNNING);
+        item.setAttempts(item.getAttempts() + 1);
+        item.setLeaseOwner(owner);
+        item.setLeaseToken(UUID.randomUUID());
+        item.setLeaseExpiresAt(now.plus(lease));
+        workItemRepository.save(item);
+        return Optional.of(new ClaimedChunk(item));
+    }
+    
+    /**
+     * Records the chunk's scores and completes the evaluation once every chunk is done.
+     * Returns false, recording nothing, if the lease was lost or the run was superseded.
+     */
+    @Transactional
+    public boolean complete(ClaimedChunk chunk, List<ScoreBreakdown> breakdowns) {
+        Optional<Evaluation> evaluation = evaluationRepository.findByIdForUpdate(chunk.getEvaluationId())
+                .filter(e -> e.getStatus() == Evaluation.Status.RUNNING)
+                .filter(e -> e.getRunNumber().equals(chunk.getRunNumber()));
+        Optional<EvaluationWorkItem> item = workItemRepository.findByIdForUpdate(chunk.getWorkItemId())
+                .filter(chunk::holds);
+        if (evaluation.isEmpty() || item.isEmpty()) {
+            logger.info("Discarding results of chunk {} of evaluation {}: lease lost or run superseded",
+                    chunk.getWorkItemId(), chunk.getEvaluationId());
+            return false;
+        }
+        
+        breakdownRepository.saveAll(breakdowns);
+        EvaluationWorkItem done = item.get();
+        done.setStatus(EvaluationWorkItem.Status.DONE);
+        done.setLeaseOwner(null);
+        done.setLeaseToken(null);
+        done.setLeaseExpiresAt(null);
+        workItemRepository.saveAndFlush(done);
+        
+        if (workItemRepository.countByEvaluationIdAndStatusNot(chunk.getEvaluationId(), EvaluationWorkItem.Status.DONE) == 0) {
+            Evaluation completed = evaluation.get();
+            completed.setStatus(Evaluation.Status.COMPLETED);
+            completed.setResultsRunNumber(chunk.getRunNumber());
+            evaluationRepository.save(completed);
+            // Readers switch to this run on commit; the replaced run's rows are no longer read
+            breakdownRepository.deleteOtherRuns(chunk.getEvaluationId(), chunk.getRunNumber());
+            snapshotRepository.deleteOtherRuns(chunk.getEvaluationId(), chunk.getRunNumber());
+        }
+        return true;
+    }
+    
+    /**
+     * Returns the chunk to the queue after a backoff, or fails the evaluation once the
+     * chunk has used up its attempts.
+     */
+    @Transactional
+    public void fail(ClaimedChunk chunk, String error) {
+        Optional<Evaluation> evaluation = evaluationRepository.findByIdForUpdate(chunk.getEvaluationId());
+        Optional<EvaluationWorkItem> item = workItemRepository.findByIdForUpdate(chunk.getWorkItemId())
+                .filter(chunk::holds);
+        if (evaluation.isEmpty() || item.isEmpty()) {
+            return;
+        }
+        
+        EvaluationWorkItem failed = item.get();
+        if (failed.getAttempts() >= maxAttempts) {
+            failEvaluation(chunk.getEvaluationId(), failed.getId(), error);
+            return;
+        }
+        // Exponential backoff: 1x, 2x, 4x ... the base delay
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(failed.getAttempts() - 1, 10));
+        failed.setStatus(EvaluationWorkItem.Status.PENDING);
+        failed.setAvailableAt(LocalDateTime.now().plus(delay));
+        failed.setLeaseOwner(null);
+        failed.setLeaseToken(null);
+        failed.setLeaseExpiresAt(null);
+        failed.setLastError(truncate(error));
+        workItemRepository.save(failed);
+    }
+    
+    /** Extends the leases of chunks this instance is still working on. */
+    @Transactional
+    public void renewLeases(Collection<UUID> leaseTokens) {
+        if (leaseTokens.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        workItemRepository.renewLeases(leaseTokens, EvaluationWorkItem.Status.RUNNING, now.plus(lease), now);
+    }
+    
+    /** Waits up to {@code timeoutMillis} for work enqueued on this instance. */
+    public void awaitWork(long timeoutMillis) throws InterruptedException {
+        if (localWork.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            // One wake-up is enough; the worker claims until the queue is empty
+            localWork.drainPermits();
+        }
+    }
+    
+    private void failEvaluation(Long evaluationId, Long workItemId, String error) {
+        logger.warn("Evaluation {} failed on chunk {}: {}", evaluationId, workItemId, error);
+        evaluationRepository.findByIdForUpdate(evaluationId).ifPresent(evaluation -> {
+            evaluation.setStatus(Evaluation.Status.FAILED);
+            evaluationRepository.save(evaluation);
+        });
+        workItemRepository.findByIdForUpdate(workItemId).ifPresent(item -> {
+            item.setStatus(EvaluationWorkItem.Status.FAILED);
+            item.setLeaseOwner(null);
+            item.setLeaseToken(null);
+            item.setLeaseExpiresAt(null);
+            item.setLastError(truncate(error));
+            workItemRepository.save(item);
+        });
+        // Nothing left of this run is worth scoring
+        workItemRepository.updateStatus(evaluationId, EvaluationWorkItem.Status.PENDING,
+                EvaluationWorkItem.Status.FAILED, LocalDateTime.now());
+    }
+    
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+    
+    /**
+     * A chunk held under a lease. The token identifies this claim; a later claim of the
+     * same chunk gets a new one.
+     */
+    public static class ClaimedChunk {
+        private final Long workItemId;
+        private final Long evaluationId;
+        private final Integer runNumber;
+        private final List<Long> resumeIds;
+        private final UUID leaseToken;
+        private final int attempt;
+        private final String traceParent;
+        
+        ClaimedChunk(EvaluationWorkItem item) {
+            this.workItemId = item.getId();
+            this.evaluationId = item.getEvaluationId();
+            this.runNumber = item.getRunNumber();
+            this.resumeIds = List.copyOf(item.getResumeIds());
+            this.leaseToken = item.getLeaseToken();
+            this.attempt = item.getAttempts();
+            this.traceParent = item.getTraceParent();
+        }
+        
+        boolean holds(EvaluationWorkItem item) {
+            return item.getStatus() == EvaluationWorkItem.Status.RUNNING && leaseToken.equals(item.getLeaseToken());
+        }
+        
+        public Long getWorkItemId() {
+            return workItemId;
+        }
+        
+        public Long getEvaluationId() {
+            return evaluationId;
+        }
+        
+        public Integer getRunNumber() {
+            return runNumber;
+        }
+        
+        public List<Long> getResumeIds() {
+            return resumeIds;
+        }
+        
+        public UUID getLeaseToken() {
+            return leaseToken;
+        }
+        
+        public int getAttempt() {
+            return attempt;
+        }
+        
+        public String getTraceParent() {
+            return traceParent;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.rolemark.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event around {@link EvaluationService#runEvaluation}: the rubric snapshot and
+ * queueing of candidates, not the scoring the workers do afterwards.
+ */
+@Name("com.rolemark.EvaluationRun")
+@Label("Evaluation Run")
+@Category({"RoleMark", "Evaluation"})
+@Description("Start of one evaluation run")
+class EvaluationRunEvent extends Event {
+    
+    @Label("Evaluation Id")
+    long evaluationId;
+    
+    @Label("Candidates")
+    int candidates;
+    
+    @Label("Outcome")
+    String outcome;
+}
@@ -2,13 +2,20 @@ package com.rolemark.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rolemark.dto.CursorPage;
+import com.rolemark.dto.EvaluationSummary;
+import com.rolemark.dto.KeysetCursor;
+import com.rolemark.dto.ListQuery;
 import com.rolemark.entity.*;
 import com.rolemark.repository.*;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -16,36 +23,51 @@ import java.util.stream.Collectors;
 @Service
 public class EvaluationService {
     
+    // Advisory lock key space of run starts; the evaluation id is the second key. Ids past
+    // 2^31 wrap, which at worst makes two unrelated starts wait for each other.
+    private static final int RUN_LOCK_CLASS = 0x52554e;
+    
     private final EvaluationRepository evaluationRepository;
     private final EvaluationSnapshotRepository snapshotRepository;
     private final EvaluationCandidateRepository candidateRepository;
     private final ScoreBreakdownRepository breakdownRepository;
-    private final RoleRepository roleRepository;
-    private final CriterionRepository criterionRepository;
+    private final RoleAggregateCache roleCache;
     private final ResumeRepository resumeRepository;
-    private final ScoringService scoringService;
     private final CriterionService criterionService;
+    private final EvaluationQueueService evaluationQueueService;
+    private final RubricVersionService rubricVersionService;
+    private final JsonArrayStreamer jsonArrayStreamer;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary runCandidates;
     
     public EvaluationService(EvaluationRepository evaluationRepository,
                             EvaluationSnapshotRepository snapshotRepository,
                             EvaluationCandidateRepository candidateRepository,
                             ScoreBreakdownRepository breakdownRepository,
-                            RoleRepository roleRepository,
-                            CriterionRepository criterionRepository,
+                            RoleAggregateCache roleCache,
                             ResumeRepository resumeRepository,
-                            ScoringService scoringService,
-                            CriterionService criterionService) {
+                            CriterionService criterionService,
+                            EvaluationQueueService evaluationQueueService,
+                            RubricVersionService rubricVersionService,
+                            JsonArrayStreamer jsonArrayStreamer,
+                            MeterRegistry meterRegistry) {
         this.evaluationRepository = evaluationRepository;
         this.snapshotRepository = snapshotRepository;
         this.candidateRepository = candidateRepository;
         this.breakdownRepository = breakdownRepository;
-        this.roleRepository = roleRepository;
-        this.criterionRepository = criterionRepository;
+        this.roleCache = roleCache;
         this.resumeRepository = resumeRepository;
-        this.scoringService = scoringService;
         this.criterionService = criterionService;
+        this.evaluationQueueService = evaluationQueueService;
+        this.rubricVersionService = rubricVersionService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
         this.objectMapper = new ObjectMapper();
+        this.meterRegistry = meterRegistry;
+        this.runCandidates = DistributionSummary.builder("rolemark.evaluation.run.candidates")
+                .description("Candidates queued for scoring per started run")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
     
     @Transactional
@@ -54,15 +76,23 @@ public class EvaluationService {
         if (resumeIds.size() < 2 || resumeIds.size() > 10) {
             throw new IllegalArgumentException("Evaluation must include 2-10 resumes");
         }
+        if (new HashSet<>(resumeIds).size() != resumeIds.size()) {
+            throw new IllegalArgumentException("Evaluation resumes must be distinct");
+        }
         
         // Verify role ownership
-        Role role = roleRepository.findByIdAndUserId(roleId, userId)
-                .orElseThrow(() -> new IllegalArgumentException("Role not found"));
+        roleCache.getOwned(userId, roleId);
         
-        // Verify all resumes belong to user
+        // Verify all resumes belong to user and have been ingested
         for (Long resumeId : resumeIds) {
-            resumeRepository.findByIdAndUserId(resumeId, userId)
+            Resume resume = resumeRepository.findByIdAndUserId(resumeId, userId)
                     .orElseThrow(() -> new IllegalArgumentException("Resume not found: " + resumeId));
+            if (resume.getIngestionStatus() == Resume.IngestionStatus.PENDING) {
+                throw new IllegalArgumentException("Resume is still being processed: " + resumeId);
+            }
+            if (resume.getIngestionStatus() == Resume.IngestionStatus.FAILED) {
+                throw new IllegalArgumentException("Resume could not be processed: " + resumeId);
+            }
         }
         
         // Create evaluation
@@ -85,85 +115,116 @@ public class EvaluationService {
         return evaluation;
     }
     
+    /**
+     * Snapshots the rubric and queues the candidates for scoring. The evaluation stays
+     * RUNNING until workers have scored every chunk. The results of the last completed
+     * run stay visible until a re-run completes and replaces them.
+     *
+     * Runs are single-flight across instances. A caller that finds another transaction
+     * starting the run waits for it to finish; if that run is then RUNNING the caller
+     * attaches to it instead of starting a second one.
+     *
+     * @return true if this call started the run, false if it attached to one in flight
+     */
     @Transactional
-    public void runEvaluation(UUID userId, Long evaluationId) {
-        Evaluation evaluation = evaluationRepository.findByIdAndUserId(evaluationId, userId)
+    public boolean runEvaluation(UUID userId, Long evaluationId) {
+        EvaluationRunEvent event = new EvaluationRunEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        int candidates = 0;
+        try {
+            candidates = startRun(userId, evaluationId);
+            outcome = candidates >= 0 ? "started" : "attached";
+            return candidates >= 0;
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("rolemark.evaluation.run")
+                    .description("Time to snapshot the rubric and queue an evaluation run")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            event.end();
+            if (event.shouldCommit()) {
+                event.evaluationId = evaluationId;
+                event.candidates = Math.max(candidates, 0);
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+    
+    /** Candidates queued by the run this call started, or -1 if it attached to one in flight. */
+    private int startRun(UUID userId, Long evaluationId) {
+        if (!evaluationRepository.existsByIdAndUserId(evaluationId, userId)) {
+            throw new IllegalArgumentException("Evaluation not found");
+        }
+        // Waits out a concurrent start: attaching before it commits would report a run
+        // that its rubric validation may still reject
+        evaluationRepository.acquireTransactionLock(RUN_LOCK_CLASS, (int) evaluationId.longValue());
+        // Read under the lock, so a run another caller has just started is seen as RUNNING
+        Evaluation evaluation = evaluationRepository.findById(evaluationId)
                 .orElseThrow(() -> new IllegalArgumentException("Evaluation not found"));
+        if (evaluation.getStatus() == Evaluation.Status.RUNNING) {
+            return -1;
+        }
+        
+        RoleAggregate role = roleCache.getOwned(userId, evaluation.getRoleId());
         
         // Validate criteria weights sum to 100
-        criterionService.validateWeightsSumTo100(evaluation.getRoleId());
+        criterionService.validateWeightsSumTo100(role);
+        
+        // Candidates go with their resumes; a run with none left would never complete
+        List<Long> resumeIds = candidateRepository.findByEvaluationId(evaluation.getId()).stream()
+                .map(EvaluationCandidate::getResumeId)
+                .collect(Collectors.toList());
+        if (resumeIds.isEmpty()) {
+            throw new IllegalArgumentException("Evaluation has no resumes left to score");
+        }
+        
+        // Keep the results being shown; drop what earlier unfinished runs left behind
+        int shownRun = evaluation.getResultsRunNumber() != null ? evaluation.getResultsRunNumber() : 0;
+        breakdownRepository.deleteOtherRuns(evaluation.getId(), shownRun);
+        snapshotRepository.deleteOtherRuns(evaluation.getId(), shownRun);
+        evaluationQueueService.clear(evaluation.getId());
+        int runNumber = evaluation.getRunNumber() + 1;
+        
+        // Create snapshot (immutability); workers score against this rubric version
+        EvaluationSnapshot snapshot = new EvaluationSnapshot();
+        snapshot.setEvaluationId(evaluation.getId());
+        snapshot.setRunNumber(runNumber);
+        snapshot.setRubricVersionId(rubricVersionService.resolveVersionId(role));
+        snapshotRepository.save(snapshot);
         
         evaluation.setStatus(Evaluation.Status.RUNNING);
+        evaluation.setRunNumber(runNumber);
         evaluationRepository.save(evaluation);
         
-        try {
-            // Get role and criteria (for snapshot)
-            Role role = roleRepository.findById(evaluation.getRoleId()).orElseThrow();
-            List<Criterion> criteria = criterionRepository.findByRoleId(evaluation.getRoleId());
-            
-            // Create snapshot (immutability)
-            EvaluationSnapshot snapshot = new EvaluationSnapshot();
-            snapshot.setEvaluationId(evaluation.getId());
-            snapshot.setRoleTitle(role.getTitle());
-            snapshot.setRoleJobDescription(role.getJobDescription());
-            
-            // Convert criteria to JSON
-            List<Map<String, Object>> criteriaJson = criteria.stream()
-                    .map(c -> {
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("id", c.getId());
-                        map.put("name", c.getName());
-                        map.put("description", c.getDescription());
-                        map.put("weight", c.getWeight());
-                        map.put("type", c.getType());
-                        map.put("config", c.getConfigJson());
-                        return map;
-                    })
-                    .collect(Collectors.toList());
-            
-            Map<String, Object> snapshotData = new HashMap<>();
-            snapshotData.put("criteria", criteriaJson);
-            snapshot.setCriteriaJson(snapshotData);
-            snapshotRepository.save(snapshot);
-            
-            // Get candidates
-            List<EvaluationCandidate> candidates = candidateRepository.findByEvaluationId(evaluation.getId());
-            
-            // Score each resume
-            List<ScoreBreakdown> breakdowns = new ArrayList<>();
-            for (EvaluationCandidate candidate : candidates) {
-                Resume resume = resumeRepository.findById(candidate.getResumeId()).orElseThrow();
-                Map<String, Object> breakdown = scoringService.scoreResume(resume, criteria, resume.getRawExtractedText());
-                
-                ScoreBreakdown scoreBreakdown = new ScoreBreakdown();
-                scoreBreakdown.setEvaluationId(evaluation.getId());
-                scoreBreakdown.setResumeId(resume.getId());
-                
-                double totalScore = (Double) breakdown.get("totalScore");
-                double totalScorePct = (Double) breakdown.get("totalScorePct");
-                
-                scoreBreakdown.setTotalScore(BigDecimal.valueOf(totalScore).setScale(4, RoundingMode.HALF_UP));
-                scoreBreakdown.setTotalScorePct(BigDecimal.valueOf(totalScorePct).setScale(1, RoundingMode.HALF_UP));
-                scoreBreakdown.setBreakdownJson(breakdown);
-                scoreBreakdown.setExplanationText("Scored " + totalScorePct + "% based on " + criteria.size() + " criteria");
-                
-                breakdowns.add(scoreBreakdown);
-            }
-            
-            breakdownRepository.saveAll(breakdowns);
-            
-            evaluation.setStatus(Evaluation.Status.COMPLETED);
-            evaluationRepository.save(evaluation);
-            
-        } catch (Exception e) {
-            evaluation.setStatus(Evaluation.Status.FAILED);
-            evaluationRepository.save(evaluation);
-            throw new RuntimeException("Evaluation failed: " + e.getMessage(), e);
-        }
+        evaluationQueueService.enqueue(evaluation.getId(), runNumber, evaluation.getUserId(), resumeIds);
+        runCandidates.record(resumeIds.size());
+        return resumeIds.size();
     }
     
-    public List<Evaluation> getAllEvaluations(UUID userId) {
-        return evaluationRepository.findByUserId(userId);
+    public CursorPage<EvaluationSummary> listEvaluations(UUID userId, ListQuery query) {
+        int limit = query.resolveLimit();
+        KeysetCursor cursor = query.resolveCursor();
+        List<EvaluationSummary> rows = evaluationRepository.findSummaryPage(userId, query.getRoleId(),
+                resolveStatuses(query.getStatus()), query.createdFromInclusive(), query.createdToExclusive(),
+                cursor.getCreatedAt(), cursor.getId(), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, e -> new KeysetCursor(e.getCreatedAt(), e.getId()));
+    }
+    
+    private List<Evaluation.Status> resolveStatuses(String status) {
+        if (status == null || status.isBlank()) {
+            return List.of(Evaluation.Status.values());
+        }
+        try {
+            return List.of(Evaluation.Status.valueOf(status.trim().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown evaluation status: " + status);
+        }
     }
     
     public Evaluation getEvaluationById(UUID userId, Long evaluationId) {
@@ -171,38 +232,52 @@ public class EvaluationService {
                 .orElseThrow(() -> new IllegalArgumentException("Evaluation not found"));
     }
     
+    /** Scores of the last completed run; empty before the first run completes. */
     public List<Map<String, Object>> getEvaluationResults(UUID userId, Long evaluationId) {
         Evaluation evaluation = evaluationRepository.findByIdAndUserId(evaluationId, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Evaluation not found"));
         
-        List<ScoreBreakdown> breakdowns = breakdownRepository.findByEvaluationId(evaluationId);
-        
-        return breakdowns.stream()
-                .map(b -> {
-                    Map<String, Object> result = new HashMap<>();
-                    result.put("resumeId", b.getResumeId());
-                    result.put("totalScore", b.getTotalScore());
-                    result.put("totalScorePct", b.getTotalScorePct());
-                    result.put("breakdown", b.getBreakdownJson());
-                    result.put("explanation", b.getExplanationText());
-                    return result;
-                })
-                .sorted((a, b) -> {
-                    BigDecimal scoreA = (BigDecimal) a.get("totalScore");
-                    BigDecimal scoreB = (BigDecimal) b.get("totalScore");
-                    return scoreB.compareTo(scoreA); // Descending order
-                })
+        // Ordered by descending score in the query
+        return breakdownRepository.findByEvaluationIdAndRunNumberOrderByTotalScoreDescIdAsc(
+                        evaluationId, evaluation.getResultsRunNumber()).stream()
+                .map(this::toResult)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Same results as {@link #getEvaluationResults}, written to the response as they are
+     * read rather than collected first.
+     */
+    public StreamingResponseBody streamEvaluationResults(UUID userId, Long evaluationId) {
+        Evaluation evaluation = evaluationRepository.findByIdAndUserId(evaluationId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Evaluation not found"));
+        
+        Integer runNumber = evaluation.getResultsRunNumber();
+        return jsonArrayStreamer.stream(
+                () -> breakdownRepository.streamByEvaluationIdAndRunNumber(evaluationId, runNumber), this::toResult);
+    }
+    
+    private Map<String, Object> toResult(ScoreBreakdown b) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("resumeId", b.getResumeId());
+        result.put("totalScore", b.getTotalScore());
+        result.put("totalScorePct", b.getTotalScorePct());
+        result.put("breakdown", b.getBreakdownJson());
+        result.put("explanation", b.getExplanationText());
+        return result;
+    }
+    
     public Map<String, Object> compareResumes(UUID userId, Long evaluationId, Long leftResumeId, Long rightResumeId) {
         Evaluation evaluation = evaluationRepository.findByIdAndUserId(evaluationId, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Evaluation not found"));
         
-        ScoreBreakdown leftBreakdown = breakdownRepository.findByEvaluationIdAndResumeId(evaluationId, leftResumeId)
+        Integer runNumber = evaluation.getResultsRunNumber();
+        ScoreBreakdown leftBreakdown = breakdownRepository.findByEvaluationIdAndRunNumberAndResumeId(
+                        evaluationId, runNumber, leftResumeId)
                 .orElseThrow(() -> new IllegalArgumentException("Left resume not found in evaluation"));
         
-        ScoreBreakdown rightBreakdown = breakdownRepository.findByEvaluationIdAndResumeId(evaluationId, rightResumeId)
+        ScoreBreakdown rightBreakdown = breakdownRepository.findByEvaluationIdAndRunNumberAndResumeId(
+                        evaluationId, runNumber, rightResumeId)
                 .orElseThrow(() -> new IllegalArgumentException("Right resume not found in evaluation"));
         
         Map<String, Object> comparison = new HashMap<>();
@@ -0,0 +1,165 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkExecutors;
+import com.rolemark.config.WorkTracing;
+import com.rolemark.entity.Criterion;
+import com.rolemark.entity.Resume;
+import com.rolemark.entity.ScoreBreakdown;
+import com.rolemark.repository.ResumeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scores queued evaluation chunks on this instance. Every instance runs the same loop,
+ * so a large evaluation spreads across all of them.
+ */
+@Component
+public class EvaluationWorker extends LeaseWorker<EvaluationQueueService.ClaimedChunk> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationWorker.class);
+    
+    private final EvaluationQueueService queueService;
+    private final RubricVersionService rubricVersionService;
+    private final ScoringService scoringService;
+    private final ResumeRepository resumeRepository;
+    private final ResumeTextService resumeTextService;
+    private final WorkExecutors workExecutors;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    public EvaluationWorker(EvaluationQueueService queueService,
+                            RubricVersionService rubricVersionService,
+                            ScoringService scoringService,
+                            ResumeRepository resumeRepository,
+                            ResumeTextService resumeTextService,
+                            WorkExecutors workExecutors,
+                            MeterRegistry meterRegistry,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${rolemark.evaluation-queue.workers:2}") int workers,
+                            @Value("${rolemark.evaluation-queue.poll-interval:1s}") Duration pollInterval) {
+        super(workExecutors, "evaluation", workers, pollInterval);
+        this.queueService = queueService;
+        this.rubricVersionService = rubricVersionService;
+        this.scoringService = scoringService;
+        this.resumeRepository = resumeRepository;
+        this.resumeTextService = resumeTextService;
+        this.workExecutors = workExecutors;
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @Override
+    protected Optional<EvaluationQueueService.ClaimedChunk> claim(String owner) {
+        return queueService.claim(owner);
+    }
+    
+    @Override
+    protected void awaitWork(long timeoutMillis) throws InterruptedException {
+        queueService.awaitWork(timeoutMillis);
+    }
+    
+    @Override
+    protected UUID leaseToken(EvaluationQueueService.ClaimedChunk chunk) {
+        return chunk.getLeaseToken();
+    }
+    
+    @Override
+    protected Duration lease() {
+        return queueService.getLease();
+    }
+    
+    @Override
+    protected void renewLeases(List<UUID> leaseTokens) {
+        queueService.renewLeases(leaseTokens);
+    }
+    
+    @Override
+    protected void process(EvaluationQueueService.ClaimedChunk chunk) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try (WorkTracing.ScopedSpan span = queueService.startSpan(chunk)) {
+            try {
+                List<ScoreBreakdown> breakdowns = score(chunk);
+                queueService.complete(chunk, breakdowns);
+            } catch (Exception e) {
+                outcome = "error";
+                span.error(e);
+                logger.warn("Chunk {} of evaluation {} failed on attempt {}: {}",
+                        chunk.getWorkItemId(), chunk.getEvaluationId(), chunk.getAttempt(), e.getMessage());
+                queueService.fail(chunk, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        } finally {
+            sample.stop(Timer.builder("rolemark.evaluation.chunk")
+                    .description("Time to score and store one claimed evaluation chunk")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+    
+    /** Everything a chunk is scored from, read before any scoring starts. */
+    private record ChunkInputs(List<Criterion> criteria, Map<Long, Resume> resumes, Map<Long, String> resumeTexts) {
+    }
+    
+    private List<ScoreBreakdown> score(EvaluationQueueService.ClaimedChunk chunk) throws Exception {
+        // One connection for the three reads, given back before the CPU-bound scoring.
+        // The snapshotted rubric, not the live role: edits after the run started do not apply
+        ChunkInputs inputs = readOnlyTransaction.execute(status -> new ChunkInputs(
+                rubricVersionService.criteriaForRun(chunk.getEvaluationId(), chunk.getRunNumber()),
+                resumeRepository.findAllById(chunk.getResumeIds()).stream()
+                        .collect(Collectors.toMap(Resume::getId, Function.identity())),
+                resumeTextService.loadAll(chunk.getResumeIds())));
+        List<Criterion> criteria = inputs.criteria();
+        Map<Long, Resume> resumes = inputs.resumes();
+        Map<Long, String> resumeTexts = inputs.resumeTexts();
+        
+        List<Callable<ScoreBreakdown>> candidates = new ArrayList<>();
+        for (Long resumeId : chunk.getResumeIds()) {
+            Resume resume = resumes.get(resumeId);
+            if (resume == null) {
+                // Deleted since the run was queued; its candidate row is gone with it
+                continue;
+            }
+            candidates.add(() -> scoreCandidate(chunk, resume, criteria, resumeTexts.get(resumeId)));
+        }
+        return workExecutors.allOnCpu(candidates);
+    }
+    
+    private ScoreBreakdown scoreCandidate(EvaluationQueueService.ClaimedChunk chunk, Resume resume,
+                                          List<Criterion> criteria, String resumeText) {
+        Map<String, Object> breakdown = scoringService.scoreResume(resume, criteria, resumeText);
+        
+        ScoreBreakdown scoreBreakdown = new ScoreBreakdown();
+        scoreBreakdown.setEvaluationId(chunk.getEvaluationId());
+        scoreBreakdown.setRunNumber(chunk.getRunNumber());
+        scoreBreakdown.setResumeId(resume.getId());
+        
+        double totalScore = (Double) breakdown.get("totalScore");
+        double totalScorePct = (Double) breakdown.get("totalScorePct");
+        
+        scoreBreakdown.setTotalScore(BigDecimal.valueOf(totalScore).setScale(4, RoundingMode.HALF_UP));
+        scoreBreakdown.setTotalScorePct(BigDecimal.valueOf(totalScorePct).setScale(1, RoundingMode.HALF_UP));
+        scoreBreakdown.setBreakdownJson(breakdown);
+        scoreBreakdown.setExplanationText("Scored " + totalScorePct + "% based on " + criteria.size() + " criteria");
+        return scoreBreakdown;
+    }
+}
@@ -0,0 +1,71 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkExecutors;
+import com.rolemark.entity.IngestionOutboxEvent;
+import com.rolemark.entity.Resume;
+import com.rolemark.entity.ResumeUpload;
+import com.rolemark.repository.ResumeRepository;
+import com.rolemark.repository.ResumeUploadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * EXTRACT: turns the uploaded PDF into page text, or takes the text from the extraction
+ * cache for byte-identical files. The raw upload is dropped once the text is stored.
+ */
+@Component
+public class ExtractStageWorker extends IngestionStageWorker {
+    
+    private final ResumeRepository resumeRepository;
+    private final ResumeUploadRepository resumeUploadRepository;
+    private final ResumeTextService resumeTextService;
+    private final PdfExtractionService pdfExtractionService;
+    private final ExtractionCacheService extractionCacheService;
+    
+    public ExtractStageWorker(IngestionOutboxService outboxService,
+                              WorkExecutors workExecutors,
+                              ResumeRepository resumeRepository,
+                              ResumeUploadRepository resumeUploadRepository,
+                              ResumeTextService resumeTextService,
+                              PdfExtractionService pdfExtractionService,
+                              ExtractionCacheService extractionCacheService,
+                              @Value("${rolemark.ingestion.extract.workers:2}") int workers,
+                              @Value("${rolemark.ingestion.extract.max-attempts:3}") int maxAttempts,
+                              @Value("${rolemark.ingestion.extract.retry-backoff:10s}") Duration retryBackoff,
+                              @Value("${rolemark.ingestion.poll-interval:1s}") Duration pollInterval) {
+        super(outboxService, workExecutors, IngestionOutboxEvent.Stage.EXTRACT, workers, maxAttempts, retryBackoff, pollInterval);
+        this.resumeRepository = resumeRepository;
+        this.resumeUploadRepository = resumeUploadRepository;
+        this.resumeTextService = resumeTextService;
+        this.pdfExtractionService = pdfExtractionService;
+        this.extractionCacheService = extractionCacheService;
+    }
+    
+    @Override
+    protected Supplier<IngestionOutboxEvent.Stage> prepare(Long resumeId) throws Exception {
+        Resume resume = resumeRepository.findById(resumeId)
+                .orElseThrow(() -> new IllegalStateException("Resume " + resumeId + " no longer exists"));
+        
+        List<String> pages;
+        Optional<ExtractionCacheService.CachedExtraction> cached = extractionCacheService.lookup(resume.getChecksumSha256());
+        if (cached.isPresent()) {
+            pages = cached.get().getPages();
+        } else {
+            ResumeUpload upload = resumeUploadRepository.findById(resumeId)
+                    .orElseThrow(() -> new IllegalStateException("Upload of resume " + resumeId + " is missing"));
+            pages = onCpu(() -> pdfExtractionService.extractPages(upload.getContent()));
+        }
+        String text = PdfTextExtractor.joinPages(pages);
+        
+        return () -> {
+            resumeTextService.save(resumeId, text);
+            resumeUploadRepository.deleteById(resumeId);
+            return IngestionOutboxEvent.Stage.PARSE;
+        };
+    }
+}
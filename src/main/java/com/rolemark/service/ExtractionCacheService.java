@@ -0,0 +1,149 @@
+package com.rolemark.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rolemark.entity.ExtractedSignal;
+import com.rolemark.entity.ExtractionCacheEntry;
+import com.rolemark.repository.ExtractionCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed cache of extracted page text and parsed signals, keyed by the
+ * SHA-256 of the PDF bytes and {@link ResumeParserService#PARSER_VERSION}.
+ *
+ * Entries contain nothing but what can be derived from the bytes, so sharing them
+ * between users who upload identical files leaks no tenant data.
+ *
+ * {@link #lookup} is the one counted lookup per upload, made by the first ingestion
+ * stage; the later stages use {@link #cachedSignals} and {@link #contains}, which leave
+ * the hit and miss counters alone.
+ */
+@Service
+public class ExtractionCacheService {
+    
+    private final ExtractionCacheRepository extractionCacheRepository;
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+    
+    public ExtractionCacheService(ExtractionCacheRepository extractionCacheRepository,
+                                  @Value("${rolemark.extraction-cache.enabled:true}") boolean enabled,
+                                  MeterRegistry meterRegistry) {
+        this.extractionCacheRepository = extractionCacheRepository;
+        this.enabled = enabled;
+        this.objectMapper = new ObjectMapper();
+        this.hits = Counter.builder("rolemark.extraction.cache.requests").tag("result", "hit")
+                .description("Extraction cache lookups that found a fresh entry").register(meterRegistry);
+        this.misses = Counter.builder("rolemark.extraction.cache.requests").tag("result", "miss")
+                .description("Extraction cache lookups that found no fresh entry").register(meterRegistry);
+    }
+    
+    public Optional<CachedExtraction> lookup(String checksum) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        LocalDateTime freshSince = freshSince();
+        Optional<CachedExtraction> cached = extractionCacheRepository
+                .findByChecksumSha256AndParserVersion(checksum, ResumeParserService.PARSER_VERSION)
+                .filter(entry -> !entry.getCreatedAt().isBefore(freshSince))
+                .map(entry -> new CachedExtraction(
+                        PdfTextExtractor.splitPages(entry.getExtractedText()),
+                        toSignals(entry.getSignalsJson())));
+        (cached.isPresent() ? hits : misses).increment();
+        return cached;
+    }
+    
+    /** The cached signals of a fresh entry, without counting a lookup or loading the text. */
+    public Optional<List<ExtractedSignal>> cachedSignals(String checksum) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return extractionCacheRepository
+                .findSignalsByChecksumSha256AndParserVersionAndCreatedAtGreaterThanEqual(
+                        checksum, ResumeParserService.PARSER_VERSION, freshSince())
+                .map(entry -> toSignals(entry.getSignalsJson()));
+    }
+    
+    /** Whether a fresh entry exists, without counting a lookup or loading it. */
+    public boolean contains(String checksum) {
+        return enabled && extractionCacheRepository.existsByChecksumSha256AndParserVersionAndCreatedAtGreaterThanEqual(
+                checksum, ResumeParserService.PARSER_VERSION, freshSince());
+    }
+    
+    public void store(String checksum, List<String> pages, List<ExtractedSignal> signals) {
+        if (!enabled) {
+            return;
+        }
+        List<Map<String, Object>> signalsJson = new ArrayList<>();
+        for (ExtractedSignal signal : signals) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("type", signal.getType());
+            json.put("value", signal.getValue());
+            json.put("evidenceSnippet", signal.getEvidenceSnippet());
+            json.put("confidence", signal.getConfidence().name());
+            json.put("sourcePage", signal.getSourcePage());
+            signalsJson.add(json);
+        }
+        
+        try {
+            extractionCacheRepository.upsert(checksum, ResumeParserService.PARSER_VERSION, pages.size(),
+                    PdfTextExtractor.joinPages(pages), objectMapper.writeValueAsString(signalsJson));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize extracted signals", e);
+        }
+    }
+    
+    // Open-ended ranges ("2021 - Present") are resolved against today's date, so
+    // signals parsed in an earlier month would understate experience
+    private static LocalDateTime freshSince() {
+        return LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    }
+    
+    /**
+     * Signals come back as new, unsaved entities for the caller to attach to its resume.
+     */
+    private List<ExtractedSignal> toSignals(List<Map<String, Object>> signalsJson) {
+        List<ExtractedSignal> signals = new ArrayList<>();
+        for (Map<String, Object> json : signalsJson) {
+            ExtractedSignal signal = new ExtractedSignal();
+            signal.setType((String) json.get("type"));
+            signal.setValue((String) json.get("value"));
+            signal.setEvidenceSnippet((String) json.get("evidenceSnippet"));
+            signal.setConfidence(ExtractedSignal.Confidence.valueOf((String) json.get("confidence")));
+            Object sourcePage = json.get("sourcePage");
+            signal.setSourcePage(sourcePage != null ? ((Number) sourcePage).intValue() : null);
+            signals.add(signal);
+        }
+        return signals;
+    }
+    
+    public static class CachedExtraction {
+        private final List<String> pages;
+        private final List<ExtractedSignal> signals;
+        
+        public CachedExtraction(List<String> pages, List<ExtractedSignal> signals) {
+            this.pages = pages;
+            this.signals = signals;
+        }
+        
+        public List<String> getPages() {
+            return pages;
+        }
+        
+        public List<ExtractedSignal> getSignals() {
+            return signals;
+        }
+    }
+}
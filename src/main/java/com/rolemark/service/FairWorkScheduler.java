@@ -0,0 +1,85 @@
+package com.rolemark.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Decides whose background work is claimed next, so one user's bulk import cannot
+ * starve other users' single uploads and small runs.
+ *
+ * Tenants (users) with due work are ranked by weighted load: the work they already
+ * have in flight plus the item about to be claimed, multiplied by {@code bulkWeight}
+ * when all their due work is bulk; ties go to the tenant whose work has been due
+ * longest. Work is bulk when it was queued while its tenant already had
+ * {@code bulkThreshold} items queued. Tenants at {@code maxInFlightPerTenant} are
+ * skipped. The queues rank and claim in a single query with these parameters
+ * ({@code findNextClaimable}). Claims on different workers can race past the cap by a
+ * few items; it bounds a tenant's share, it does not enforce an exact count.
+ */
+@Component
+public class FairWorkScheduler {
+    
+    /** Tag value of every tenant not listed in {@code metricTenants}. */
+    static final String OTHER_TENANTS = "other";
+    
+    private final int maxInFlightPerTenant;
+    private final int bulkWeight;
+    private final int bulkThreshold;
+    private final Set<UUID> metricTenants;
+    private final MeterRegistry meterRegistry;
+    
+    public FairWorkScheduler(@Value("${rolemark.fair-scheduling.max-in-flight-per-tenant:4}") int maxInFlightPerTenant,
+                             @Value("${rolemark.fair-scheduling.bulk-weight:4}") int bulkWeight,
+                             @Value("${rolemark.fair-scheduling.bulk-threshold:10}") int bulkThreshold,
+                             @Value("${rolemark.fair-scheduling.metric-tenants:}") List<UUID> metricTenants,
+                             MeterRegistry meterRegistry) {
+        if (maxInFlightPerTenant < 1 || bulkWeight < 1) {
+            throw new IllegalStateException("Per-tenant in-flight cap and bulk weight must be positive");
+        }
+        this.maxInFlightPerTenant = maxInFlightPerTenant;
+        this.bulkWeight = bulkWeight;
+        this.bulkThreshold = bulkThreshold;
+        this.metricTenants = Set.copyOf(metricTenants);
+        this.meterRegistry = meterRegistry;
+    }
+    
+    public int getMaxInFlightPerTenant() {
+        return maxInFlightPerTenant;
+    }
+    
+    public int getBulkWeight() {
+        return bulkWeight;
+    }
+    
+    /** Whether new work of a tenant that already has {@code queuedForTenant} items queued is bulk. */
+    public boolean isBulk(long queuedForTenant) {
+        return queuedForTenant >= bulkThreshold;
+    }
+    
+    /**
+     * Records how long a claimed item waited between becoming due and being claimed,
+     * per queue and priority. Only the tenants configured in {@code metricTenants} get a
+     * tag of their own; the rest share {@value #OTHER_TENANTS}, so the series stay bounded
+     * however many users there are. Percentiles are aggregated from the histogram buckets
+     * on the server side.
+     */
+    public void recordQueueWait(String queue, UUID tenantId, boolean bulk, LocalDateTime dueAt, LocalDateTime claimedAt) {
+        Duration waited = Duration.between(dueAt, claimedAt);
+        Timer.builder("rolemark.queue.wait")
+                .description("Time background work waited between becoming due and being claimed")
+                .tag("queue", queue)
+                .tag("tenant", metricTenants.contains(tenantId) ? tenantId.toString() : OTHER_TENANTS)
+                .tag("priority", bulk ? "bulk" : "interactive")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(waited.isNegative() ? Duration.ZERO : waited);
+    }
+}
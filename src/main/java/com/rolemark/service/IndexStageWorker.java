@@ -0,0 +1,69 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkExecutors;
+import com.rolemark.entity.ExtractedSignal;
+import com.rolemark.entity.IngestionOutboxEvent;
+import com.rolemark.entity.Resume;
+import com.rolemark.repository.ExtractedSignalRepository;
+import com.rolemark.repository.ResumeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * INDEX: records the extraction in the content-addressed extraction cache and marks the
+ * resume READY, which makes it selectable for evaluations. Resumes linked to a role
+ * continue to PRE_SCORE.
+ */
+@Component
+public class IndexStageWorker extends IngestionStageWorker {
+    
+    private final ResumeRepository resumeRepository;
+    private final ResumeTextService resumeTextService;
+    private final ExtractedSignalRepository extractedSignalRepository;
+    private final ExtractionCacheService extractionCacheService;
+    
+    public IndexStageWorker(IngestionOutboxService outboxService,
+                            WorkExecutors workExecutors,
+                            ResumeRepository resumeRepository,
+                            ResumeTextService resumeTextService,
+                            ExtractedSignalRepository extractedSignalRepository,
+                            ExtractionCacheService extractionCacheService,
+                            @Value("${rolemark.ingestion.index.workers:1}") int workers,
+                            @Value("${rolemark.ingestion.index.max-attempts:5}") int maxAttempts,
+                            @Value("${rolemark.ingestion.index.retry-backoff:2s}") Duration retryBackoff,
+                            @Value("${rolemark.ingestion.poll-interval:1s}") Duration pollInterval) {
+        super(outboxService, workExecutors, IngestionOutboxEvent.Stage.INDEX, workers, maxAttempts, retryBackoff, pollInterval);
+        this.resumeRepository = resumeRepository;
+        this.resumeTextService = resumeTextService;
+        this.extractedSignalRepository = extractedSignalRepository;
+        this.extractionCacheService = extractionCacheService;
+    }
+    
+    @Override
+    protected Supplier<IngestionOutboxEvent.Stage> prepare(Long resumeId) {
+        Resume resume = resumeRepository.findById(resumeId)
+                .orElseThrow(() -> new IllegalStateException("Resume " + resumeId + " no longer exists"));
+        String checksum = resume.getChecksumSha256();
+        boolean cached = extractionCacheService.contains(checksum);
+        List<String> pages = cached ? null : resumeTextService.loadPages(resumeId);
+        List<ExtractedSignal> signals = pages == null ? null : extractedSignalRepository.findByResumeId(resumeId);
+        
+        return () -> {
+            // A text without known page breaks is not cached, so it never reaches other uploads
+            if (pages != null) {
+                extractionCacheService.store(checksum, pages, signals);
+            }
+            // Re-read in this transaction: the role may have been linked since prepare()
+            Resume current = resumeRepository.findById(resumeId)
+                    .orElseThrow(() -> new IllegalStateException("Resume " + resumeId + " no longer exists"));
+            current.setIngestionStatus(Resume.IngestionStatus.READY);
+            current.setIngestionError(null);
+            resumeRepository.save(current);
+            return current.getRoleId() != null ? IngestionOutboxEvent.Stage.PRE_SCORE : null;
+        };
+    }
+}
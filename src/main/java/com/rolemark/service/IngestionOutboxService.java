@@ -0,0 +1,319 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkTracing;
+import com.rolemark.entity.IngestionOutboxEvent;
+import com.rolemark.entity.Resume;
+import com.rolemark.repository.IngestionOutboxRepository;
+import com.rolemark.repository.ResumeRepository;
+import com.rolemark.repository.ResumeUploadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Transactional outbox driving resume ingestion. Each stage's event is written in the
+ * transaction that makes it due: the upload writes EXTRACT, and every stage's commit
+ * writes the next one. {@link IngestionStageWorker}s on any instance claim events of
+ * their stage under a lease, like {@link EvaluationQueueService} chunks.
+ */
+@Service
+public class IngestionOutboxService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IngestionOutboxService.class);
+    
+    private static final int MAX_ERROR_LENGTH = 2_000;
+    
+    private final IngestionOutboxRepository outboxRepository;
+    private final ResumeRepository resumeRepository;
+    private final ResumeUploadRepository resumeUploadRepository;
+    private final FairWorkScheduler fairWorkScheduler;
+    private final WorkTracing workTracing;
+    private final Duration lease;
+    // Lets events queued on this instance start without waiting for the next poll
+    private final Map<IngestionOutboxEvent.Stage, Semaphore> localWork = new EnumMap<>(IngestionOutboxEvent.Stage.class);
+    
+    public IngestionOutboxService(IngestionOutboxRepository outboxRepository,
+                                  ResumeRepository resumeRepository,
+                                  ResumeUploadRepository resumeUploadRepository,
+                                  FairWorkScheduler fairWorkScheduler,
+                                  WorkTracing workTracing,
+                                  @Value("${rolemark.ingestion.lease:60s}") Duration lease) {
+        this.outboxRepository = outboxRepository;
+        this.resumeRepository = resumeRepository;
+        this.resumeUploadRepository = resumeUploadRepository;
+        this.fairWorkScheduler = fairWorkScheduler;
+        this.workTracing = workTracing;
+        this.lease = lease;
+        for (IngestionOutboxEvent.Stage stage : IngestionOutboxEvent.Stage.values()) {
+            localWork.put(stage, new Semaphore(0));
+        }
+    }
+    
+    public Duration getLease() {
+        return lease;
+    }
+    
+    /** Span for processing a claimed event, in the trace of whatever queued it. */
+    public WorkTracing.ScopedSpan startSpan(ClaimedEvent event) {
+        return workTracing.startSpan("ingestion " + event.getStage().name().toLowerCase(Locale.ROOT), event.getTraceParent())
+                .tag("resume.id", event.getResumeId())
+                .tag("attempt", event.getAttempt());
+    }
+    
+    /**
+     * Queues the first stage of the resume's ingestion, dropping events left over from
+     * an earlier attempt. Must run in the transaction that stores the upload.
+     */
+    @Transactional
+    public void start(Long resumeId) {
+        outboxRepository.deleteByResumeId(resumeId);
+        enqueue(resumeId, IngestionOutboxEvent.Stage.EXTRACT);
+    }
+    
+    /**
+     * Queues {@code stage} for the resume unless it is already queued, as bulk work if
+     * the resume's owner already has a backlog. Pollers see the event once the calling
+     * transaction commits.
+     */
+    @Transactional
+    public void enqueue(Long resumeId, IngestionOutboxEvent.Stage stage) {
+        resumeRepository.findById(resumeId).ifPresent(resume -> {
+            boolean bulk = fairWorkScheduler.isBulk(outboxRepository.countByTenantIdAndStatusIn(resume.getUserId(),
+                    List.of(IngestionOutboxEvent.Status.PENDING, IngestionOutboxEvent.Status.RUNNING)));
+            enqueue(resumeId, stage, resume.getUserId(), bulk);
+        });
+    }
+    
+    private void enqueue(Long resumeId, IngestionOutboxEvent.Stage stage, UUID tenantId, boolean bulk) {
+        if (outboxRepository.existsByResumeIdAndStage(resumeId, stage)) {
+            return;
+        }
+        IngestionOutboxEvent event = new IngestionOutboxEvent();
+        event.setResumeId(resumeId);
+        event.setTenantId(tenantId);
+        event.setBulk(bulk);
+        event.setStage(stage);
+        // The stage continues the trace of the upload, or of the stage before it
+        event.setTraceParent(workTracing.currentTraceParent());
+        outboxRepository.save(event);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    localWork.get(stage).release();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Claims a due event of {@code stage} for {@code owner}, or one whose previous holder's
+     * lease ran out, from the tenant {@link FairWorkScheduler} ranks first. An event that
+     * has used up its attempts fails instead.
+     */
+    @Transactional
+    public Optional<ClaimedEvent> claim(IngestionOutboxEvent.Stage stage, String owner, int maxAttempts) {
+        LocalDateTime now = LocalDateTime.now();
+        return outboxRepository.findNextClaimable(stage.name(), now,
+                        fairWorkScheduler.getMaxInFlightPerTenant(), fairWorkScheduler.getBulkWeight())
+                .flatMap(event -> claim(event, owner, maxAttempts, now));
+    }
+    
+    private Optional<ClaimedEvent> claim(IngestionOutboxEvent event, String owner, int maxAttempts, LocalDateTime now) {
+        if (event.getAttempts() >= maxAttempts) {
+            // Only reachable through lease expiry: the last holder died mid-stage
+            giveUp(event, "Lease expired after " + event.getAttempts() + " attempts");
+            return Optional.empty();
+        }
+        
+        if (event.getStatus() == IngestionOutboxEvent.Status.PENDING) {
+            fairWorkScheduler.recordQueueWait("ingestion." + event.getStage().name().toLowerCase(Locale.ROOT),
+                    event.getTenantId(), event.getBulk(), event.getAvailableAt(), now);
+        }
+        event.setStatus(IngestionOutboxEvent.Status.RUNNING);
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLeaseOwner(owner);
+        event.setLeaseToken(UUID.randomUUID());
+        event.setLeaseExpiresAt(now.plus(lease));
+        outboxRepository.save(event);
+        return Optional.of(new ClaimedEvent(event));
+    }
+    
+    /**
+     * Runs the stage's commit step, removes the event and queues the stage the step
+     * returns, all in one transaction. Returns false, running nothing, if the lease was lost.
+     */
+    @Transactional
+    public boolean complete(ClaimedEvent claimed, Supplier<IngestionOutboxEvent.Stage> commit) {
+        Optional<IngestionOutboxEvent> event = outboxRepository.findByIdForUpdate(claimed.getEventId())
+                .filter(claimed::holds);
+        if (event.isEmpty()) {
+            logger.info("Discarding {} result of resume {}: lease lost or resume deleted",
+                    claimed.getStage(), claimed.getResumeId());
+            return false;
+        }
+        
+        IngestionOutboxEvent.Stage next = commit.get();
+        outboxRepository.delete(event.get());
+        // Flush the delete first: a stage may queue itself again
+        outboxRepository.flush();
+        if (next != null) {
+            // Later stages keep the tenant and priority the upload was queued with
+            enqueue(claimed.getResumeId(), next, claimed.getTenantId(), claimed.isBulk());
+        }
+        return true;
+    }
+    
+    /**
+     * Returns the event to the queue after {@code retryDelay}, or fails it for good when
+     * the delay is null.
+     */
+    @Transactional
+    public void fail(ClaimedEvent claimed, String error, Duration retryDelay) {
+        Optional<IngestionOutboxEvent> event = outboxRepository.findByIdForUpdate(claimed.getEventId())
+                .filter(claimed::holds);
+        if (event.isEmpty()) {
+            return;
+        }
+        
+        IngestionOutboxEvent failed = event.get();
+        if (retryDelay == null) {
+            giveUp(failed, error);
+            return;
+        }
+        failed.setStatus(IngestionOutboxEvent.Status.PENDING);
+        failed.setAvailableAt(LocalDateTime.now().plus(retryDelay));
+        failed.setLeaseOwner(null);
+        failed.setLeaseToken(null);
+        failed.setLeaseExpiresAt(null);
+        failed.setLastError(truncate(error));
+        outboxRepository.save(failed);
+    }
+    
+    /** Extends the leases of events this instance is still working on. */
+    @Transactional
+    public void renewLeases(Collection<UUID> leaseTokens) {
+        if (leaseTokens.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.renewLeases(leaseTokens, IngestionOutboxEvent.Status.RUNNING, now.plus(lease), now);
+    }
+    
+    /** Waits up to {@code timeoutMillis} for events of {@code stage} queued on this instance. */
+    public void awaitWork(IngestionOutboxEvent.Stage stage, long timeoutMillis) throws InterruptedException {
+        Semaphore work = localWork.get(stage);
+        if (work.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            // One wake-up is enough; the poller claims until the stage is empty
+            work.drainPermits();
+        }
+    }
+    
+    private void giveUp(IngestionOutboxEvent event, String error) {
+        logger.warn("Ingestion of resume {} failed in stage {}: {}", event.getResumeId(), event.getStage(), error);
+        event.setStatus(IngestionOutboxEvent.Status.FAILED);
+        event.setLeaseOwner(null);
+        event.setLeaseToken(null);
+        event.setLeaseExpiresAt(null);
+        event.setLastError(truncate(error));
+        outboxRepository.save(event);
+        
+        // Pre-scoring is optional: the resume stays usable, just without a pre-score
+        if (event.getStage() != IngestionOutboxEvent.Stage.PRE_SCORE) {
+            resumeRepository.findById(event.getResumeId()).ifPresent(resume -> {
+                resume.setIngestionStatus(Resume.IngestionStatus.FAILED);
+                resume.setIngestionError(truncate(error));
+                resumeRepository.save(resume);
+            });
+            // Retrying means uploading the file again, which stores its bytes anew
+            resumeUploadRepository.findById(event.getResumeId()).ifPresent(resumeUploadRepository::delete);
+        }
+    }
+    
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+    
+    /**
+     * An event held under a lease. The token identifies this claim; a later claim of the
+     * same event gets a new one.
+     */
+    public static class ClaimedEvent {
+        private final Long eventId;
+        private final Long resumeId;
+        private final UUID tenantId;
+        private final boolean bulk;
+        private final IngestionOutboxEvent.Stage stage;
+        private final UUID leaseToken;
+        private final int attempt;
+        private final String traceParent;
+        
+        ClaimedEvent(IngestionOutboxEvent event) {
+            this.eventId = event.getId();
+            this.resumeId = event.getResumeId();
+            this.tenantId = event.getTenantId();
+            this.bulk = event.getBulk();
+            this.stage = event.getStage();
+            this.leaseToken = event.getLeaseToken();
+            this.attempt = event.getAttempts();
+            this.traceParent = event.getTraceParent();
+        }
+        
+        boolean holds(IngestionOutboxEvent event) {
+            return event.getStatus() == IngestionOutboxEvent.Status.RUNNING && leaseToken.equals(event.getLeaseToken());
+        }
+        
+        public Long getEventId() {
+            return eventId;
+        }
+        
+        public Long getResumeId() {
+            return resumeId;
+        }
+        
+        public UUID getTenantId() {
+            return tenantId;
+        }
+        
+        public boolean isBulk() {
+            return bulk;
+        }
+        
+        public IngestionOutboxEvent.Stage getStage() {
+            return stage;
+        }
+        
+        public UUID getLeaseToken() {
+            return leaseToken;
+        }
+        
+        public int getAttempt() {
+            return attempt;
+        }
+        
+        public String getTraceParent() {
+            return traceParent;
+        }
+    }
+}
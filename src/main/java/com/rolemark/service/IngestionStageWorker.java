@@ -0,0 +1,122 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkExecutors;
+import com.rolemark.config.WorkTracing;
+import com.rolemark.entity.IngestionOutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Polls the outbox events of one ingestion stage on this instance. Every stage has its
+ * own subclass with its own thread count and retry policy, so a slow stage can be
+ * scaled or tuned without touching the others.
+ *
+ * The expensive part of a stage runs outside any transaction. Its writes and the
+ * hand-off to the next stage commit together in {@link IngestionOutboxService#complete}.
+ */
+public abstract class IngestionStageWorker extends LeaseWorker<IngestionOutboxService.ClaimedEvent> {
+    
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    
+    private final IngestionOutboxService outboxService;
+    private final WorkExecutors workExecutors;
+    private final IngestionOutboxEvent.Stage stage;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    
+    protected IngestionStageWorker(IngestionOutboxService outboxService,
+                                   WorkExecutors workExecutors,
+                                   IngestionOutboxEvent.Stage stage,
+                                   int workers,
+                                   int maxAttempts,
+                                   Duration retryBackoff,
+                                   Duration pollInterval) {
+        super(workExecutors, "ingestion-" + stage.name().toLowerCase(Locale.ROOT).replace('_', '-'), workers, pollInterval);
+        if (maxAttempts < 1) {
+            throw new IllegalStateException("Max attempts of ingestion stage " + stage + " must be positive");
+        }
+        this.outboxService = outboxService;
+        this.workExecutors = workExecutors;
+        this.stage = stage;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+    
+    /**
+     * Does the stage's work for a resume and returns its commit step. The step runs in
+     * the completing transaction, writes the stage's results and returns the next stage,
+     * or null when ingestion of the resume ends here.
+     *
+     * Throw {@link IllegalArgumentException} for input that can never succeed; it fails
+     * the stage at once instead of being retried.
+     */
+    protected abstract Supplier<IngestionOutboxEvent.Stage> prepare(Long resumeId) throws Exception;
+    
+    /**
+     * Runs CPU-bound work of a stage on the shared bounded pool, so raising a stage's
+     * worker count adds concurrency for I/O without oversubscribing the cores.
+     */
+    protected <T> T onCpu(Callable<T> task) throws Exception {
+        return workExecutors.onCpu(task);
+    }
+    
+    @Override
+    protected Optional<IngestionOutboxService.ClaimedEvent> claim(String owner) {
+        return outboxService.claim(stage, owner, maxAttempts);
+    }
+    
+    @Override
+    protected void awaitWork(long timeoutMillis) throws InterruptedException {
+        outboxService.awaitWork(stage, timeoutMillis);
+    }
+    
+    @Override
+    protected UUID leaseToken(IngestionOutboxService.ClaimedEvent event) {
+        return event.getLeaseToken();
+    }
+    
+    @Override
+    protected Duration lease() {
+        return outboxService.getLease();
+    }
+    
+    @Override
+    protected void renewLeases(List<UUID> leaseTokens) {
+        outboxService.renewLeases(leaseTokens);
+    }
+    
+    @Override
+    protected void process(IngestionOutboxService.ClaimedEvent event) {
+        try (WorkTracing.ScopedSpan span = outboxService.startSpan(event)) {
+            try {
+                Supplier<IngestionOutboxEvent.Stage> commit = prepare(event.getResumeId());
+                outboxService.complete(event, commit);
+            } catch (IllegalArgumentException e) {
+                span.error(e);
+                logger.warn("Stage {} rejected resume {}: {}", stage, event.getResumeId(), e.getMessage());
+                outboxService.fail(event, e.getMessage(), null);
+            } catch (Exception e) {
+                span.error(e);
+                logger.warn("Stage {} of resume {} failed on attempt {}: {}",
+                        stage, event.getResumeId(), event.getAttempt(), e.getMessage());
+                outboxService.fail(event, e.getClass().getSimpleName() + ": " + e.getMessage(), retryDelay(event.getAttempt()));
+            }
+        }
+    }
+    
+    private Duration retryDelay(int attempt) {
+        if (attempt >= maxAttempts) {
+            return null;
+        }
+        // Exponential backoff: 1x, 2x, 4x ... the base delay
+        return retryBackoff.multipliedBy(1L << Math.min(attempt - 1, 10));
+    }
+}
@@ -0,0 +1,16 @@
+package com.rolemark.service;
+
+/**
+ * An in-process cache that {@link CacheInvalidationBus} keeps consistent across instances.
+ */
+public interface InvalidatableCache {
+    
+    /** Name writers publish under; must not contain ':'. */
+    String cacheName();
+    
+    /** Drops one entry. May run inside the writer's transaction or on the listener thread. */
+    void evict(String key);
+    
+    /** Drops everything, after notices may have been missed. */
+    void evictAll();
+}
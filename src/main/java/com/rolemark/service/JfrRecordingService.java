@@ -0,0 +1,200 @@
+package com.rolemark.service;
+
+import com.rolemark.exception.NotFoundException;
+import com.rolemark.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-boxed Java Flight Recorder recordings of this instance, taken on demand while
+ * it keeps serving. Besides the JDK's own events (GC, JIT, locks, socket and file I/O)
+ * a recording carries the application's {@link PdfExtractEvent}, {@link ParseResumeEvent},
+ * {@link ScoreCriterionEvent} and {@link EvaluationRunEvent}. Events that would copy the
+ * process environment, system properties or JVM arguments (secrets among them) into
+ * the file are turned off.
+ *
+ * A recording is started and then left to JFR, which stops it when its duration is up;
+ * no thread waits on it. One recording runs at a time per instance; a second request is
+ * turned away until the first one ends. A finished recording stays in JFR's repository
+ * until it is collected or the next recording starts.
+ */
+@Service
+public class JfrRecordingService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecordingService.class);
+    
+    /** Settings shipped with the JDK: about 1% overhead, or about 2% with more detail. */
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    
+    /** Events whose payload may hold credentials passed through the environment or command line. */
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+    
+    private final Duration maxDuration;
+    private final AtomicLong ids = new AtomicLong();
+    /** The latest recording, running or waiting to be collected; guarded by this. */
+    private OnDemandRecording latest;
+    
+    public JfrRecordingService(@Value("${rolemark.jfr.max-duration:5m}") Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+    
+    /**
+     * Starts recording for {@code duration} with the named JDK settings and returns at
+     * once. A finished recording nobody collected is discarded.
+     */
+    public synchronized RecordingStatus start(Duration duration, String settings) throws IOException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Recording duration must be between 1s and " + maxDuration.toSeconds() + "s");
+        }
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("Recording settings must be one of " + SETTINGS);
+        }
+        if (latest != null && latest.isRunning()) {
+            throw new ServiceUnavailableException("A recording is already running on this instance", latest.remaining());
+        }
+        if (latest != null) {
+            latest.discard();
+            latest = null;
+        }
+        
+        // getSettings() is read-only; override on a copy
+        Map<String, String> config = new HashMap<>(configuration(settings).getSettings());
+        for (String event : SENSITIVE_EVENTS) {
+            config.put(event + "#enabled", "false");
+        }
+        Recording recording = new Recording(config);
+        try {
+            recording.setName("rolemark-on-demand");
+            recording.setToDisk(true);
+            recording.setDuration(duration);
+            recording.start();
+        } catch (RuntimeException e) {
+            recording.close();
+            throw e;
+        }
+        latest = new OnDemandRecording(ids.incrementAndGet(), recording, System.nanoTime() + duration.toNanos());
+        logger.info("Started {}s JFR recording {} with {} settings", duration.toSeconds(), latest.id, settings);
+        return latest.status();
+    }
+    
+    /**
+     * Writes the recording to a file once it has finished and forgets it; empty while it is
+     * still running. The caller owns the file and must delete it.
+     */
+    public synchronized Optional<Path> collect(long id) throws IOException {
+        OnDemandRecording recording = find(id);
+        if (recording.isRunning()) {
+            return Optional.empty();
+        }
+        Path file = Files.createTempFile("rolemark-", ".jfr");
+        try {
+            recording.recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        recording.discard();
+        latest = null;
+        return Optional.of(file);
+    }
+    
+    public synchronized RecordingStatus status(long id) {
+        return find(id).status();
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (latest != null) {
+            latest.discard();
+            latest = null;
+        }
+    }
+    
+    private OnDemandRecording find(long id) {
+        if (latest == null || latest.id != id) {
+            throw new NotFoundException("Recording not found");
+        }
+        return latest;
+    }
+    
+    private static Configuration configuration(String settings) throws IOException {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (ParseException e) {
+            throw new IOException("Unreadable JFR settings " + settings, e);
+        }
+    }
+    
+    private static final class OnDemandRecording {
+        private final long id;
+        private final Recording recording;
+        private final long endsAtNanos;
+        
+        OnDemandRecording(long id, Recording recording, long endsAtNanos) {
+            this.id = id;
+            this.recording = recording;
+            this.endsAtNanos = endsAtNanos;
+        }
+        
+        boolean isRunning() {
+            RecordingState state = recording.getState();
+            return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+        }
+        
+        Duration remaining() {
+            return Duration.ofNanos(Math.max(0, endsAtNanos - System.nanoTime()));
+        }
+        
+        RecordingStatus status() {
+            return new RecordingStatus(id, isRunning(), remaining());
+        }
+        
+        void discard() {
+            recording.close();
+        }
+    }
+    
+    /** Where a recording stands; {@code remaining} is zero once it has finished. */
+    public static class RecordingStatus {
+        private final long id;
+        private final boolean running;
+        private final Duration remaining;
+        
+        RecordingStatus(long id, boolean running, Duration remaining) {
+            this.id = id;
+            this.running = running;
+            this.remaining = running ? remaining : Duration.ZERO;
+        }
+        
+        public long getId() {
+            return id;
+        }
+        
+        public boolean isRunning() {
+            return running;
+        }
+        
+        public Duration getRemaining() {
+            return remaining;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.rolemark.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository {@link Stream} as a JSON array, element by element, instead of
+ * collecting it into a list and serializing that in one go.
+ */
+@Component
+public class JsonArrayStreamer {
+    
+    // Push the first element out promptly, then flush and clear in batches
+    private static final int FLUSH_EVERY = 64;
+    
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    public JsonArrayStreamer(ObjectMapper objectMapper, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * The stream is opened when the response body is written, inside a read-only
+     * transaction that stays open until the last element is out. The persistence
+     * context is cleared after every batch so it does not grow with the result.
+     */
+    public <T> StreamingResponseBody stream(Supplier<Stream<T>> source, Function<T, ?> view) {
+        return out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.writeStartArray();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<T> elements = source.get()) {
+                    int written = 0;
+                    Iterator<T> iterator = elements.iterator();
+                    while (iterator.hasNext()) {
+                        T element = iterator.next();
+                        generator.writeObject(view.apply(element));
+                        if (++written % FLUSH_EVERY == 1) {
+                            generator.flush();
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.flush();
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkExecutors;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claim loops over a leased work queue on this instance, shared by the evaluation and
+ * ingestion workers. A fixed number of loops claim and process work, and a heartbeat
+ * renews the leases of everything they hold. If this instance dies, the leases run out
+ * and another instance picks the work up.
+ *
+ * @param <W> a claimed unit of work
+ */
+public abstract class LeaseWorker<W> {
+    
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    
+    private final WorkExecutors workExecutors;
+    private final String name;
+    private final int workers;
+    private final long pollIntervalMillis;
+    private final String owner;
+    private final Set<UUID> heldLeases = ConcurrentHashMap.newKeySet();
+    private ExecutorService workerExecutor;
+    private ScheduledExecutorService heartbeatExecutor;
+    private volatile boolean running;
+    
+    /**
+     * @param name names the threads ({@code name-worker-0, ...}) and the log lines of this worker
+     */
+    protected LeaseWorker(WorkExecutors workExecutors, String name, int workers, Duration pollInterval) {
+        this.workExecutors = workExecutors;
+        this.name = name;
+        this.workers = workers;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.owner = hostName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+    
+    /** Claims the next unit of work for {@code owner}, if there is one. */
+    protected abstract Optional<W> claim(String owner);
+    
+    /** Waits up to {@code timeoutMillis} for new work to be queued. */
+    protected abstract void awaitWork(long timeoutMillis) throws InterruptedException;
+    
+    /** Does the work and records its outcome; called while its lease is being renewed. */
+    protected abstract void process(W work);
+    
+    protected abstract UUID leaseToken(W work);
+    
+    protected abstract Duration lease();
+    
+    protected abstract void renewLeases(List<UUID> leaseTokens);
+    
+    /** Starts once the application is up, so no work is claimed by a half-started instance. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (workers < 1) {
+            logger.info("{} workers disabled on this instance", name);
+            return;
+        }
+        running = true;
+        // Loops mostly wait on the database; CPU-bound work is capped by the CPU pool
+        workerExecutor = Executors.newFixedThreadPool(workers, workExecutors.loopThreads(name + "-worker"));
+        for (int i = 0; i < workers; i++) {
+            workerExecutor.execute(this::workLoop);
+        }
+        // Renew well before expiry so one slow round trip does not cost a lease
+        long heartbeatMillis = Math.max(lease().toMillis() / 3, 1_000);
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(workExecutors.loopThreads(name + "-lease-heartbeat"));
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        logger.info("Started {} {} workers as {}", workers, name, owner);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        running = false;
+        // Work cut off here is picked up again once its lease expires
+        if (workerExecutor != null) {
+            workerExecutor.shutdownNow();
+        }
+        if (heartbeatExecutor != null) {
+            heartbeatExecutor.shutdownNow();
+        }
+    }
+    
+    private void workLoop() {
+        while (running) {
+            try {
+                Optional<W> work = claim(owner);
+                if (work.isPresent()) {
+                    processHeld(work.get());
+                } else {
+                    awaitWork(pollIntervalMillis);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // Usually the database is unreachable; back off instead of spinning
+                logger.warn("{} worker error: {}", name, e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    private void processHeld(W work) {
+        UUID leaseToken = leaseToken(work);
+        heldLeases.add(leaseToken);
+        try {
+            process(work);
+        } finally {
+            heldLeases.remove(leaseToken);
+        }
+    }
+    
+    private void heartbeat() {
+        try {
+            renewLeases(List.copyOf(heldLeases));
+        } catch (RuntimeException e) {
+            logger.warn("Could not renew {} leases: {}", name, e.getMessage());
+        }
+    }
+    
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
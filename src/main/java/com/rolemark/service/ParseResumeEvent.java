@@ -0,0 +1,27 @@
+package com.rolemark.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event around {@link ResumeParserService#parseResume(java.util.List)}, the regex
+ * pass over a resume's page text.
+ */
+@Name("com.rolemark.ParseResume")
+@Label("Parse Resume")
+@Category({"RoleMark", "Ingestion"})
+@Description("Signal extraction from the page text of one resume")
+class ParseResumeEvent extends Event {
+    
+    @Label("Pages")
+    int pages;
+    
+    @Label("Characters")
+    long characters;
+    
+    @Label("Signals")
+    int signals;
+}
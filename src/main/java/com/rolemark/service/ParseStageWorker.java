@@ -0,0 +1,76 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkExecutors;
+import com.rolemark.entity.ExtractedSignal;
+import com.rolemark.entity.IngestionOutboxEvent;
+import com.rolemark.entity.Resume;
+import com.rolemark.repository.ExtractedSignalRepository;
+import com.rolemark.repository.ResumeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * PARSE: extracts signals (skills, experience, education) from the stored text, or takes
+ * them from the extraction cache.
+ */
+@Component
+public class ParseStageWorker extends IngestionStageWorker {
+    
+    private final ResumeRepository resumeRepository;
+    private final ResumeTextService resumeTextService;
+    private final ResumeParserService resumeParserService;
+    private final ExtractionCacheService extractionCacheService;
+    private final ExtractedSignalRepository extractedSignalRepository;
+    
+    public ParseStageWorker(IngestionOutboxService outboxService,
+                            WorkExecutors workExecutors,
+                            ResumeRepository resumeRepository,
+                            ResumeTextService resumeTextService,
+                            ResumeParserService resumeParserService,
+                            ExtractionCacheService extractionCacheService,
+                            ExtractedSignalRepository extractedSignalRepository,
+                            @Value("${rolemark.ingestion.parse.workers:2}") int workers,
+                            @Value("${rolemark.ingestion.parse.max-attempts:3}") int maxAttempts,
+                            @Value("${rolemark.ingestion.parse.retry-backoff:5s}") Duration retryBackoff,
+                            @Value("${rolemark.ingestion.poll-interval:1s}") Duration pollInterval) {
+        super(outboxService, workExecutors, IngestionOutboxEvent.Stage.PARSE, workers, maxAttempts, retryBackoff, pollInterval);
+        this.resumeRepository = resumeRepository;
+        this.resumeTextService = resumeTextService;
+        this.resumeParserService = resumeParserService;
+        this.extractionCacheService = extractionCacheService;
+        this.extractedSignalRepository = extractedSignalRepository;
+    }
+    
+    @Override
+    protected Supplier<IngestionOutboxEvent.Stage> prepare(Long resumeId) throws Exception {
+        Resume resume = resumeRepository.findById(resumeId)
+                .orElseThrow(() -> new IllegalStateException("Resume " + resumeId + " no longer exists"));
+        
+        // EXTRACT already counted this upload's cache lookup
+        Optional<List<ExtractedSignal>> cached = extractionCacheService.cachedSignals(resume.getChecksumSha256());
+        List<ExtractedSignal> signals;
+        if (cached.isPresent()) {
+            signals = cached.get();
+        } else {
+            List<String> pages = resumeTextService.loadPages(resumeId);
+            signals = pages != null
+                    ? onCpu(() -> resumeParserService.parseResume(pages))
+                    : onCpu(() -> resumeParserService.parseUnpaged(resumeTextService.load(resumeId)));
+        }
+        
+        return () -> {
+            // A restarted ingestion replaces the signals of the earlier attempt
+            extractedSignalRepository.deleteByResumeId(resumeId);
+            for (ExtractedSignal signal : signals) {
+                signal.setResumeId(resumeId);
+                extractedSignalRepository.save(signal);
+            }
+            return IngestionOutboxEvent.Stage.INDEX;
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.rolemark.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event around {@link PdfExtractionService#extractPages}, so a recording shows
+ * PDFBox time next to GC pauses and JDBC waits on the same thread.
+ */
+@Name("com.rolemark.PdfExtract")
+@Label("PDF Extract")
+@Category({"RoleMark", "Ingestion"})
+@Description("Text extraction of one uploaded PDF")
+class PdfExtractEvent extends Event {
+    
+    @Label("PDF Size")
+    @DataAmount
+    long bytes;
+    
+    @Label("Pages")
+    int pages;
+    
+    @Label("Characters")
+    long characters;
+    
+    @Label("Mode")
+    String mode;
+    
+    @Label("Outcome")
+    String outcome;
+}
@@ -1,12 +1,20 @@
 package com.rolemark.service;
 
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import com.rolemark.worker.PdfWorkerPool;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class PdfExtractionService {
@@ -14,43 +22,133 @@ public class PdfExtractionService {
     private static final int MAX_PAGES = 5;
     private static final long MAX_FILE_SIZE = 2_500_000; // 2.5 MB in bytes
     
-    public String extractText(MultipartFile file) throws IOException {
+    private final PdfPreflightService pdfPreflightService;
+    private final PdfWorkerPool workerPool;
+    private final ExecutorService pageExecutor;
+    private final int pageParallelism;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary pageCounts;
+    
+    public PdfExtractionService(PdfPreflightService pdfPreflightService,
+                                MeterRegistry meterRegistry,
+                                @Value("${rolemark.pdf.workers.enabled:false}") boolean workersEnabled,
+                                @Value("${rolemark.pdf.workers.pool-size:2}") int poolSize,
+                                @Value("${rolemark.pdf.workers.max-heap:256m}") String maxHeap,
+                                @Value("${rolemark.pdf.workers.deadline-ms:15000}") long deadlineMillis,
+                                @Value("${rolemark.pdf.workers.max-documents-per-worker:100}") int maxDocumentsPerWorker,
+                                @Value("${rolemark.pdf.page-parallelism:1}") int pageParallelism) {
+        this.pdfPreflightService = pdfPreflightService;
+        this.meterRegistry = meterRegistry;
+        this.pageCounts = DistributionSummary.builder("rolemark.ingestion.extract.pages")
+                .description("Pages of text extracted per PDF")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // PDFBox runs in child JVMs when enabled, so a hostile PDF can only take down its own worker
+        this.workerPool = workersEnabled
+                ? new PdfWorkerPool(poolSize, maxHeap, deadlineMillis, maxDocumentsPerWorker)
+                : null;
+        // Only used in-process; each worker is pinned to a single core
+        this.pageParallelism = pageParallelism;
+        this.pageExecutor = !workersEnabled && pageParallelism > 1
+                ? Executors.newFixedThreadPool(pageParallelism, runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-page-extractor");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void prestartWorkers() {
+        if (workerPool != null) {
+            workerPool.prestart();
+        }
+    }
+    
+    /**
+     * Returns the text of each page of an upload that passed {@link #validateUpload} and
+     * {@link #preflight}, in page order. Timed as {@code rolemark.ingestion.extract}, with
+     * outcome {@code rejected} for files the preflight turns away.
+     */
+    public List<String> extractPages(byte[] pdfBytes) throws IOException {
+        String mode = workerPool != null ? "worker" : "in-process";
+        PdfExtractEvent event = new PdfExtractEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        List<String> pages = null;
+        try {
+            preflight(pdfBytes);
+            pages = workerPool != null
+                    ? workerPool.extractPages(pdfBytes, MAX_PAGES)
+                    : PdfTextExtractor.extractPages(pdfBytes, MAX_PAGES, pageExecutor, pageParallelism);
+            outcome = "success";
+            pageCounts.record(pages.size());
+            return pages;
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("rolemark.ingestion.extract")
+                    .description("Time to extract the text of an uploaded PDF")
+                    .tag("mode", mode)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytes = pdfBytes.length;
+                event.pages = pages != null ? pages.size() : 0;
+                event.characters = pages != null ? pages.stream().mapToLong(String::length).sum() : 0;
+                event.mode = mode;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * Upload checks that do not depend on the PDF contents.
+     */
+    public void validateUpload(MultipartFile file) {
         // Validate file size
         if (file.getSize() > MAX_FILE_SIZE) {
             throw new IllegalArgumentException("File size exceeds 2.5 MB limit");
         }
         
         // Validate content type
-        if (!file.getContentType().equals("application/pdf")) {
+        if (!"application/pdf".equals(file.getContentType())) {
             throw new IllegalArgumentException("File must be a PDF");
         }
-        
-        // PDFBox 3.0.1 doesn't support Loader.loadPDF(InputStream)
-        // Using byte[] instead, which is the supported API
-        byte[] pdfBytes = file.getBytes();
-        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
-            
-            // Validate page count
-            int pageCount = document.getNumberOfPages();
-            if (pageCount > MAX_PAGES) {
-                throw new IllegalArgumentException("PDF exceeds 5 page limit. Found: " + pageCount);
-            }
-            
-            // Extract text
-            PDFTextStripper stripper = new PDFTextStripper();
-            stripper.setStartPage(1);
-            stripper.setEndPage(pageCount);
-            return stripper.getText(document);
-        }
+    }
+    
+    /**
+     * Rejects files that can never succeed before PDFBox builds a document. Cheap enough
+     * to run while the upload request is still open.
+     */
+    public void preflight(byte[] pdfBytes) {
+        pdfPreflightService.preflight(pdfBytes, MAX_PAGES);
     }
     
     public int getPageCount(MultipartFile file) throws IOException {
-        // PDFBox 3.0.1 doesn't support Loader.loadPDF(InputStream)
-        // Using byte[] instead, which is the supported API
         byte[] pdfBytes = file.getBytes();
-        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
-            return document.getNumberOfPages();
+        
+        // The page tree count is usually readable without a parse
+        Integer pageCount = pdfPreflightService.inspect(pdfBytes).getPageCount();
+        if (pageCount != null) {
+            return pageCount;
+        }
+        
+        return PdfTextExtractor.getPageCount(pdfBytes);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (workerPool != null) {
+            workerPool.close();
+        }
+        if (pageExecutor != null) {
+            pageExecutor.shutdownNow();
         }
     }
 }
-
@@ -0,0 +1,272 @@
+package com.rolemark.service;
+
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Cheap structural checks on raw PDF bytes, run before PDFBox parses anything.
+ *
+ * The scan reads the header, the trailer/xref dictionaries and the page-tree
+ * /Count entries (including those packed in Flate-compressed object streams),
+ * plus a font-presence probe. Files that can never be extracted are rejected
+ * here; anything the scan cannot decide is left for PDFBox.
+ */
+@Service
+public class PdfPreflightService {
+    
+    private static final int HEADER_WINDOW = 1024;
+    private static final long MAX_INFLATED_BYTES = 8_000_000;
+    
+    private static final Pattern PAGES_TYPE = Pattern.compile("/Type\\s*/Pages(?![A-Za-z0-9])");
+    private static final Pattern COUNT = Pattern.compile("/Count\\s+(\\d{1,9})");
+    private static final Pattern PARENT = Pattern.compile("/Parent(?![A-Za-z0-9])");
+    private static final Pattern OBJSTM_TYPE = Pattern.compile("/Type\\s*/ObjStm(?![A-Za-z0-9])");
+    private static final Pattern FLATE_FILTER = Pattern.compile("/Filter\\s*(\\[\\s*)?/FlateDecode\\s*(\\])?");
+    private static final Pattern ANY_FILTER = Pattern.compile("/Filter(?![A-Za-z0-9])");
+    private static final Pattern DIRECT_LENGTH = Pattern.compile("/Length\\s+(\\d+)(?!\\s+\\d+\\s+R)");
+    private static final Pattern FONT_KEY = Pattern.compile("/Font(?![A-Za-z0-9])");
+    private static final Pattern ENCRYPT_KEY = Pattern.compile("/Encrypt(?![A-Za-z0-9])");
+    
+    /**
+     * Rejects PDFs that cannot succeed and returns what the scan learned.
+     *
+     * Encryption alone is not a rejection: owner-password-only files open without a
+     * password, so whether a user password is required is left to the loader.
+     *
+     * @throws IllegalArgumentException if the file is not a PDF, has more than
+     *         {@code maxPages} pages or has no text layer
+     */
+    public PreflightResult preflight(byte[] pdfBytes, int maxPages) {
+        PreflightResult result = inspect(pdfBytes);
+        
+        if (!result.isPdf()) {
+            throw new IllegalArgumentException("File is not a valid PDF");
+        }
+        if (result.getPageCount() != null && result.getPageCount() > maxPages) {
+            throw new IllegalArgumentException("PDF exceeds " + maxPages + " page limit. Found: " + result.getPageCount());
+        }
+        if (Boolean.FALSE.equals(result.getHasText())) {
+            throw new IllegalArgumentException("PDF contains no extractable text (scanned or image-only documents are not supported)");
+        }
+        return result;
+    }
+    
+    public PreflightResult inspect(byte[] pdfBytes) {
+        // ISO-8859-1 maps every byte to one char, so offsets line up with the raw file
+        String raw = new String(pdfBytes, StandardCharsets.ISO_8859_1);
+        
+        int headerEnd = Math.min(raw.length(), HEADER_WINDOW);
+        if (!raw.substring(0, headerEnd).contains("%PDF-")) {
+            return new PreflightResult(false, false, null, null);
+        }
+        
+        // Names and dictionaries are never encrypted, only strings and stream data
+        boolean encrypted = ENCRYPT_KEY.matcher(raw).find();
+        
+        // Gather every region that can hold dictionaries: the file itself plus decoded object streams
+        List<Region> regions = new ArrayList<>();
+        regions.add(new Region(0, raw));
+        boolean complete = inflateObjectStreams(raw, regions);
+        
+        // An undecodable object stream may hide a newer page tree or the only font,
+        // so only a complete scan may report a page count or the absence of text
+        Integer pageCount = complete ? findRootPageCount(regions) : null;
+        boolean fontSeen = regions.stream().anyMatch(r -> FONT_KEY.matcher(r.text).find());
+        Boolean hasText = fontSeen ? Boolean.TRUE : (complete ? Boolean.FALSE : null);
+        
+        return new PreflightResult(true, encrypted, pageCount, hasText);
+    }
+    
+    /**
+     * The root /Pages node is the one without a /Parent. With incremental updates the
+     * latest definition wins, and later revisions are appended later in the file.
+     */
+    private Integer findRootPageCount(List<Region> regions) {
+        int bestPosition = -1;
+        Integer bestCount = null;
+        
+        for (Region region : regions) {
+            Matcher matcher = PAGES_TYPE.matcher(region.text);
+            while (matcher.find()) {
+                String dict = enclosingDictionary(region.text, matcher.start());
+                if (dict == null || PARENT.matcher(dict).find()) {
+                    continue;
+                }
+                // Objects inside an object stream sit at the stream's offset in the file
+                int position = region.position == 0 ? matcher.start() : region.position;
+                Matcher count = COUNT.matcher(dict);
+                if (count.find() && position >= bestPosition) {
+                    bestPosition = position;
+                    bestCount = Integer.parseInt(count.group(1));
+                }
+            }
+        }
+        return bestCount;
+    }
+    
+    private boolean inflateObjectStreams(String raw, List<Region> regions) {
+        boolean complete = true;
+        long budget = MAX_INFLATED_BYTES;
+        
+        Matcher matcher = OBJSTM_TYPE.matcher(raw);
+        while (matcher.find()) {
+            int objStart = raw.lastIndexOf("obj", matcher.start());
+            int streamKeyword = raw.indexOf("stream", matcher.end());
+            if (objStart < 0 || streamKeyword < 0) {
+                complete = false;
+                continue;
+            }
+            String dict = raw.substring(objStart, streamKeyword);
+            
+            int dataStart = streamKeyword + "stream".length();
+            if (dataStart < raw.length() && raw.charAt(dataStart) == '\r') {
+                dataStart++;
+            }
+            if (dataStart < raw.length() && raw.charAt(dataStart) == '\n') {
+                dataStart++;
+            }
+            int dataEnd = -1;
+            Matcher length = DIRECT_LENGTH.matcher(dict);
+            if (length.find()) {
+                long declared = Long.parseLong(length.group(1));
+                if (dataStart + declared <= raw.length()) {
+                    dataEnd = (int) (dataStart + declared);
+                }
+            }
+            if (dataEnd < 0) {
+                dataEnd = raw.indexOf("endstream", dataStart);
+            }
+            if (dataEnd < 0) {
+                complete = false;
+                continue;
+            }
+            
+            byte[] data = raw.substring(dataStart, dataEnd).getBytes(StandardCharsets.ISO_8859_1);
+            byte[] decoded;
+            if (FLATE_FILTER.matcher(dict).find() && !dict.contains("/DecodeParms")) {
+                decoded = inflate(data, budget);
+            } else if (!ANY_FILTER.matcher(dict).find()) {
+                decoded = data;
+            } else {
+                decoded = null;
+            }
+            if (decoded == null) {
+                complete = false;
+                continue;
+            }
+            budget -= decoded.length;
+            regions.add(new Region(matcher.start(), new String(decoded, StandardCharsets.ISO_8859_1)));
+        }
+        return complete;
+    }
+    
+    private byte[] inflate(byte[] data, long budget) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, n);
+                if (out.size() > budget) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private String enclosingDictionary(String text, int index) {
+        int depth = 0;
+        int start = -1;
+        for (int i = index - 1; i > 0; i--) {
+            if (text.charAt(i) == '>' && text.charAt(i - 1) == '>') {
+                depth++;
+                i--;
+            } else if (text.charAt(i) == '<' && text.charAt(i - 1) == '<') {
+                if (depth == 0) {
+                    start = i - 1;
+                    break;
+                }
+                depth--;
+                i--;
+            }
+        }
+        if (start < 0) {
+            return null;
+        }
+        
+        depth = 0;
+        for (int i = start; i < text.length() - 1; i++) {
+            if (text.charAt(i) == '<' && text.charAt(i + 1) == '<') {
+                depth++;
+                i++;
+            } else if (text.charAt(i) == '>' && text.charAt(i + 1) == '>') {
+                depth--;
+                i++;
+                if (depth == 0) {
+                    return text.substring(start, i + 1);
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static class Region {
+        final int position;
+        final String text;
+        
+        Region(int position, String text) {
+            this.position = position;
+            this.text = text;
+        }
+    }
+    
+    public static class PreflightResult {
+        private final boolean pdf;
+        private final boolean encrypted;
+        private final Integer pageCount;
+        private final Boolean hasText;
+        
+        public PreflightResult(boolean pdf, boolean encrypted, Integer pageCount, Boolean hasText) {
+            this.pdf = pdf;
+            this.encrypted = encrypted;
+            this.pageCount = pageCount;
+            this.hasText = hasText;
+        }
+        
+        public boolean isPdf() {
+            return pdf;
+        }
+        
+        public boolean isEncrypted() {
+            return encrypted;
+        }
+        
+        /** Page count from the page tree, or null if the scan could not determine it. */
+        public Integer getPageCount() {
+            return pageCount;
+        }
+        
+        /** Whether any font resource exists, or null if the scan was inconclusive. */
+        public Boolean getHasText() {
+            return hasText;
+        }
+    }
+}
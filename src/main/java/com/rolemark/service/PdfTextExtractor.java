@@ -0,0 +1,122 @@
+package com.rolemark.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * PDFBox text extraction with no Spring dependencies, so the same code runs
+ * in the application JVM and inside isolated extraction worker processes.
+ */
+public class PdfTextExtractor {
+    
+    /** Separates pages in stored resume text. */
+    public static final String PAGE_SEPARATOR = "\f";
+    
+    /**
+     * Extracts the text of every page, in page order.
+     *
+     * With an executor and more than one thread, pages are split into contiguous
+     * ranges and each range is stripped from its own document instance, since a
+     * PDDocument must not be shared between threads.
+     */
+    public static List<String> extractPages(byte[] pdfBytes, int maxPages, ExecutorService executor, int parallelism) throws IOException {
+        // PDFBox 3.0.1 doesn't support Loader.loadPDF(InputStream)
+        // Using byte[] instead, which is the supported API
+        try (PDDocument document = loadDocument(pdfBytes)) {
+            
+            // Validate page count (authoritative when the preflight scan was inconclusive)
+            int pageCount = document.getNumberOfPages();
+            if (pageCount > maxPages) {
+                throw new IllegalArgumentException("PDF exceeds " + maxPages + " page limit. Found: " + pageCount);
+            }
+            
+            int rangeCount = executor == null ? 1 : Math.min(parallelism, pageCount);
+            if (rangeCount <= 1) {
+                return stripPages(document, 1, pageCount);
+            }
+            
+            // This thread keeps the first range on the already-loaded document
+            int rangeSize = (pageCount + rangeCount - 1) / rangeCount;
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int start = 1 + rangeSize; start <= pageCount; start += rangeSize) {
+                int first = start;
+                int last = Math.min(pageCount, start + rangeSize - 1);
+                futures.add(executor.submit(() -> {
+                    try (PDDocument copy = loadDocument(pdfBytes)) {
+                        return stripPages(copy, first, last);
+                    }
+                }));
+            }
+            
+            List<String> pages = new ArrayList<>(stripPages(document, 1, Math.min(pageCount, rangeSize)));
+            for (Future<List<String>> future : futures) {
+                pages.addAll(await(future));
+            }
+            return pages;
+        }
+    }
+    
+    public static int getPageCount(byte[] pdfBytes) throws IOException {
+        try (PDDocument document = loadDocument(pdfBytes)) {
+            return document.getNumberOfPages();
+        }
+    }
+    
+    public static String joinPages(List<String> pages) {
+        return String.join(PAGE_SEPARATOR, pages);
+    }
+    
+    public static List<String> splitPages(String text) {
+        if (text == null) {
+            return List.of("");
+        }
+        return Arrays.asList(text.split(PAGE_SEPARATOR, -1));
+    }
+    
+    private static List<String> stripPages(PDDocument document, int firstPage, int lastPage) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        List<String> pages = new ArrayList<>(lastPage - firstPage + 1);
+        for (int page = firstPage; page <= lastPage; page++) {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            // Strip the separator so it stays unambiguous in stored text
+            pages.add(stripper.getText(document).replace(PAGE_SEPARATOR, " "));
+        }
+        return pages;
+    }
+    
+    private static List<String> await(Future<List<String>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting PDF pages", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("PDF page extraction failed", e.getCause());
+        }
+    }
+    
+    private static PDDocument loadDocument(byte[] pdfBytes) throws IOException {
+        try {
+            return Loader.loadPDF(pdfBytes);
+        } catch (InvalidPasswordException e) {
+            throw new IllegalArgumentException("Password-protected PDFs are not supported");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkExecutors;
+import com.rolemark.entity.Criterion;
+import com.rolemark.entity.IngestionOutboxEvent;
+import com.rolemark.entity.Resume;
+import com.rolemark.repository.ResumeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * PRE_SCORE: scores a resume against the current rubric of the role it was uploaded for,
+ * so recruiters can triage before running an evaluation. Roles whose weights do not yet
+ * sum to 100 leave the pre-score empty.
+ */
+@Component
+public class PreScoreStageWorker extends IngestionStageWorker {
+    
+    private final ResumeRepository resumeRepository;
+    private final RoleAggregateCache roleCache;
+    private final ResumeTextService resumeTextService;
+    private final ScoringService scoringService;
+    
+    public PreScoreStageWorker(IngestionOutboxService outboxService,
+                               WorkExecutors workExecutors,
+                               ResumeRepository resumeRepository,
+                               RoleAggregateCache roleCache,
+                               ResumeTextService resumeTextService,
+                               ScoringService scoringService,
+                               @Value("${rolemark.ingestion.pre-score.workers:1}") int workers,
+                               @Value("${rolemark.ingestion.pre-score.max-attempts:3}") int maxAttempts,
+                               @Value("${rolemark.ingestion.pre-score.retry-backoff:30s}") Duration retryBackoff,
+                               @Value("${rolemark.ingestion.poll-interval:1s}") Duration pollInterval) {
+        super(outboxService, workExecutors, IngestionOutboxEvent.Stage.PRE_SCORE, workers, maxAttempts, retryBackoff, pollInterval);
+        this.resumeRepository = resumeRepository;
+        this.roleCache = roleCache;
+        this.resumeTextService = resumeTextService;
+        this.scoringService = scoringService;
+    }
+    
+    @Override
+    protected Supplier<IngestionOutboxEvent.Stage> prepare(Long resumeId) throws Exception {
+        Resume resume = resumeRepository.findById(resumeId)
+                .orElseThrow(() -> new IllegalStateException("Resume " + resumeId + " no longer exists"));
+        Long roleId = resume.getRoleId();
+        Optional<RoleAggregate> role = roleId == null
+                ? Optional.empty()
+                : roleCache.find(roleId).filter(r -> r.isOwnedBy(resume.getUserId()));
+        
+        BigDecimal preScore = null;
+        if (role.isPresent() && role.get().getWeightSum() == 100) {
+            String text = resumeTextService.load(resumeId);
+            List<Criterion> criteria = role.get().criteriaAsEntities();
+            Map<String, Object> breakdown = onCpu(() -> scoringService.scoreResume(resume, criteria, text));
+            preScore = BigDecimal.valueOf((Double) breakdown.get("totalScorePct")).setScale(1, RoundingMode.HALF_UP);
+        }
+        BigDecimal score = preScore;
+        
+        return () -> {
+            Resume current = resumeRepository.findById(resumeId)
+                    .orElseThrow(() -> new IllegalStateException("Resume " + resumeId + " no longer exists"));
+            if (!Objects.equals(current.getRoleId(), roleId)) {
+                // Linked to another role while scoring; score against that one instead
+                return IngestionOutboxEvent.Stage.PRE_SCORE;
+            }
+            current.setPreScorePct(score);
+            resumeRepository.save(current);
+            return null;
+        };
+    }
+}
@@ -0,0 +1,253 @@
+package com.rolemark.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rolemark.entity.Evaluation;
+import com.rolemark.entity.RubricVersion;
+import com.rolemark.repository.EvaluationRepository;
+import com.rolemark.repository.RubricVersionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streams an evaluation's results straight from a forward-only cursor over
+ * score_breakdowns, one output row per fetched row, so memory use does not grow
+ * with the number of candidates.
+ */
+@Service
+public class ResultExportService {
+    
+    private static final String RESULTS_SQL =
+            "SELECT sb.resume_id, r.filename, sb.total_score, sb.total_score_pct, sb.breakdown_json " +
+            "FROM score_breakdowns sb JOIN resumes r ON r.id = sb.resume_id " +
+            "WHERE sb.evaluation_id = ? AND sb.run_number = ? " +
+            "ORDER BY sb.total_score DESC, sb.resume_id";
+    
+    private final EvaluationRepository evaluationRepository;
+    private final RubricVersionRepository rubricVersionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    
+    public ResultExportService(EvaluationRepository evaluationRepository,
+                               RubricVersionRepository rubricVersionRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               @Value("${rolemark.export.fetch-size:500}") int fetchSize) {
+        this.evaluationRepository = evaluationRepository;
+        this.rubricVersionRepository = rubricVersionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+    
+    /**
+     * Checks ownership and resolves the criterion columns up front, so those failures
+     * still produce an error response. The returned body runs later, on the async
+     * request thread, once headers are committed.
+     */
+    public StreamingResponseBody export(UUID userId, Long evaluationId, Format format) {
+        Evaluation evaluation = evaluationRepository.findByIdAndUserId(evaluationId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Evaluation not found"));
+        // The last completed run; a run still in progress is not exported
+        Integer runNumber = evaluation.getResultsRunNumber();
+        List<CriterionColumn> columns = runNumber != null ? criterionColumns(evaluationId, runNumber) : List.of();
+        
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (format == Format.CSV) {
+                writeCsvHeader(writer, columns);
+            }
+            if (runNumber == null) {
+                writer.flush();
+                return;
+            }
+            // The PostgreSQL driver only honours the fetch size inside a transaction
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(RESULTS_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, evaluationId);
+                statement.setInt(2, runNumber);
+                return statement;
+            }, new ExportRowHandler(writer, format, columns)));
+            writer.flush();
+        };
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<CriterionColumn> criterionColumns(Long evaluationId, Integer runNumber) {
+        List<CriterionColumn> columns = new ArrayList<>();
+        rubricVersionRepository.findByEvaluationRun(evaluationId, runNumber)
+                .map(RubricVersion::getCriteriaJson)
+                .map(json -> (List<Map<String, Object>>) json.get("criteria"))
+                .ifPresent(criteria -> criteria.forEach(c -> columns.add(new CriterionColumn(
+                        ((Number) c.get("id")).longValue(), (String) c.get("name")))));
+        return columns;
+    }
+    
+    private void writeCsvHeader(Writer writer, List<CriterionColumn> columns) throws IOException {
+        List<String> header = new ArrayList<>(List.of("rank", "resume_id", "filename", "total_score", "total_score_pct"));
+        columns.forEach(column -> header.add(column.name));
+        writeCsvLine(writer, header);
+    }
+    
+    private static void writeCsvLine(Writer writer, List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(fields.get(i)));
+        }
+        writer.write("\r\n");
+    }
+    
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Keep spreadsheet apps from evaluating user-supplied text such as filenames as formulas
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+    
+    private class ExportRowHandler implements RowCallbackHandler {
+        private final Writer writer;
+        private final Format format;
+        private final List<CriterionColumn> columns;
+        private int rank;
+        
+        ExportRowHandler(Writer writer, Format format, List<CriterionColumn> columns) {
+            this.writer = writer;
+            this.format = format;
+            this.columns = columns;
+        }
+        
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            rank++;
+            long resumeId = rs.getLong("resume_id");
+            String filename = rs.getString("filename");
+            String totalScore = rs.getBigDecimal("total_score").toPlainString();
+            String totalScorePct = rs.getBigDecimal("total_score_pct").toPlainString();
+            Map<Long, JsonNode> scores = criterionScores(rs.getString("breakdown_json"));
+            
+            try {
+                if (format == Format.CSV) {
+                    List<String> fields = new ArrayList<>(List.of(
+                            String.valueOf(rank), String.valueOf(resumeId), filename, totalScore, totalScorePct));
+                    for (CriterionColumn column : columns) {
+                        JsonNode score = scores.get(column.id);
+                        fields.add(score != null ? score.path("score").asText() : "");
+                    }
+                    writeCsvLine(writer, fields);
+                } else {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("rank", rank);
+                    row.put("resumeId", resumeId);
+                    row.put("filename", filename);
+                    row.put("totalScore", rs.getBigDecimal("total_score"));
+                    row.put("totalScorePct", rs.getBigDecimal("total_score_pct"));
+                    List<Map<String, Object>> criterionScores = new ArrayList<>();
+                    for (CriterionColumn column : columns) {
+                        JsonNode score = scores.get(column.id);
+                        Map<String, Object> entry = new LinkedHashMap<>();
+                        entry.put("criterionId", column.id);
+                        entry.put("criterionName", column.name);
+                        entry.put("score", score != null ? score.path("score").numberValue() : null);
+                        criterionScores.add(entry);
+                    }
+                    row.put("criterionScores", criterionScores);
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            } catch (IOException e) {
+                // Usually the client went away; abandoning the cursor ends the query
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private Map<Long, JsonNode> criterionScores(String breakdownJson) {
+            Map<Long, JsonNode> scores = new HashMap<>();
+            try {
+                for (JsonNode score : objectMapper.readTree(breakdownJson).path("criterionScores")) {
+                    scores.put(score.path("criterionId").asLong(), score);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return scores;
+        }
+    }
+    
+    private static class CriterionColumn {
+        final long id;
+        final String name;
+        
+        CriterionColumn(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+    
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+        
+        private final MediaType mediaType;
+        private final String extension;
+        
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+        
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value + " (use ndjson or csv)");
+        }
+        
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.rolemark.service;
 
 import com.rolemark.entity.ExtractedSignal;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -14,6 +18,12 @@ import java.util.stream.Collectors;
 @Service
 public class ResumeParserService {
     
+    /**
+     * Version of the extraction and parsing output. Bump it whenever page text or
+     * signals would come out differently, so cached extractions are not reused.
+     */
+    public static final int PARSER_VERSION = 1;
+    
     private static final int SNIPPET_CONTEXT = 40;
     
     // Date patterns
@@ -39,18 +49,57 @@ public class ResumeParserService {
             Pattern.compile("\\b(High School|HS|H\\.S\\.)\\b", Pattern.CASE_INSENSITIVE)
     );
     
-    public List<ExtractedSignal> parseResume(String text) {
+    private final Timer parseTimer;
+    private final DistributionSummary signalCounts;
+    
+    public ResumeParserService(MeterRegistry meterRegistry) {
+        this.parseTimer = Timer.builder("rolemark.ingestion.parse")
+                .description("Time to parse signals out of a resume's page text")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.signalCounts = DistributionSummary.builder("rolemark.ingestion.parse.signals")
+                .description("Signals found per parsed resume")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Parses a text whose page boundaries are unknown (stored before pages were kept).
+     * Its signals carry no source page rather than all claiming page 1.
+     */
+    public List<ExtractedSignal> parseUnpaged(String text) {
+        List<ExtractedSignal> signals = parseResume(List.of(text));
+        for (ExtractedSignal signal : signals) {
+            signal.setSourcePage(null);
+        }
+        return signals;
+    }
+    
+    /**
+     * Parses each page separately so every signal records the page its evidence came from.
+     * Experience is still estimated across the whole resume.
+     */
+    public List<ExtractedSignal> parseResume(List<String> pages) {
+        ParseResumeEvent event = new ParseResumeEvent();
+        event.begin();
+        long start = System.nanoTime();
         List<ExtractedSignal> signals = new ArrayList<>();
         
-        // Normalize text for keyword matching
-        String normalizedText = normalizeText(text);
-        
         // Extract date ranges for experience
-        signals.addAll(extractDateRanges(text, normalizedText));
+        signals.addAll(extractDateRanges(pages));
         
         // Extract education level
-        signals.addAll(extractEducationLevel(text, normalizedText));
+        signals.addAll(extractEducationLevel(pages));
         
+        parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        signalCounts.record(signals.size());
+        event.end();
+        if (event.shouldCommit()) {
+            event.pages = pages.size();
+            event.characters = pages.stream().mapToLong(String::length).sum();
+            event.signals = signals.size();
+            event.commit();
+        }
         return signals;
     }
     
@@ -93,10 +142,53 @@ public class ResumeParserService {
         return signals;
     }
     
-    private List<ExtractedSignal> extractDateRanges(String originalText, String normalizedText) {
+    private List<ExtractedSignal> extractDateRanges(List<String> pages) {
         List<ExtractedSignal> signals = new ArrayList<>();
         List<DateRange> dateRanges = new ArrayList<>();
+        for (int i = 0; i < pages.size(); i++) {
+            collectDateRanges(pages.get(i), i + 1, dateRanges);
+        }
+        
+        // Merge overlapping ranges and calculate total months
+        if (!dateRanges.isEmpty()) {
+            List<DateRange> merged = mergeDateRanges(dateRanges);
+            long totalMonths = calculateTotalMonths(merged);
+            double years = totalMonths / 12.0;
+            
+            ExtractedSignal signal = new ExtractedSignal();
+            signal.setType("EXPERIENCE_YEARS_ESTIMATE");
+            signal.setValue(String.valueOf(years));
+            signal.setConfidence(merged.size() > 0 ? ExtractedSignal.Confidence.MEDIUM : ExtractedSignal.Confidence.LOW);
+            if (!merged.isEmpty()) {
+                signal.setEvidenceSnippet(merged.get(0).snippet);
+                signal.setSourcePage(merged.get(0).page);
+            }
+            signals.add(signal);
+            
+            // Store individual date ranges as signals
+            for (DateRange range : merged) {
+                ExtractedSignal rangeSignal = new ExtractedSignal();
+                rangeSignal.setType("DATE_RANGE");
+                rangeSignal.setValue(range.startDate + " to " + range.endDate);
+                rangeSignal.setEvidenceSnippet(range.snippet);
+                rangeSignal.setSourcePage(range.page);
+                rangeSignal.setConfidence(ExtractedSignal.Confidence.HIGH);
+                signals.add(rangeSignal);
+            }
+        } else {
+            // No date ranges found
+            ExtractedSignal signal = new ExtractedSignal();
+            signal.setType("EXPERIENCE_YEARS_ESTIMATE");
+            signal.setValue("0");
+            signal.setConfidence(ExtractedSignal.Confidence.LOW);
+            signal.setEvidenceSnippet("No date ranges detected in resume");
+            signals.add(signal);
+        }
         
+        return signals;
+    }
+    
+    private void collectDateRanges(String originalText, int pageNumber, List<DateRange> dateRanges) {
         // Try pattern 1: "MMM YYYY - MMM YYYY" or "MMM YYYY - Present"
         Matcher matcher1 = DATE_PATTERN_1.matcher(originalText);
         while (matcher1.find()) {
@@ -122,7 +214,7 @@ public class ResumeParserService {
                 
                 if (startDate != null && endDate != null) {
                     String snippet = extractSnippet(originalText, matcher1.start(), matcher1.end() - matcher1.start());
-                    dateRanges.add(new DateRange(startDate, endDate, snippet));
+                    dateRanges.add(new DateRange(startDate, endDate, snippet, pageNumber));
                 }
             } catch (Exception e) {
                 // Skip invalid date ranges
@@ -154,7 +246,7 @@ public class ResumeParserService {
                 
                 if (startDate != null && endDate != null) {
                     String snippet = extractSnippet(originalText, matcher2.start(), matcher2.end() - matcher2.start());
-                    dateRanges.add(new DateRange(startDate, endDate, snippet));
+                    dateRanges.add(new DateRange(startDate, endDate, snippet, pageNumber));
                 }
             } catch (Exception e) {
                 // Skip invalid date ranges
@@ -181,65 +273,33 @@ public class ResumeParserService {
                 
                 if (startDate != null && endDate != null) {
                     String snippet = extractSnippet(originalText, matcher3.start(), matcher3.end() - matcher3.start());
-                    dateRanges.add(new DateRange(startDate, endDate, snippet));
+                    dateRanges.add(new DateRange(startDate, endDate, snippet, pageNumber));
                 }
             } catch (Exception e) {
                 // Skip invalid date ranges
             }
         }
-        
-        // Merge overlapping ranges and calculate total months
-        if (!dateRanges.isEmpty()) {
-            List<DateRange> merged = mergeDateRanges(dateRanges);
-            long totalMonths = calculateTotalMonths(merged);
-            double years = totalMonths / 12.0;
-            
-            ExtractedSignal signal = new ExtractedSignal();
-            signal.setType("EXPERIENCE_YEARS_ESTIMATE");
-            signal.setValue(String.valueOf(years));
-            signal.setConfidence(merged.size() > 0 ? ExtractedSignal.Confidence.MEDIUM : ExtractedSignal.Confidence.LOW);
-            if (!merged.isEmpty()) {
-                signal.setEvidenceSnippet(merged.get(0).snippet);
-            }
-            signals.add(signal);
-            
-            // Store individual date ranges as signals
-            for (DateRange range : merged) {
-                ExtractedSignal rangeSignal = new ExtractedSignal();
-                rangeSignal.setType("DATE_RANGE");
-                rangeSignal.setValue(range.startDate + " to " + range.endDate);
-                rangeSignal.setEvidenceSnippet(range.snippet);
-                rangeSignal.setConfidence(ExtractedSignal.Confidence.HIGH);
-                signals.add(rangeSignal);
-            }
-        } else {
-            // No date ranges found
-            ExtractedSignal signal = new ExtractedSignal();
-            signal.setType("EXPERIENCE_YEARS_ESTIMATE");
-            signal.setValue("0");
-            signal.setConfidence(ExtractedSignal.Confidence.LOW);
-            signal.setEvidenceSnippet("No date ranges detected in resume");
-            signals.add(signal);
-        }
-        
-        return signals;
     }
     
-    private List<ExtractedSignal> extractEducationLevel(String originalText, String normalizedText) {
+    private List<ExtractedSignal> extractEducationLevel(List<String> pages) {
         List<ExtractedSignal> signals = new ArrayList<>();
         String[] levels = {"PHD", "MASTER", "BACHELOR", "ASSOCIATE", "HS"};
         
         for (int i = 0; i < EDUCATION_PATTERNS.size(); i++) {
             Pattern pattern = EDUCATION_PATTERNS.get(i);
-            Matcher matcher = pattern.matcher(originalText);
-            if (matcher.find()) {
-                ExtractedSignal signal = new ExtractedSignal();
-                signal.setType("EDUCATION_LEVEL_ESTIMATE");
-                signal.setValue(levels[i]);
-                signal.setEvidenceSnippet(extractSnippet(originalText, matcher.start(), matcher.end() - matcher.start()));
-                signal.setConfidence(ExtractedSignal.Confidence.HIGH);
-                signals.add(signal);
-                return signals; // Return highest level found
+            for (int page = 0; page < pages.size(); page++) {
+                String originalText = pages.get(page);
+                Matcher matcher = pattern.matcher(originalText);
+                if (matcher.find()) {
+                    ExtractedSignal signal = new ExtractedSignal();
+                    signal.setType("EDUCATION_LEVEL_ESTIMATE");
+                    signal.setValue(levels[i]);
+                    signal.setEvidenceSnippet(extractSnippet(originalText, matcher.start(), matcher.end() - matcher.start()));
+                    signal.setConfidence(ExtractedSignal.Confidence.HIGH);
+                    signal.setSourcePage(page + 1);
+                    signals.add(signal);
+                    return signals; // Return highest level found
+                }
             }
         }
         
@@ -298,7 +358,7 @@ public class ResumeParserService {
             if (current.endDate.isAfter(next.startDate) || current.endDate.equals(next.startDate)) {
                 // Overlapping or adjacent - merge
                 if (next.endDate.isAfter(current.endDate)) {
-                    current = new DateRange(current.startDate, next.endDate, current.snippet);
+                    current = new DateRange(current.startDate, next.endDate, current.snippet, current.page);
                 }
             } else {
                 // No overlap - add current and move to next
@@ -326,11 +386,13 @@ public class ResumeParserService {
         LocalDate startDate;
         LocalDate endDate;
         String snippet;
+        int page;
         
-        DateRange(LocalDate startDate, LocalDate endDate, String snippet) {
+        DateRange(LocalDate startDate, LocalDate endDate, String snippet, int page) {
             this.startDate = startDate;
             this.endDate = endDate;
             this.snippet = snippet;
+            this.page = page;
         }
     }
 }
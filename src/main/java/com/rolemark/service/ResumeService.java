@@ -1,67 +1,146 @@
 package com.rolemark.service;
 
+import com.rolemark.config.ServerTiming;
+import com.rolemark.config.WorkTracing;
+import com.rolemark.dto.CursorPage;
+import com.rolemark.dto.KeysetCursor;
+import com.rolemark.dto.ListQuery;
+import com.rolemark.dto.ResumeSummary;
 import com.rolemark.entity.ExtractedSignal;
+import com.rolemark.entity.IngestionOutboxEvent;
 import com.rolemark.entity.Resume;
+import com.rolemark.entity.ResumeUpload;
+import com.rolemark.entity.UploadIdempotencyKey;
 import com.rolemark.exception.AccessDeniedException;
 import com.rolemark.exception.NotFoundException;
 import com.rolemark.repository.ExtractedSignalRepository;
 import com.rolemark.repository.ResumeRepository;
-import com.rolemark.repository.RoleRepository;
+import com.rolemark.repository.ResumeUploadRepository;
+import com.rolemark.repository.UploadIdempotencyKeyRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class ResumeService {
     
     private static final Logger logger = LoggerFactory.getLogger(ResumeService.class);
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
     
     private final ResumeRepository resumeRepository;
     private final ExtractedSignalRepository extractedSignalRepository;
     private final PdfExtractionService pdfExtractionService;
-    private final ResumeParserService resumeParserService;
-    private final RoleRepository roleRepository;
+    private final RoleAggregateCache roleCache;
+    private final UploadIdempotencyKeyRepository idempotencyKeyRepository;
+    private final ResumeTextService resumeTextService;
+    private final ResumeUploadRepository resumeUploadRepository;
+    private final IngestionOutboxService ingestionOutboxService;
+    private final WorkTracing workTracing;
     
     public ResumeService(ResumeRepository resumeRepository,
                         ExtractedSignalRepository extractedSignalRepository,
                         PdfExtractionService pdfExtractionService,
-                        ResumeParserService resumeParserService,
-                        RoleRepository roleRepository) {
+                        RoleAggregateCache roleCache,
+                        UploadIdempotencyKeyRepository idempotencyKeyRepository,
+                        ResumeTextService resumeTextService,
+                        ResumeUploadRepository resumeUploadRepository,
+                        IngestionOutboxService ingestionOutboxService,
+                        WorkTracing workTracing) {
         this.resumeRepository = resumeRepository;
         this.extractedSignalRepository = extractedSignalRepository;
         this.pdfExtractionService = pdfExtractionService;
-        this.resumeParserService = resumeParserService;
-        this.roleRepository = roleRepository;
+        this.roleCache = roleCache;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.resumeTextService = resumeTextService;
+        this.resumeUploadRepository = resumeUploadRepository;
+        this.ingestionOutboxService = ingestionOutboxService;
+        this.workTracing = workTracing;
     }
     
+    /**
+     * Stores an uploaded resume, or returns the user's existing resume for the same file.
+     *
+     * A user holds at most one resume per file content and role. Re-uploading a file
+     * returns the copy filed under the given role, or files an unfiled copy there; the
+     * same file uploaded for another role becomes that role's own resume.
+     * An idempotency key replays the original result for client retries.
+     *
+     * Only cheap checks run here. The resume is returned PENDING, with its bytes and an
+     * EXTRACT outbox event stored in the same transaction, and the ingestion stages
+     * make it READY in the background.
+     */
     @Transactional
-    public Resume uploadResume(UUID userId, MultipartFile file, Long roleId) throws IOException {
+    public UploadResult uploadResume(UUID userId, MultipartFile file, Long roleId, String idempotencyKey) throws IOException {
         // Validate role ownership if roleId is provided
         if (roleId != null) {
-            boolean roleExists = roleRepository.findByIdAndUserId(roleId, userId).isPresent();
+            boolean roleExists = roleCache.find(roleId).filter(role -> role.isOwnedBy(userId)).isPresent();
             if (!roleExists) {
                 throw new AccessDeniedException("Role not found or does not belong to user");
             }
         }
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
         
-        // Extract text from PDF
-        String extractedText;
-        try {
-            extractedText = pdfExtractionService.extractText(file);
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Failed to extract text from PDF: " + e.getMessage());
+        // Compute SHA256 checksum first: identical bytes reuse a cached extraction
+        byte[] pdfBytes = file.getBytes();
+        String checksum = workTracing.inSpan("ResumeService.checksum",
+                () -> ServerTiming.time(ServerTiming.HASH, () -> computeSHA256(pdfBytes)));
+        
+        // Serialize concurrent uploads of the same key or file by the same user.
+        // Locks are always taken in this order, so two requests cannot deadlock.
+        if (idempotencyKey != null) {
+            resumeRepository.acquireTransactionLock(lockKey("idempotency", userId, idempotencyKey));
+        }
+        resumeRepository.acquireTransactionLock(lockKey("checksum", userId, checksum));
+        
+        // A retried request replays the resume its key first produced
+        if (idempotencyKey != null) {
+            Optional<UploadIdempotencyKey> previous = idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+            if (previous.isPresent()) {
+                Resume resume = resumeRepository.findByIdAndUserId(previous.get().getResumeId(), userId)
+                        .orElseThrow(() -> new NotFoundException("Resume not found"));
+                if (!resume.getChecksumSha256().equals(checksum)) {
+                    throw new IllegalArgumentException("Idempotency-Key was already used for a different file");
+                }
+                if (roleId != null && resume.getRoleId() != null && !roleId.equals(resume.getRoleId())) {
+                    throw new IllegalArgumentException("Idempotency-Key was already used for a different role");
+                }
+                return new UploadResult(linkRole(resume, roleId), false);
+            }
         }
         
-        // Compute SHA256 checksum
-        String checksum = computeSHA256(file.getBytes());
+        // Same file uploaded before for this role, or not filed yet: reuse it without inserting again
+        Optional<Resume> existing = findCopy(userId, checksum, roleId);
+        if (existing.isPresent()) {
+            Resume resume = linkRole(existing.get(), roleId);
+            if (resume.getIngestionStatus() == Resume.IngestionStatus.FAILED) {
+                // Uploading the file again retries its failed ingestion
+                validate(file, pdfBytes);
+                resume.setIngestionStatus(Resume.IngestionStatus.PENDING);
+                resume.setIngestionError(null);
+                resume = resumeRepository.save(resume);
+                startIngestion(resume, pdfBytes);
+            }
+            rememberIdempotencyKey(userId, idempotencyKey, resume);
+            logger.info("Duplicate resume upload: id={}, filename={}, roleId={}, userId={}",
+                    resume.getId(), file.getOriginalFilename(), roleId, userId);
+            return new UploadResult(resume, false);
+        }
+        
+        validate(file, pdfBytes);
         
         // Create resume entity (metadata-first)
         Resume resume = new Resume();
@@ -71,26 +150,95 @@ public class ResumeService {
         resume.setContentType(file.getContentType());
         resume.setFileSize(file.getSize());
         resume.setChecksumSha256(checksum);
-        resume.setRawExtractedText(extractedText);
         // storagePath is optional - not setting it for MVP
         
         resume = resumeRepository.save(resume);
+        startIngestion(resume, pdfBytes);
         
         logger.info("Resume uploaded: id={}, filename={}, roleId={}, userId={}", 
                 resume.getId(), file.getOriginalFilename(), roleId, userId);
         
-        // Parse and extract signals
-        List<ExtractedSignal> signals = resumeParserService.parseResume(extractedText);
-        for (ExtractedSignal signal : signals) {
-            signal.setResumeId(resume.getId());
-            extractedSignalRepository.save(signal);
+        rememberIdempotencyKey(userId, idempotencyKey, resume);
+        return new UploadResult(resume, true);
+    }
+    
+    private void validate(MultipartFile file, byte[] pdfBytes) {
+        try {
+            pdfExtractionService.validateUpload(file);
+            pdfExtractionService.preflight(pdfBytes);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to extract text from PDF: " + e.getMessage());
+        }
+    }
+    
+    private void startIngestion(Resume resume, byte[] pdfBytes) {
+        ResumeUpload upload = new ResumeUpload();
+        upload.setResumeId(resume.getId());
+        upload.setContent(pdfBytes);
+        resumeUploadRepository.save(upload);
+        ingestionOutboxService.start(resume.getId());
+    }
+    
+    /**
+     * The user's copy of a file that an upload for {@code roleId} reuses: any copy when no
+     * role is given, otherwise the copy filed under the role or else an unfiled one.
+     */
+    private Optional<Resume> findCopy(UUID userId, String checksum, Long roleId) {
+        if (roleId == null) {
+            return resumeRepository.findFirstByUserIdAndChecksumSha256OrderByIdAsc(userId, checksum);
+        }
+        Optional<Resume> filed = resumeRepository.findByUserIdAndChecksumSha256AndRoleId(userId, checksum, roleId);
+        if (filed.isPresent()) {
+            return filed;
+        }
+        return resumeRepository.findFirstByUserIdAndChecksumSha256AndRoleIdIsNullOrderByIdAsc(userId, checksum);
+    }
+    
+    /**
+     * Files a resume uploaded without a role under {@code roleId}. A resume already filed
+     * under a role stays there; {@link #findCopy} only hands out such a resume for its own role.
+     */
+    private Resume linkRole(Resume resume, Long roleId) {
+        if (roleId == null || resume.getRoleId() != null) {
+            return resume;
+        }
+        resume.setRoleId(roleId);
+        resume = resumeRepository.save(resume);
+        // A pending ingestion pre-scores against the role when it finishes
+        if (resume.getIngestionStatus() == Resume.IngestionStatus.READY) {
+            ingestionOutboxService.enqueue(resume.getId(), IngestionOutboxEvent.Stage.PRE_SCORE);
         }
-        
         return resume;
     }
     
-    public List<Resume> getAllResumes(UUID userId) {
-        return resumeRepository.findByUserId(userId);
+    private void rememberIdempotencyKey(UUID userId, String idempotencyKey, Resume resume) {
+        if (idempotencyKey == null) {
+            return;
+        }
+        UploadIdempotencyKey key = new UploadIdempotencyKey();
+        key.setUserId(userId);
+        key.setIdempotencyKey(idempotencyKey);
+        key.setResumeId(resume.getId());
+        idempotencyKeyRepository.save(key);
+    }
+    
+    private long lockKey(String scope, UUID userId, String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(("resume-upload:" + scope + ":" + userId + ":" + value).getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(hash).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+    
+    public CursorPage<ResumeSummary> listResumes(UUID userId, ListQuery query) {
+        int limit = query.resolveLimit();
+        KeysetCursor cursor = query.resolveCursor();
+        List<ResumeSummary> rows = resumeRepository.findSummaryPage(userId, query.getRoleId(),
+                query.createdFromInclusive(), query.createdToExclusive(), query.filenameLikePattern(),
+                cursor.getCreatedAt(), cursor.getId(), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, r -> new KeysetCursor(r.getCreatedAt(), r.getId()));
     }
     
     public Resume getResumeById(UUID userId, Long resumeId) {
@@ -105,6 +253,26 @@ public class ResumeService {
         return resume;
     }
     
+    /**
+     * Returns the text of a single page (1-based), e.g. to show the page a signal came from.
+     * Null if the resume's text was stored before page breaks were kept, so its pages
+     * cannot be told apart.
+     */
+    public String getResumePageText(UUID userId, Long resumeId, int pageNumber) {
+        Resume resume = getResumeById(userId, resumeId);
+        if (pageNumber < 1) {
+            throw new NotFoundException("Page " + pageNumber + " not found");
+        }
+        List<String> pages = resumeTextService.loadPages(resume.getId());
+        if (pages == null) {
+            return null;
+        }
+        if (pageNumber > pages.size()) {
+            throw new NotFoundException("Page " + pageNumber + " not found");
+        }
+        return pages.get(pageNumber - 1);
+    }
+    
     @Transactional
     public void deleteResume(UUID userId, Long resumeId) {
         Resume resume = resumeRepository.findByIdAndUserId(resumeId, userId)
@@ -134,5 +302,23 @@ public class ResumeService {
             throw new RuntimeException("SHA-256 algorithm not available", e);
         }
     }
+    
+    public static class UploadResult {
+        private final Resume resume;
+        private final boolean created;
+        
+        public UploadResult(Resume resume, boolean created) {
+            this.resume = resume;
+            this.created = created;
+        }
+        
+        public Resume getResume() {
+            return resume;
+        }
+        
+        /** False when an existing resume was returned instead of a new one. */
+        public boolean isCreated() {
+            return created;
+        }
+    }
 }
-
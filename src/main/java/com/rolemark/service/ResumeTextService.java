@@ -0,0 +1,132 @@
+package com.rolemark.service;
+
+import com.rolemark.entity.ResumeText;
+import com.rolemark.exception.NotFoundException;
+import com.rolemark.repository.ResumeTextRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores extracted resume text compressed in resume_texts, apart from the resume row,
+ * so that listing resumes never reads it.
+ */
+@Service
+public class ResumeTextService {
+    
+    private final ResumeTextRepository resumeTextRepository;
+    
+    public ResumeTextService(ResumeTextRepository resumeTextRepository) {
+        this.resumeTextRepository = resumeTextRepository;
+    }
+    
+    /** Stores text whose pages are joined with {@link PdfTextExtractor#PAGE_SEPARATOR}. */
+    public void save(Long resumeId, String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] deflated = deflate(utf8);
+        
+        ResumeText resumeText = new ResumeText();
+        resumeText.setResumeId(resumeId);
+        resumeText.setOriginalLength(utf8.length);
+        resumeText.setPaged(true);
+        // Very short texts can grow when compressed; keep whichever is smaller
+        if (deflated.length < utf8.length) {
+            resumeText.setEncoding(ResumeText.Encoding.DEFLATE);
+            resumeText.setContent(deflated);
+        } else {
+            resumeText.setEncoding(ResumeText.Encoding.IDENTITY);
+            resumeText.setContent(utf8);
+        }
+        resumeTextRepository.save(resumeText);
+    }
+    
+    public String load(Long resumeId) {
+        return resumeTextRepository.findById(resumeId)
+                .map(this::decode)
+                .orElseThrow(() -> new NotFoundException("Resume text not found"));
+    }
+    
+    /**
+     * The text split into its pages, or null for a text stored before page breaks were
+     * kept, whose page boundaries are unknown.
+     */
+    public List<String> loadPages(Long resumeId) {
+        ResumeText resumeText = resumeTextRepository.findById(resumeId)
+                .orElseThrow(() -> new NotFoundException("Resume text not found"));
+        return resumeText.isPaged() ? PdfTextExtractor.splitPages(decode(resumeText)) : null;
+    }
+    
+    /**
+     * Loads several texts in one query, keyed by resume id.
+     */
+    public Map<Long, String> loadAll(Collection<Long> resumeIds) {
+        Map<Long, String> texts = new HashMap<>();
+        for (ResumeText resumeText : resumeTextRepository.findAllById(resumeIds)) {
+            texts.put(resumeText.getResumeId(), decode(resumeText));
+        }
+        return texts;
+    }
+    
+    private String decode(ResumeText resumeText) {
+        byte[] utf8 = resumeText.getEncoding() == ResumeText.Encoding.DEFLATE
+                ? inflate(resumeText.getContent(), resumeText.getOriginalLength())
+                : resumeText.getContent();
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+    
+    private byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 3));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private byte[] inflate(byte[] data, int originalLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            // The stored length sizes the output exactly; anything beyond it means corruption
+            byte[] out = new byte[originalLength];
+            byte[] overflow = new byte[1];
+            int total = 0;
+            while (!inflater.finished()) {
+                int n = total < out.length
+                        ? inflater.inflate(out, total, out.length - total)
+                        : inflater.inflate(overflow);
+                if (total == out.length && n > 0) {
+                    throw new IllegalStateException("Resume text is longer than its recorded length");
+                }
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Resume text is truncated");
+                }
+                total += n;
+            }
+            if (total != originalLength) {
+                throw new IllegalStateException("Resume text is shorter than its recorded length");
+            }
+            return out;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Resume text is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
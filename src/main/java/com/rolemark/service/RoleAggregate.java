@@ -0,0 +1,156 @@
+package com.rolemark.service;
+
+import com.rolemark.entity.Criterion;
+import com.rolemark.entity.Role;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable view of a role and its rubric, safe to share between requests.
+ * Built by {@link RoleAggregateCache}; never modified after construction.
+ */
+public class RoleAggregate {
+    
+    private final Long roleId;
+    private final UUID userId;
+    private final String title;
+    private final String jobDescription;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final List<CriterionView> criteria;
+    private final int weightSum;
+    private final long version;
+    
+    RoleAggregate(Role role, List<Criterion> criteria, long version) {
+        this.roleId = role.getId();
+        this.userId = role.getUserId();
+        this.title = role.getTitle();
+        this.jobDescription = role.getJobDescription();
+        this.createdAt = role.getCreatedAt();
+        this.updatedAt = role.getUpdatedAt();
+        this.criteria = criteria.stream().map(CriterionView::new).toList();
+        this.weightSum = criteria.stream().mapToInt(Criterion::getWeight).sum();
+        this.version = version;
+    }
+    
+    public boolean isOwnedBy(UUID userId) {
+        return this.userId.equals(userId);
+    }
+    
+    /** Fresh, unmanaged copies for code that works on entities, such as scoring. */
+    public List<Criterion> criteriaAsEntities() {
+        return criteria.stream().map(CriterionView::toEntity).toList();
+    }
+    
+    public Long getRoleId() {
+        return roleId;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getJobDescription() {
+        return jobDescription;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public List<CriterionView> getCriteria() {
+        return criteria;
+    }
+    
+    public int getWeightSum() {
+        return weightSum;
+    }
+    
+    /** Invalidation tick the aggregate was loaded at; differs between loads across a write. */
+    public long getVersion() {
+        return version;
+    }
+    
+    public static class CriterionView {
+        private final Long id;
+        private final Long roleId;
+        private final String name;
+        private final String description;
+        private final Integer weight;
+        private final String type;
+        private final Map<String, Object> config;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        
+        CriterionView(Criterion criterion) {
+            this.id = criterion.getId();
+            this.roleId = criterion.getRoleId();
+            this.name = criterion.getName();
+            this.description = criterion.getDescription();
+            this.weight = criterion.getWeight();
+            this.type = criterion.getType();
+            this.config = Collections.unmodifiableMap(new LinkedHashMap<>(criterion.getConfigJson()));
+            this.createdAt = criterion.getCreatedAt();
+            this.updatedAt = criterion.getUpdatedAt();
+        }
+        
+        Criterion toEntity() {
+            Criterion criterion = new Criterion();
+            criterion.setId(id);
+            criterion.setRoleId(roleId);
+            criterion.setName(name);
+            criterion.setDescription(description);
+            criterion.setWeight(weight);
+            criterion.setType(type);
+            criterion.setConfigJson(new LinkedHashMap<>(config));
+            criterion.setCreatedAt(createdAt);
+            criterion.setUpdatedAt(updatedAt);
+            return criterion;
+        }
+        
+        public Long getId() {
+            return id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+        
+        public Integer getWeight() {
+            return weight;
+        }
+        
+        public String getType() {
+            return type;
+        }
+        
+        public Map<String, Object> getConfig() {
+            return config;
+        }
+        
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+        
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
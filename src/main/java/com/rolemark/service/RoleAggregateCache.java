@@ -0,0 +1,186 @@
+package com.rolemark.service;
+
+import com.rolemark.entity.Criterion;
+import com.rolemark.entity.Role;
+import com.rolemark.repository.CriterionRepository;
+import com.rolemark.repository.RoleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process cache of {@link RoleAggregate}s, so ownership checks and rubric reads
+ * avoid the role and criteria queries.
+ *
+ * Writers publish the role id through {@link CacheInvalidationBus} after changing a
+ * role or its criteria. The entry is dropped at once and again when the transaction
+ * completes. A load that overlaps an invalidation of the same role is returned but not
+ * cached, so an entry read before a commit can never be stored after it; writes to
+ * other roles do not get in its way. Entries also expire after a TTL, a backstop in
+ * case an invalidation notice is lost.
+ */
+@Component
+public class RoleAggregateCache implements InvalidatableCache {
+    
+    public static final String NAME = "role";
+    
+    private static final Object DIRTY_MARKER = RoleAggregateCache.class.getName() + ".DIRTY";
+    
+    private final RoleRepository roleRepository;
+    private final CriterionRepository criterionRepository;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Ticks on every invalidation; a role's last tick is kept until trimmed, then folded into the floor
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<Long, Long> lastInvalidated = new ConcurrentHashMap<>();
+    private final AtomicLong trimmedInvalidations = new AtomicLong();
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+    
+    public RoleAggregateCache(RoleRepository roleRepository,
+                              CriterionRepository criterionRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${rolemark.role-cache.ttl:10m}") Duration ttl,
+                              @Value("${rolemark.role-cache.max-size:10000}") int maxSize) {
+        this.roleRepository = roleRepository;
+        this.criterionRepository = criterionRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("rolemark.role.cache.requests").tag("result", "hit")
+                .description("Role aggregate lookups served from memory").register(meterRegistry);
+        this.misses = Counter.builder("rolemark.role.cache.requests").tag("result", "miss")
+                .description("Role aggregate lookups that queried the database").register(meterRegistry);
+        this.invalidations = Counter.builder("rolemark.role.cache.invalidations")
+                .description("Role aggregate invalidations").register(meterRegistry);
+        Gauge.builder("rolemark.role.cache.size", entries, Map::size)
+                .description("Cached role aggregates").register(meterRegistry);
+    }
+    
+    /**
+     * Role owned by {@code userId}. A role owned by someone else is reported exactly
+     * like a missing one.
+     */
+    public RoleAggregate getOwned(UUID userId, Long roleId) {
+        return find(roleId)
+                .filter(aggregate -> aggregate.isOwnedBy(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Role not found"));
+    }
+    
+    public Optional<RoleAggregate> find(Long roleId) {
+        Entry entry = entries.get(roleId);
+        if (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos) {
+            hits.increment();
+            return Optional.of(entry.aggregate);
+        }
+        misses.increment();
+        return load(roleId);
+    }
+    
+    @Override
+    public String cacheName() {
+        return NAME;
+    }
+    
+    /**
+     * Drops the role's entry now and, when called inside a transaction, again once it
+     * completes.
+     */
+    @Override
+    public void evict(String key) {
+        Long roleId = Long.valueOf(key);
+        invalidations.increment();
+        evict(roleId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Reads later in this transaction may see uncommitted rows; keep them out of the cache
+            if (!TransactionSynchronizationManager.hasResource(DIRTY_MARKER)) {
+                TransactionSynchronizationManager.bindResource(DIRTY_MARKER, Boolean.TRUE);
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DIRTY_MARKER);
+                    evict(roleId);
+                }
+            });
+        }
+    }
+    
+    @Override
+    public void evictAll() {
+        trimmedInvalidations.accumulateAndGet(clock.incrementAndGet(), Math::max);
+        lastInvalidated.clear();
+        entries.clear();
+    }
+    
+    private Optional<RoleAggregate> load(Long roleId) {
+        long loadedAtTick = clock.get();
+        long loadedAt = System.nanoTime();
+        Optional<Role> role = roleRepository.findById(roleId);
+        if (role.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Criterion> criteria = criterionRepository.findByRoleId(roleId);
+        RoleAggregate aggregate = new RoleAggregate(role.get(), criteria, loadedAtTick);
+        
+        if (!TransactionSynchronizationManager.hasResource(DIRTY_MARKER)) {
+            // compute() serializes with evict() on the same key, so a concurrent invalidation
+            // either sees this entry and removes it, or has already recorded its tick
+            entries.compute(roleId, (id, existing) ->
+                    lastInvalidation(roleId) <= loadedAtTick ? new Entry(aggregate, loadedAt) : existing);
+            trimToSize();
+        }
+        return Optional.of(aggregate);
+    }
+    
+    private void evict(Long roleId) {
+        lastInvalidated.merge(roleId, clock.incrementAndGet(), Math::max);
+        entries.remove(roleId);
+    }
+    
+    /** Tick of the role's latest invalidation, or an upper bound for it once trimmed. */
+    private long lastInvalidation(Long roleId) {
+        Long tick = lastInvalidated.get(roleId);
+        return tick != null ? tick : trimmedInvalidations.get();
+    }
+    
+    private void trimToSize() {
+        // Arbitrary eviction is enough here: the bound only guards memory, the TTL handles recency
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() > maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        // Raise the floor before dropping a tick, so a load checking that role always sees one of them
+        Iterator<Map.Entry<Long, Long>> ticks = lastInvalidated.entrySet().iterator();
+        while (lastInvalidated.size() > maxSize && ticks.hasNext()) {
+            Map.Entry<Long, Long> tick = ticks.next();
+            trimmedInvalidations.accumulateAndGet(tick.getValue(), Math::max);
+            lastInvalidated.remove(tick.getKey(), tick.getValue());
+        }
+    }
+    
+    private static class Entry {
+        final RoleAggregate aggregate;
+        final long loadedAt;
+        
+        Entry(RoleAggregate aggregate, long loadedAt) {
+            this.aggregate = aggregate;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
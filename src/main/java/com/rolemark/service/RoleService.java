@@ -1,9 +1,14 @@
 package com.rolemark.service;
 
+import com.rolemark.dto.CursorPage;
+import com.rolemark.dto.KeysetCursor;
+import com.rolemark.dto.ListQuery;
 import com.rolemark.dto.RoleRequest;
 import com.rolemark.dto.RoleResponse;
+import com.rolemark.dto.RoleSummary;
 import com.rolemark.entity.Role;
 import com.rolemark.repository.RoleRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,9 +20,14 @@ import java.util.stream.Collectors;
 public class RoleService {
     
     private final RoleRepository roleRepository;
+    private final RoleAggregateCache roleCache;
+    private final CacheInvalidationBus invalidationBus;
     
-    public RoleService(RoleRepository roleRepository) {
+    public RoleService(RoleRepository roleRepository, RoleAggregateCache roleCache,
+                       CacheInvalidationBus invalidationBus) {
         this.roleRepository = roleRepository;
+        this.roleCache = roleCache;
+        this.invalidationBus = invalidationBus;
     }
     
     @Transactional
@@ -30,16 +40,33 @@ public class RoleService {
         return toResponse(role);
     }
     
-    public List<RoleResponse> getAllRoles(UUID userId) {
-        return roleRepository.findByUserId(userId).stream()
+    public CursorPage<RoleResponse> listRoles(UUID userId, ListQuery query) {
+        int limit = query.resolveLimit();
+        KeysetCursor cursor = query.resolveCursor();
+        List<RoleResponse> rows = roleRepository.findPage(userId, query.createdFromInclusive(),
+                query.createdToExclusive(), cursor.getCreatedAt(), cursor.getId(), Limit.of(limit + 1)).stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
+        return CursorPage.of(rows, limit, r -> new KeysetCursor(r.getCreatedAt(), r.getId()));
+    }
+    
+    public CursorPage<RoleSummary> listRoleSummaries(UUID userId, ListQuery query) {
+        int limit = query.resolveLimit();
+        KeysetCursor cursor = query.resolveCursor();
+        List<RoleSummary> rows = roleRepository.findSummaryPage(userId, query.createdFromInclusive(),
+                query.createdToExclusive(), cursor.getCreatedAt(), cursor.getId(), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, r -> new KeysetCursor(r.getCreatedAt(), r.getId()));
     }
     
     public RoleResponse getRoleById(UUID userId, Long roleId) {
-        Role role = roleRepository.findByIdAndUserId(roleId, userId)
-                .orElseThrow(() -> new IllegalArgumentException("Role not found"));
-        return toResponse(role);
+        RoleAggregate role = roleCache.getOwned(userId, roleId);
+        return new RoleResponse(
+                role.getRoleId(),
+                role.getTitle(),
+                role.getJobDescription(),
+                role.getCreatedAt(),
+                role.getUpdatedAt()
+        );
     }
     
     @Transactional
@@ -49,6 +76,7 @@ public class RoleService {
         role.setTitle(request.getTitle());
         role.setJobDescription(request.getJobDescription());
         role = roleRepository.save(role);
+        invalidationBus.publish(RoleAggregateCache.NAME, roleId);
         return toResponse(role);
     }
     
@@ -57,6 +85,7 @@ public class RoleService {
         Role role = roleRepository.findByIdAndUserId(roleId, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Role not found"));
         roleRepository.delete(role);
+        invalidationBus.publish(RoleAggregateCache.NAME, roleId);
     }
     
     private RoleResponse toResponse(Role role) {
@@ -0,0 +1,136 @@
+package com.rolemark.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rolemark.entity.Criterion;
+import com.rolemark.entity.RubricVersion;
+import com.rolemark.repository.RubricVersionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the rubric an evaluation runs against as an immutable, content-addressed
+ * rubric version. Runs of an unchanged rubric share one row.
+ */
+@Service
+public class RubricVersionService {
+    
+    private final RubricVersionRepository rubricVersionRepository;
+    // Sorted keys make the serialized form, and therefore the hash, independent of map order
+    private final ObjectMapper canonicalMapper = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+    
+    public RubricVersionService(RubricVersionRepository rubricVersionRepository) {
+        this.rubricVersionRepository = rubricVersionRepository;
+    }
+    
+    /**
+     * Id of the version matching the role's current title, job description and
+     * criteria, recording it first if this rubric has not been used before.
+     */
+    @Transactional
+    public Long resolveVersionId(RoleAggregate role) {
+        Map<String, Object> criteriaJson = criteriaJson(role);
+        String contentHash = contentHash(role.getTitle(), role.getJobDescription(), criteriaJson);
+        
+        return rubricVersionRepository.findIdByRoleIdAndContentHash(role.getRoleId(), contentHash)
+                .orElseGet(() -> {
+                    rubricVersionRepository.insertIfAbsent(role.getRoleId(), contentHash, role.getTitle(),
+                            role.getJobDescription(), toJson(criteriaJson));
+                    return rubricVersionRepository.findIdByRoleIdAndContentHash(role.getRoleId(), contentHash)
+                            .orElseThrow();
+                });
+    }
+    
+    /**
+     * Criteria of the rubric version a run of an evaluation was snapshotted against, as
+     * unmanaged entities for scoring.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Criterion> criteriaForRun(Long evaluationId, Integer runNumber) {
+        RubricVersion version = rubricVersionRepository.findByEvaluationRun(evaluationId, runNumber)
+                .orElseThrow(() -> new IllegalStateException(
+                        "No rubric snapshot for run " + runNumber + " of evaluation " + evaluationId));
+        List<Map<String, Object>> criteria = (List<Map<String, Object>>) version.getCriteriaJson().get("criteria");
+        return criteria.stream()
+                .map(json -> {
+                    Criterion criterion = new Criterion();
+                    criterion.setId(((Number) json.get("id")).longValue());
+                    criterion.setRoleId(version.getRoleId());
+                    criterion.setName((String) json.get("name"));
+                    criterion.setDescription((String) json.get("description"));
+                    criterion.setWeight(((Number) json.get("weight")).intValue());
+                    criterion.setType((String) json.get("type"));
+                    criterion.setConfigJson((Map<String, Object>) json.get("config"));
+                    return criterion;
+                })
+                .toList();
+    }
+    
+    /**
+     * SHA-256 of the rubric's canonical JSON. Criteria are ordered by id and keys sorted,
+     * so neither the order criteria were loaded in nor the key order of their configs
+     * counts; the title and job description are hashed exactly as stored.
+     */
+    String contentHash(RoleAggregate role) {
+        return contentHash(role.getTitle(), role.getJobDescription(), criteriaJson(role));
+    }
+    
+    private String contentHash(String title, String jobDescription, Map<String, Object> criteriaJson) {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("title", title);
+        content.put("jobDescription", jobDescription);
+        content.put("criteria", criteriaJson);
+        return sha256Hex(toJson(content));
+    }
+    
+    private static Map<String, Object> criteriaJson(RoleAggregate role) {
+        List<Map<String, Object>> criteria = role.getCriteria().stream()
+                .sorted(Comparator.comparing(RoleAggregate.CriterionView::getId))
+                .map(c -> {
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    map.put("id", c.getId());
+                    map.put("name", c.getName());
+                    map.put("description", c.getDescription());
+                    map.put("weight", c.getWeight());
+                    map.put("type", c.getType());
+                    map.put("config", c.getConfig());
+                    return map;
+                })
+                .toList();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("criteria", criteria);
+        return json;
+    }
+    
+    private String toJson(Object value) {
+        try {
+            return canonicalMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize rubric", e);
+        }
+    }
+    
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.rolemark.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one criterion scored against one resume. Emitted once per criterion
+ * per candidate, so recordings of large runs carry many of these.
+ */
+@Name("com.rolemark.ScoreCriterion")
+@Label("Score Criterion")
+@Category({"RoleMark", "Scoring"})
+@Description("Scoring of one rubric criterion against one resume")
+class ScoreCriterionEvent extends Event {
+    
+    @Label("Criterion Id")
+    long criterionId;
+    
+    @Label("Criterion Type")
+    String criterionType;
+    
+    @Label("Resume Id")
+    long resumeId;
+    
+    @Label("Resume Characters")
+    long characters;
+    
+    @Label("Outcome")
+    String outcome;
+}
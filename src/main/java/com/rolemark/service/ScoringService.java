@@ -2,29 +2,47 @@ package com.rolemark.service;
 
 import com.rolemark.entity.*;
 import com.rolemark.repository.ExtractedSignalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 public class ScoringService {
     
     private final ExtractedSignalRepository extractedSignalRepository;
+    private final ResumeParserService parserService;
+    private final MeterRegistry meterRegistry;
+    private final Timer resumeTimer;
     
-    public ScoringService(ExtractedSignalRepository extractedSignalRepository) {
+    public ScoringService(ExtractedSignalRepository extractedSignalRepository,
+                          ResumeParserService parserService,
+                          MeterRegistry meterRegistry) {
         this.extractedSignalRepository = extractedSignalRepository;
+        this.parserService = parserService;
+        this.meterRegistry = meterRegistry;
+        this.resumeTimer = Timer.builder("rolemark.scoring.resume")
+                .description("Time to score one resume against a full rubric")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
     
     public Map<String, Object> scoreResume(Resume resume, List<Criterion> criteria, String resumeText) {
+        return resumeTimer.record(() -> scoreAll(resume, criteria, resumeText));
+    }
+    
+    private Map<String, Object> scoreAll(Resume resume, List<Criterion> criteria, String resumeText) {
         Map<String, Object> breakdown = new HashMap<>();
         List<Map<String, Object>> criterionScores = new ArrayList<>();
         double totalWeightedScore = 0.0;
         
         for (Criterion criterion : criteria) {
-            Map<String, Object> criterionScore = scoreCriterion(criterion, resume, resumeText);
+            Map<String, Object> criterionScore = timedScoreCriterion(criterion, resume, resumeText);
             criterionScores.add(criterionScore);
             
             double score = (Double) criterionScore.get("score");
@@ -44,6 +62,40 @@ public class ScoringService {
         return breakdown;
     }
     
+    /**
+     * Times each criterion as {@code rolemark.scoring.criterion}, tagged with its type and
+     * whether it scored or failed, so a slow or failing criterion type stands out. Also
+     * emitted as a {@link ScoreCriterionEvent} for JFR recordings.
+     */
+    private Map<String, Object> timedScoreCriterion(Criterion criterion, Resume resume, String resumeText) {
+        ScoreCriterionEvent event = new ScoreCriterionEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Map<String, Object> result = scoreCriterion(criterion, resume, resumeText);
+            outcome = "success";
+            return result;
+        } finally {
+            Timer.builder("rolemark.scoring.criterion")
+                    .description("Time to score one criterion of a resume")
+                    .tag("type", String.valueOf(criterion.getType()))
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.criterionId = criterion.getId() != null ? criterion.getId() : 0;
+                event.criterionType = criterion.getType();
+                event.resumeId = resume.getId() != null ? resume.getId() : 0;
+                event.characters = resumeText != null ? resumeText.length() : 0;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+    
     private Map<String, Object> scoreCriterion(Criterion criterion, Resume resume, String resumeText) {
         Map<String, Object> result = new HashMap<>();
         result.put("criterionId", criterion.getId());
@@ -83,7 +135,6 @@ public class ScoringService {
         List<String> requiredKeywords = (List<String>) config.get("requiredKeywords");
         String matchMode = (String) config.getOrDefault("matchMode", "ANY");
         
-        ResumeParserService parserService = new ResumeParserService();
         String normalizedText = parserService.normalizeText(resumeText);
         
         int matchedCount = 0;
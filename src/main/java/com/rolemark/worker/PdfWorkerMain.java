@@ -0,0 +1,111 @@
+package com.rolemark.worker;
+
+import com.rolemark.service.PdfTextExtractor;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Entry point of an isolated PDF extraction worker process. Runs without Spring.
+ *
+ * Protocol on stdin/stdout, all integers big-endian:
+ * ready    = byte STATUS_READY, written once PDFBox is loaded
+ * request  = int maxPages, int length, byte[length] pdf
+ * response = byte status, int count, count x (int length, byte[length] UTF-8)
+ *            carrying one entry per page, or a single error message
+ *
+ * The worker handles requests until stdin is closed.
+ */
+public class PdfWorkerMain {
+    
+    static final byte STATUS_READY = 'R';
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_REJECTED = 1;
+    static final byte STATUS_FAILED = 2;
+    
+    public static void main(String[] args) throws IOException {
+        // stdout carries the protocol, so anything a library prints goes to stderr instead
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.err), true));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        
+        // Warm up before reporting ready so JVM startup is not billed to the first document
+        warmUp();
+        out.writeByte(STATUS_READY);
+        out.flush();
+        
+        while (true) {
+            int maxPages;
+            byte[] pdfBytes;
+            try {
+                maxPages = in.readInt();
+                pdfBytes = new byte[in.readInt()];
+                in.readFully(pdfBytes);
+            } catch (EOFException e) {
+                return;
+            }
+            
+            byte status;
+            List<String> payload;
+            try {
+                // A worker is limited to one core, so pages are stripped sequentially
+                payload = PdfTextExtractor.extractPages(pdfBytes, maxPages, null, 1);
+                status = STATUS_OK;
+            } catch (IllegalArgumentException e) {
+                payload = Collections.singletonList(e.getMessage());
+                status = STATUS_REJECTED;
+            } catch (Exception e) {
+                payload = Collections.singletonList(e.getClass().getSimpleName() + ": " + e.getMessage());
+                status = STATUS_FAILED;
+            }
+            
+            out.writeByte(status);
+            out.writeInt(payload.size());
+            for (String entry : payload) {
+                byte[] encoded = entry == null ? new byte[0] : entry.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+            out.flush();
+        }
+    }
+    
+    /**
+     * Extracts a one-page document so parser classes and the font mapping are loaded.
+     */
+    private static void warmUp() {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                content.newLineAtOffset(72, 720);
+                content.showText("warm-up");
+                content.endText();
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            document.save(buffer);
+            PdfTextExtractor.extractPages(buffer.toByteArray(), 1, null, 1);
+        } catch (IOException e) {
+            // Not fatal: the first real document just pays the loading cost
+            System.err.println("PDF worker warm-up failed: " + e.getMessage());
+        }
+    }
+}
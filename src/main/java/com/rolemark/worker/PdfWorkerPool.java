@@ -0,0 +1,350 @@
+package com.rolemark.worker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pool of child JVMs running {@link PdfWorkerMain}.
+ *
+ * Each worker handles one document at a time under a hard deadline and a capped heap.
+ * Workers are started ahead of demand. A worker that misses its deadline or dies is
+ * killed and replaced in the background; healthy workers are retired after a fixed
+ * number of documents so leaked state never builds up.
+ */
+public class PdfWorkerPool implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PdfWorkerPool.class);
+    
+    private static final String BOOT_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+    
+    private static final long STARTUP_TIMEOUT_MILLIS = 30_000;
+    
+    private final int poolSize;
+    private final int maxDocumentsPerWorker;
+    private final long deadlineMillis;
+    private final List<String> command;
+    private final Semaphore permits;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final ExecutorService exchangeExecutor;
+    private final ExecutorService spawnExecutor;
+    private volatile boolean closed;
+    
+    public PdfWorkerPool(int poolSize, String maxHeap, long deadlineMillis, int maxDocumentsPerWorker) {
+        if (poolSize < 1 || deadlineMillis < 1 || maxDocumentsPerWorker < 1) {
+            throw new IllegalStateException("PDF worker pool size, deadline and documents per worker must be positive");
+        }
+        this.poolSize = poolSize;
+        this.maxDocumentsPerWorker = maxDocumentsPerWorker;
+        this.deadlineMillis = deadlineMillis;
+        this.command = buildCommand(maxHeap);
+        this.permits = new Semaphore(poolSize, true);
+        // Sized for every worker to be mid-exchange while replacements complete their handshake
+        this.exchangeExecutor = Executors.newFixedThreadPool(poolSize * 2, daemonThreads("pdf-worker-io"));
+        this.spawnExecutor = Executors.newSingleThreadExecutor(daemonThreads("pdf-worker-spawn"));
+    }
+    
+    /**
+     * Starts the pool's workers in the background, so the first documents do not pay for
+     * a JVM start.
+     */
+    public void prestart() {
+        for (int i = 0; i < poolSize; i++) {
+            replenishLater();
+        }
+    }
+    
+    /**
+     * Extracts the text of each page in a worker process. Waiting for a worker, starting
+     * one if none is idle and the exchange itself all share one deadline.
+     *
+     * @throws IllegalArgumentException if the document is rejected, misses the deadline
+     *         or exhausts the worker's heap
+     * @throws IOException if no worker could be started or reached
+     */
+    public List<String> extractPages(byte[] pdfBytes, int maxPages) throws IOException {
+        if (closed) {
+            throw new IOException("PDF worker pool is shut down");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        
+        try {
+            if (!permits.tryAcquire(remainingNanos(deadline), TimeUnit.NANOSECONDS)) {
+                throw new IOException("No PDF worker became available within " + deadlineMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a PDF worker", e);
+        }
+        
+        try {
+            Worker worker = idle.poll();
+            if (worker == null || !worker.process.isAlive()) {
+                if (worker != null) {
+                    worker.destroy();
+                }
+                // Normally prestarted or replenished; only a crash or a busy spawner lands here
+                worker = startWorker(remainingNanos(deadline));
+            }
+            
+            Worker current = worker;
+            Future<Response> exchange = exchangeExecutor.submit(() -> current.exchange(pdfBytes, maxPages));
+            Response response;
+            try {
+                response = exchange.get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Killing the process also unblocks the pending read
+                worker.destroy();
+                exchange.cancel(true);
+                replenishLater();
+                logger.warn("PDF worker {} exceeded the {} ms deadline and was killed", worker.process.pid(), deadlineMillis);
+                throw new IllegalArgumentException("PDF could not be processed within the time limit");
+            } catch (InterruptedException e) {
+                worker.destroy();
+                replenishLater();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while extracting PDF text", e);
+            } catch (ExecutionException e) {
+                boolean outOfMemory = worker.exitedOutOfMemory();
+                worker.destroy();
+                replenishLater();
+                if (outOfMemory) {
+                    logger.warn("PDF worker {} ran out of memory and exited", worker.process.pid());
+                    throw new IllegalArgumentException("PDF exceeds the processing memory limit");
+                }
+                throw new IOException("PDF worker failed", e.getCause());
+            }
+            
+            release(worker);
+            
+            switch (response.status) {
+                case PdfWorkerMain.STATUS_OK:
+                    return response.payload;
+                case PdfWorkerMain.STATUS_REJECTED:
+                    throw new IllegalArgumentException(response.message());
+                default:
+                    throw new IOException("PDF extraction failed: " + response.message());
+            }
+        } finally {
+            permits.release();
+        }
+    }
+    
+    /** Process ids of the idle workers, oldest first. */
+    List<Long> idleWorkerPids() {
+        return idle.stream().map(worker -> worker.process.pid()).toList();
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            worker.retire();
+        }
+        spawnExecutor.shutdownNow();
+        exchangeExecutor.shutdownNow();
+    }
+    
+    private void release(Worker worker) {
+        if (closed || idle.size() >= poolSize) {
+            worker.retire();
+        } else if (worker.documents >= maxDocumentsPerWorker) {
+            worker.retire();
+            replenishLater();
+        } else {
+            idle.offer(worker);
+        }
+    }
+    
+    /** Starts a worker off the request path so the next document finds a warm one. */
+    private void replenishLater() {
+        try {
+            spawnExecutor.execute(this::replenish);
+        } catch (RejectedExecutionException e) {
+            // Shut down
+        }
+    }
+    
+    private void replenish() {
+        if (closed || idle.size() >= poolSize) {
+            return;
+        }
+        try {
+            Worker worker = startWorker(TimeUnit.MILLISECONDS.toNanos(STARTUP_TIMEOUT_MILLIS));
+            if (closed || !idle.offer(worker)) {
+                worker.retire();
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                logger.warn("Could not start replacement PDF worker: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private Worker startWorker(long timeoutNanos) throws IOException {
+        if (timeoutNanos <= 0) {
+            throw new IOException("No time left to start a PDF worker");
+        }
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        Worker worker = new Worker(builder.start());
+        
+        Future<Byte> ready = exchangeExecutor.submit(worker.out::readByte);
+        try {
+            if (ready.get(timeoutNanos, TimeUnit.NANOSECONDS) != PdfWorkerMain.STATUS_READY) {
+                throw new IOException("PDF worker sent an unexpected handshake");
+            }
+        } catch (TimeoutException | ExecutionException e) {
+            worker.destroy();
+            throw new IOException("PDF worker failed to start", e);
+        } catch (InterruptedException e) {
+            worker.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while starting a PDF worker", e);
+        } catch (IOException e) {
+            worker.destroy();
+            throw e;
+        }
+        logger.debug("Started PDF worker {}", worker.process.pid());
+        return worker;
+    }
+    
+    private static long remainingNanos(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+    
+    private static List<String> buildCommand(String maxHeap) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + maxHeap);
+        command.add("-XX:+ExitOnOutOfMemoryError");
+        // One core per worker keeps GC and JIT threads from competing with the web tier
+        command.add("-XX:ActiveProcessorCount=1");
+        command.add("-XX:+UseSerialGC");
+        command.add("-XX:TieredStopAtLevel=1");
+        command.add("-Djava.awt.headless=true");
+        
+        String classPath = System.getProperty("java.class.path");
+        if (isRunningFromBootJar()) {
+            // Application classes live in BOOT-INF of the fat jar; let Boot's launcher resolve them
+            command.add("-Dloader.main=" + PdfWorkerMain.class.getName());
+            command.add("-cp");
+            command.add(classPath);
+            command.add(BOOT_LAUNCHER);
+        } else {
+            command.add("-cp");
+            command.add(classPath);
+            command.add(PdfWorkerMain.class.getName());
+        }
+        return command;
+    }
+    
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static boolean isRunningFromBootJar() {
+        String loaderName = PdfWorkerPool.class.getClassLoader().getClass().getName();
+        String classPath = System.getProperty("java.class.path");
+        return loaderName.startsWith("org.springframework.boot.loader")
+                && classPath.endsWith(".jar") && !classPath.contains(File.pathSeparator);
+    }
+    
+    private static class Worker {
+        final Process process;
+        final DataOutputStream in;
+        final DataInputStream out;
+        int documents;
+        
+        Worker(Process process) {
+            this.process = process;
+            this.in = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.out = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+        
+        Response exchange(byte[] pdfBytes, int maxPages) throws IOException {
+            documents++;
+            in.writeInt(maxPages);
+            in.writeInt(pdfBytes.length);
+            in.write(pdfBytes);
+            in.flush();
+            
+            byte status = out.readByte();
+            int count = out.readInt();
+            List<String> payload = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] entry = new byte[out.readInt()];
+                out.readFully(entry);
+                payload.add(new String(entry, StandardCharsets.UTF_8));
+            }
+            return new Response(status, payload);
+        }
+        
+        boolean exitedOutOfMemory() {
+            // -XX:+ExitOnOutOfMemoryError exits with status 3
+            try {
+                return process.waitFor(1, TimeUnit.SECONDS) && process.exitValue() == 3;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        
+        void retire() {
+            // Closing stdin ends the worker loop; force it if it lingers
+            try {
+                in.close();
+            } catch (IOException e) {
+                process.destroyForcibly();
+                return;
+            }
+            process.onExit()
+                    .completeOnTimeout(process, 2, TimeUnit.SECONDS)
+                    .thenAccept(Process::destroyForcibly);
+        }
+        
+        void destroy() {
+            process.destroyForcibly();
+        }
+    }
+    
+    private static class Response {
+        final byte status;
+        final List<String> payload;
+        
+        Response(byte status, List<String> payload) {
+            this.status = status;
+            this.payload = payload;
+        }
+        
+        String message() {
+            return payload.isEmpty() ? null : payload.get(0);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+-- V10: Ingest uploaded resumes through a transactional outbox
+-- The upload transaction stores the PDF bytes and an EXTRACT event alongside the resume
+-- row. Stage pollers on any instance then move the resume through
+-- EXTRACT -> PARSE -> INDEX -> PRE_SCORE. Each stage applies its results and queues the
+-- next event in one transaction, so a crash between stages loses no work.
+-- Events are claimed with SELECT ... FOR UPDATE SKIP LOCKED under a renewable lease and
+-- deleted once their stage completes; events that run out of attempts stay as FAILED.
+
+ALTER TABLE resumes ADD COLUMN ingestion_status VARCHAR(20) NOT NULL DEFAULT 'READY'
+    CHECK (ingestion_status IN ('PENDING', 'READY', 'FAILED'));
+ALTER TABLE resumes ALTER COLUMN ingestion_status DROP DEFAULT;
+ALTER TABLE resumes ADD COLUMN ingestion_error TEXT;
+-- Provisional score against the linked role's rubric at upload time
+ALTER TABLE resumes ADD COLUMN pre_score_pct NUMERIC(5, 1);
+
+-- Raw upload, kept only until the EXTRACT stage has stored its text
+CREATE TABLE resume_uploads (
+    resume_id BIGINT PRIMARY KEY REFERENCES resumes(id) ON DELETE CASCADE,
+    content BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE ingestion_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    resume_id BIGINT NOT NULL REFERENCES resumes(id) ON DELETE CASCADE,
+    stage VARCHAR(20) NOT NULL CHECK (stage IN ('EXTRACT', 'PARSE', 'INDEX', 'PRE_SCORE')),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'RUNNING', 'FAILED')),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL,
+    lease_owner VARCHAR(100),
+    lease_token UUID,
+    lease_expires_at TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_ingestion_outbox_stage UNIQUE (resume_id, stage)
+);
+
+-- Each stage's pollers only scan their own due or expired events
+CREATE INDEX idx_ingestion_outbox_pending ON ingestion_outbox(stage, available_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_ingestion_outbox_leased ON ingestion_outbox(stage, lease_expires_at) WHERE status = 'RUNNING';
@@ -0,0 +1,24 @@
+-- V11: At most one candidate row and one score per (evaluation, resume)
+-- Concurrent runs of the same evaluation used to insert a second set of score breakdowns,
+-- and a resume listed twice became two candidates. Runs are now single-flight; these
+-- constraints back that up. Existing duplicates are removed first: the newest score
+-- (from the latest run) and the oldest candidate row are kept.
+
+DELETE FROM score_breakdowns s
+USING score_breakdowns newer
+WHERE newer.evaluation_id = s.evaluation_id
+  AND newer.resume_id = s.resume_id
+  AND newer.id > s.id;
+
+DELETE FROM evaluation_candidates c
+USING evaluation_candidates older
+WHERE older.evaluation_id = c.evaluation_id
+  AND older.resume_id = c.resume_id
+  AND older.id < c.id;
+
+ALTER TABLE score_breakdowns ADD CONSTRAINT uq_score_breakdowns_candidate UNIQUE (evaluation_id, resume_id);
+ALTER TABLE evaluation_candidates ADD CONSTRAINT uq_evaluation_candidates_resume UNIQUE (evaluation_id, resume_id);
+
+-- The unique indexes lead with evaluation_id and serve those lookups
+DROP INDEX idx_score_breakdowns_evaluation_id;
+DROP INDEX idx_evaluation_candidates_evaluation_id;
@@ -0,0 +1,25 @@
+-- V12: Claim background work fairly across tenants
+-- Every queued ingestion event and evaluation chunk records the user it runs for and
+-- whether it was queued as bulk work (the user already had a backlog). Workers rank
+-- users by their work in flight, weighting bulk work down, and claim from the first
+-- user below the per-user cap, so one bulk import cannot starve other users.
+
+ALTER TABLE ingestion_outbox ADD COLUMN tenant_id UUID;
+ALTER TABLE ingestion_outbox ADD COLUMN bulk BOOLEAN NOT NULL DEFAULT FALSE;
+UPDATE ingestion_outbox o SET tenant_id = r.user_id FROM resumes r WHERE r.id = o.resume_id;
+ALTER TABLE ingestion_outbox ALTER COLUMN tenant_id SET NOT NULL;
+
+ALTER TABLE evaluation_work_items ADD COLUMN tenant_id UUID;
+ALTER TABLE evaluation_work_items ADD COLUMN bulk BOOLEAN NOT NULL DEFAULT FALSE;
+UPDATE evaluation_work_items w SET tenant_id = e.user_id FROM evaluations e WHERE e.id = w.evaluation_id;
+ALTER TABLE evaluation_work_items ALTER COLUMN tenant_id SET NOT NULL;
+
+-- Due work is now grouped and claimed per tenant, interactive work first
+DROP INDEX idx_ingestion_outbox_pending;
+CREATE INDEX idx_ingestion_outbox_pending ON ingestion_outbox(stage, tenant_id, bulk, available_at, id) WHERE status = 'PENDING';
+DROP INDEX idx_evaluation_work_items_pending;
+CREATE INDEX idx_evaluation_work_items_pending ON evaluation_work_items(tenant_id, bulk, available_at, id) WHERE status = 'PENDING';
+
+-- Backlog checks at enqueue time count a tenant's queued work
+CREATE INDEX idx_ingestion_outbox_tenant ON ingestion_outbox(tenant_id) WHERE status IN ('PENDING', 'RUNNING');
+CREATE INDEX idx_evaluation_work_items_tenant ON evaluation_work_items(tenant_id) WHERE status IN ('PENDING', 'RUNNING');
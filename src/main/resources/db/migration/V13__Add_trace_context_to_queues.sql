@@ -0,0 +1,7 @@
+-- V13: Carry trace context through the background queues
+-- Queued ingestion events and evaluation chunks store the W3C traceparent of the span
+-- that queued them, so the worker that claims one continues the same trace. Rows
+-- queued outside a trace, and rows from before this migration, start a new one.
+
+ALTER TABLE ingestion_outbox ADD COLUMN trace_parent VARCHAR(55);
+ALTER TABLE evaluation_work_items ADD COLUMN trace_parent VARCHAR(55);
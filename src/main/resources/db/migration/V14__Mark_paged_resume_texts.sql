@@ -0,0 +1,20 @@
+-- V14: Record whether a stored resume text keeps its page breaks
+-- Texts extracted before per-page extraction were stored as one block, so splitting them
+-- at form feeds put everything on page 1. Those rows stay paged = FALSE: the page
+-- endpoint and re-parsing treat their page numbers as unknown.
+-- A row is known to be paged if it was written compressed (only the application does
+-- that, after pages were kept), contains a page break, or matches a cached one-page
+-- extraction of the same file.
+
+ALTER TABLE resume_texts ADD COLUMN paged BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE resume_texts t
+SET paged = TRUE
+WHERE t.encoding = 'DEFLATE'
+   OR position('\x0c'::bytea IN t.content) > 0
+   OR EXISTS (
+       SELECT 1
+       FROM resumes r
+       JOIN extraction_cache c ON c.checksum_sha256 = r.checksum_sha256
+       WHERE r.id = t.resume_id AND c.page_count = 1
+   );
@@ -0,0 +1,31 @@
+-- V15: Number evaluation runs and keep the last completed run's results during a re-run
+-- Re-running an evaluation used to delete its scores and rubric snapshot up front, so
+-- results were empty until the new run finished, and gone for good if it failed.
+-- Snapshots, scores and queued chunks now carry the run that produced them.
+-- evaluations.run_number is the latest run started; results_run_number is the run whose
+-- scores are shown, switched over when a later run completes.
+-- Existing rows belong to run 1, the only run whose data was ever kept. Its scores are
+-- shown if it completed.
+
+ALTER TABLE evaluations ADD COLUMN run_number INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE evaluations ADD COLUMN results_run_number INTEGER;
+
+ALTER TABLE evaluation_snapshots ADD COLUMN run_number INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE score_breakdowns ADD COLUMN run_number INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE evaluation_work_items ADD COLUMN run_number INTEGER NOT NULL DEFAULT 1;
+
+UPDATE evaluations e
+SET run_number = 1,
+    results_run_number = CASE WHEN e.status = 'COMPLETED' THEN 1 END
+WHERE EXISTS (SELECT 1 FROM evaluation_snapshots s WHERE s.evaluation_id = e.id);
+
+ALTER TABLE evaluation_snapshots ALTER COLUMN run_number DROP DEFAULT;
+ALTER TABLE score_breakdowns ALTER COLUMN run_number DROP DEFAULT;
+ALTER TABLE evaluation_work_items ALTER COLUMN run_number DROP DEFAULT;
+
+-- A re-run scores the same candidates again while the previous scores are still shown
+ALTER TABLE score_breakdowns DROP CONSTRAINT uq_score_breakdowns_candidate;
+ALTER TABLE score_breakdowns ADD CONSTRAINT uq_score_breakdowns_candidate UNIQUE (evaluation_id, run_number, resume_id);
+
+DROP INDEX idx_evaluation_snapshots_evaluation_id;
+ALTER TABLE evaluation_snapshots ADD CONSTRAINT uq_evaluation_snapshots_run UNIQUE (evaluation_id, run_number);
@@ -0,0 +1,9 @@
+-- V16: Drop raw uploads that no stage will read again
+-- The EXTRACT stage deletes a resume's upload once its text is stored, but an ingestion
+-- that failed for good kept the bytes until the resume itself was deleted. Failing now
+-- drops them too; this removes the ones already left behind.
+
+DELETE FROM resume_uploads u
+USING resumes r
+WHERE r.id = u.resume_id
+  AND r.ingestion_status <> 'PENDING';
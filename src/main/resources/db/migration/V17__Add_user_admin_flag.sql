@@ -0,0 +1,6 @@
+-- V17: Grant operator access per user
+-- /api/admin/** used to admit users by the email in their token, which is whatever they
+-- signed up with. Access is now a flag on the user row, set by an operator:
+--   UPDATE users SET admin = TRUE WHERE id = '<user id>';
+
+ALTER TABLE users ADD COLUMN admin BOOLEAN NOT NULL DEFAULT FALSE;
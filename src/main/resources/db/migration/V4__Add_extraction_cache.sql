@@ -0,0 +1,15 @@
+-- V4: Content-addressed cache of extracted text and parsed signals
+-- Keyed by the SHA-256 of the PDF bytes and the parser version that produced the entry.
+-- Rows hold only data derived from the bytes themselves (no user, filename or role),
+-- so a hit reveals nothing beyond what the uploader's own file already contains.
+
+CREATE TABLE extraction_cache (
+    id BIGSERIAL PRIMARY KEY,
+    checksum_sha256 VARCHAR(64) NOT NULL,
+    parser_version INTEGER NOT NULL,
+    page_count INTEGER NOT NULL,
+    extracted_text TEXT NOT NULL,
+    signals_json JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_extraction_cache_checksum_version UNIQUE (checksum_sha256, parser_version)
+);
@@ -0,0 +1,44 @@
+-- V5: One resume per (user, file content, role), plus idempotency keys for upload retries.
+-- The same file filed under two roles stays two resumes, so no role loses its link.
+
+-- Step 1: Map every duplicate resume to the oldest resume with the same user, checksum
+-- and role (unfiled resumes of the same file count as one group)
+CREATE TEMP TABLE resume_duplicates AS
+SELECT r.id AS duplicate_id, k.keeper_id
+FROM resumes r
+JOIN (
+    SELECT user_id, checksum_sha256, role_id, MIN(id) AS keeper_id
+    FROM resumes
+    GROUP BY user_id, checksum_sha256, role_id
+    HAVING COUNT(*) > 1
+) k ON r.user_id = k.user_id AND r.checksum_sha256 = k.checksum_sha256
+    AND r.role_id IS NOT DISTINCT FROM k.role_id
+WHERE r.id <> k.keeper_id;
+
+-- Step 2: Repoint evaluation rows to the keeper so past results survive, then delete
+-- the duplicates (signals cascade). A keeper and its duplicate scored in the same
+-- evaluation leave two rows for the same file there until V11 keeps one of them.
+UPDATE evaluation_candidates c SET resume_id = d.keeper_id
+FROM resume_duplicates d WHERE c.resume_id = d.duplicate_id;
+
+UPDATE score_breakdowns s SET resume_id = d.keeper_id
+FROM resume_duplicates d WHERE s.resume_id = d.duplicate_id;
+
+DELETE FROM resumes r USING resume_duplicates d WHERE r.id = d.duplicate_id;
+
+DROP TABLE resume_duplicates;
+
+-- Step 3: Enforce uniqueness going forward. Unfiled resumes are left out: deleting a
+-- role unfiles its resumes, which may leave several unfiled copies of one file.
+CREATE UNIQUE INDEX uq_resumes_user_checksum_role ON resumes(user_id, checksum_sha256, role_id)
+    WHERE role_id IS NOT NULL;
+
+-- Step 4: Idempotency keys sent with uploads, scoped per user
+CREATE TABLE upload_idempotency_keys (
+    id BIGSERIAL PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    idempotency_key VARCHAR(255) NOT NULL,
+    resume_id BIGINT NOT NULL REFERENCES resumes(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_upload_idempotency_keys_user_key UNIQUE (user_id, idempotency_key)
+);
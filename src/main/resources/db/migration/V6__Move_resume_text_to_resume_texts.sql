@@ -0,0 +1,18 @@
+-- V6: Move extracted resume text out of the resumes table
+-- Listing resumes no longer reads the text; it is loaded only when parsing, scoring or evidence needs it.
+-- The application writes new rows Deflate-compressed; backfilled rows keep the plain UTF-8 bytes
+-- (encoding IDENTITY) and are read the same way.
+
+CREATE TABLE resume_texts (
+    resume_id BIGINT PRIMARY KEY REFERENCES resumes(id) ON DELETE CASCADE,
+    encoding VARCHAR(20) NOT NULL CHECK (encoding IN ('IDENTITY', 'DEFLATE')),
+    content BYTEA NOT NULL,
+    original_length INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO resume_texts (resume_id, encoding, content, original_length, created_at)
+SELECT id, 'IDENTITY', convert_to(raw_extracted_text, 'UTF8'), octet_length(convert_to(raw_extracted_text, 'UTF8')), created_at
+FROM resumes;
+
+ALTER TABLE resumes DROP COLUMN raw_extracted_text;
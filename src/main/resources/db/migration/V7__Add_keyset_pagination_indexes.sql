@@ -0,0 +1,16 @@
+-- V7: Composite indexes for keyset pagination of the list endpoints
+-- List endpoints page by (created_at DESC, id DESC) within a user; these indexes
+-- serve both the ordering and the keyset predicate without a sort step.
+CREATE INDEX idx_roles_user_created ON roles(user_id, created_at DESC, id DESC);
+CREATE INDEX idx_resumes_user_created ON resumes(user_id, created_at DESC, id DESC);
+CREATE INDEX idx_evaluations_user_created ON evaluations(user_id, created_at DESC, id DESC);
+
+-- Role and status are the selective filters, so they lead the ordering columns
+CREATE INDEX idx_resumes_user_role_created ON resumes(user_id, role_id, created_at DESC, id DESC);
+CREATE INDEX idx_evaluations_user_role_created ON evaluations(user_id, role_id, created_at DESC, id DESC);
+CREATE INDEX idx_evaluations_user_status_created ON evaluations(user_id, status, created_at DESC, id DESC);
+
+-- Superseded by the composite indexes above, whose leading column is user_id
+DROP INDEX IF EXISTS idx_roles_user_id;
+DROP INDEX IF EXISTS idx_resumes_user_id;
+DROP INDEX IF EXISTS idx_evaluations_user_id;
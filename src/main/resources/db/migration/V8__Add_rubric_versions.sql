@@ -0,0 +1,50 @@
+-- V8: Store each distinct rubric once and point evaluation snapshots at it
+-- A rubric version is the role title, job description and criteria an evaluation ran
+-- against. Versions are immutable and keyed by a SHA-256 of their canonical JSON, so
+-- re-running an unchanged rubric reuses the existing row and two evaluations used the
+-- same rubric exactly when their version ids match.
+
+CREATE TABLE rubric_versions (
+    id BIGSERIAL PRIMARY KEY,
+    role_id BIGINT NOT NULL REFERENCES roles(id) ON DELETE CASCADE,
+    content_hash VARCHAR(64) NOT NULL,
+    role_title VARCHAR(120) NOT NULL,
+    role_job_description TEXT NOT NULL,
+    criteria_json JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_rubric_versions_role_hash UNIQUE (role_id, content_hash)
+);
+
+ALTER TABLE evaluation_snapshots ADD COLUMN rubric_version_id BIGINT REFERENCES rubric_versions(id);
+
+-- Backfilled versions are hashed over the stored text rather than the application's
+-- canonical JSON. They still deduplicate among themselves; the first run of such a
+-- rubric after the upgrade simply records one new version.
+CREATE TEMPORARY TABLE legacy_snapshot_hashes AS
+SELECT s.id AS snapshot_id, e.role_id,
+       encode(sha256(convert_to(s.role_title || chr(10) || s.role_job_description || chr(10) || s.criteria_json::text, 'UTF8')), 'hex') AS content_hash
+FROM evaluation_snapshots s
+JOIN evaluations e ON e.id = s.evaluation_id;
+
+INSERT INTO rubric_versions (role_id, content_hash, role_title, role_job_description, criteria_json, created_at)
+SELECT DISTINCT ON (h.role_id, h.content_hash)
+       h.role_id, h.content_hash, s.role_title, s.role_job_description, s.criteria_json, s.created_at
+FROM legacy_snapshot_hashes h
+JOIN evaluation_snapshots s ON s.id = h.snapshot_id
+ORDER BY h.role_id, h.content_hash, s.created_at;
+
+UPDATE evaluation_snapshots s
+SET rubric_version_id = v.id
+FROM legacy_snapshot_hashes h
+JOIN rubric_versions v ON v.role_id = h.role_id AND v.content_hash = h.content_hash
+WHERE h.snapshot_id = s.id;
+
+DROP TABLE legacy_snapshot_hashes;
+
+ALTER TABLE evaluation_snapshots ALTER COLUMN rubric_version_id SET NOT NULL;
+ALTER TABLE evaluation_snapshots
+    DROP COLUMN role_title,
+    DROP COLUMN role_job_description,
+    DROP COLUMN criteria_json;
+
+CREATE INDEX idx_evaluation_snapshots_rubric_version_id ON evaluation_snapshots(rubric_version_id);
@@ -0,0 +1,29 @@
+-- V9: Queue of evaluation work, claimable by any instance
+-- A run is split into chunks of candidates. Workers claim a chunk with
+-- SELECT ... FOR UPDATE SKIP LOCKED and hold it under a lease they renew by heartbeat.
+-- A chunk whose lease runs out (its worker died) becomes claimable again; lease_token
+-- changes on every claim, so only the current holder can record a result.
+
+CREATE TABLE evaluation_work_items (
+    id BIGSERIAL PRIMARY KEY,
+    evaluation_id BIGINT NOT NULL REFERENCES evaluations(id) ON DELETE CASCADE,
+    chunk_index INTEGER NOT NULL,
+    resume_ids JSONB NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'RUNNING', 'DONE', 'FAILED')),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL,
+    lease_owner VARCHAR(100),
+    lease_token UUID,
+    lease_expires_at TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_evaluation_work_items_chunk UNIQUE (evaluation_id, chunk_index)
+);
+
+-- Claimable work is a small, hot subset of the table
+CREATE INDEX idx_evaluation_work_items_pending ON evaluation_work_items(available_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_evaluation_work_items_leased ON evaluation_work_items(lease_expires_at) WHERE status = 'RUNNING';
+
+-- Runs left RUNNING by the previous in-request executor can never finish; let users re-run them
+UPDATE evaluations SET status = 'FAILED' WHERE status = 'RUNNING';
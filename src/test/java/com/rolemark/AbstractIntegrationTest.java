@@ -1,13 +1,43 @@
 package com.rolemark;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rolemark.dto.AuthResponse;
+import com.rolemark.dto.CriterionRequest;
+import com.rolemark.dto.CriterionResponse;
+import com.rolemark.dto.EvaluationRequest;
+import com.rolemark.dto.RoleRequest;
+import com.rolemark.dto.RoleResponse;
+import com.rolemark.dto.SignupRequest;
+import com.rolemark.entity.Evaluation;
+import com.rolemark.entity.Resume;
+import com.rolemark.repository.EvaluationRepository;
+import com.rolemark.repository.ResumeRepository;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 @Testcontainers
@@ -26,5 +56,147 @@ public abstract class AbstractIntegrationTest {
         registry.add("spring.datasource.password", POSTGRES::getPassword);
         registry.add("spring.flyway.enabled", () -> "true");
     }
+    
+    @Autowired
+    protected MockMvc mockMvc;
+    
+    @Autowired
+    protected ObjectMapper objectMapper;
+    
+    @Autowired
+    protected ResumeRepository resumeRepository;
+    
+    @Autowired
+    protected EvaluationRepository evaluationRepository;
+    
+    // Helper: Register a new user
+    protected String registerUser(String email, String password) throws Exception {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setEmail(email);
+        signupRequest.setPassword(password);
+        
+        MvcResult result = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+        
+        AuthResponse response = objectMapper.readValue(
+                result.getResponse().getContentAsString(), AuthResponse.class);
+        return response.getToken();
+    }
+    
+    // Helper: Create a role and return its ID
+    protected Long createRole(String jwtToken, String title, String jobDescription) throws Exception {
+        RoleRequest roleRequest = new RoleRequest();
+        roleRequest.setTitle(title);
+        roleRequest.setJobDescription(jobDescription);
+        
+        MvcResult result = mockMvc.perform(post("/api/roles")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(roleRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        
+        RoleResponse response = objectMapper.readValue(
+                result.getResponse().getContentAsString(), RoleResponse.class);
+        return response.getId();
+    }
+    
+    // Helper: Create a keyword criterion on a role and return its ID
+    protected Long createKeywordCriterion(String jwtToken, Long roleId, String name, int weight,
+                                          List<String> keywords) throws Exception {
+        CriterionRequest criterionRequest = new CriterionRequest();
+        criterionRequest.setName(name);
+        criterionRequest.setWeight(weight);
+        criterionRequest.setType("KEYWORD_SKILL");
+        criterionRequest.setConfig(Map.of("requiredKeywords", keywords));
+        
+        MvcResult result = mockMvc.perform(post("/api/roles/" + roleId + "/criteria")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(criterionRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        
+        CriterionResponse response = objectMapper.readValue(
+                result.getResponse().getContentAsString(), CriterionResponse.class);
+        return response.getId();
+    }
+    
+    // Helper: Upload a resume for a role and wait until it is ingested
+    protected Resume uploadResume(String jwtToken, Long roleId, String filename, byte[] pdfBytes) throws Exception {
+        MvcResult result = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", filename, "application/pdf", pdfBytes))
+                        .param("roleId", String.valueOf(roleId))
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isCreated())
+                .andReturn();
+        
+        Resume resume = objectMapper.readValue(result.getResponse().getContentAsString(), Resume.class);
+        return awaitIngested(resume.getId());
+    }
+    
+    // Helper: Create an evaluation and return its ID
+    protected Long createEvaluation(String jwtToken, Long roleId, List<Long> resumeIds) throws Exception {
+        EvaluationRequest evaluationRequest = new EvaluationRequest();
+        evaluationRequest.setRoleId(roleId);
+        evaluationRequest.setResumeIds(resumeIds);
+        
+        MvcResult result = mockMvc.perform(post("/api/evaluations")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(evaluationRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        
+        return objectMapper.readValue(result.getResponse().getContentAsString(), Evaluation.class).getId();
+    }
+    
+    // Helper: Wait for the ingestion stages to finish with a resume
+    protected Resume awaitIngested(Long resumeId) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            Resume resume = resumeRepository.findById(resumeId).orElseThrow();
+            if (resume.getIngestionStatus() != Resume.IngestionStatus.PENDING || System.currentTimeMillis() > deadline) {
+                return resume;
+            }
+            Thread.sleep(100);
+        }
+    }
+    
+    // Helper: Wait for the workers to finish (or give up on) an evaluation run
+    protected Evaluation awaitEvaluation(Long evaluationId) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            Evaluation evaluation = evaluationRepository.findById(evaluationId).orElseThrow();
+            if (evaluation.getStatus() != Evaluation.Status.RUNNING || System.currentTimeMillis() > deadline) {
+                return evaluation;
+            }
+            Thread.sleep(100);
+        }
+    }
+    
+    // PDF Factory: Generate a PDF with one line of text per page
+    protected static byte[] createPdf(String... pageLines) throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            for (String line : pageLines) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                
+                try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                    contentStream.beginText();
+                    contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    contentStream.newLineAtOffset(50, 750);
+                    contentStream.showText(line);
+                    contentStream.endText();
+                }
+            }
+            
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            document.save(baos);
+            return baos.toByteArray();
+        }
+    }
 }
-
@@ -0,0 +1,97 @@
+package com.rolemark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.rolemark.entity.User;
+import com.rolemark.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class AdminIT extends AbstractIntegrationTest {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    // Helper: Register a user and flag them admin the way an operator would
+    private String registerAdmin(String email) throws Exception {
+        String jwt = registerUser(email, "password123");
+        User user = userRepository.findByEmail(email).orElseThrow();
+        user.setAdmin(true);
+        userRepository.save(user);
+        return jwt;
+    }
+    
+    @Test
+    void testNonAdminIsForbidden() throws Exception {
+        String jwt = registerUser("admin-plain@example.com", "password123");
+        
+        mockMvc.perform(post("/api/admin/jfr-recordings")
+                        .param("seconds", "1")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    void testCaseVariantOfAdminEmailIsForbidden() throws Exception {
+        registerAdmin("jfr-admin@example.com");
+        String jwt = registerUser("JFR-Admin@example.com", "password123");
+        
+        // A look-alike account is a different user, without the flag
+        mockMvc.perform(post("/api/admin/jfr-recordings")
+                        .param("seconds", "1")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    void testAdminStartsRecordingAndCollectsFile() throws Exception {
+        String jwt = registerAdmin("jfr-collector@example.com");
+        
+        MvcResult started = mockMvc.perform(post("/api/admin/jfr-recordings")
+                        .param("seconds", "1")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("running"))
+                .andReturn();
+        JsonNode recording = objectMapper.readTree(started.getResponse().getContentAsString());
+        String location = started.getResponse().getHeader(HttpHeaders.LOCATION);
+        assertEquals("/api/admin/jfr-recordings/" + recording.get("id").asLong(), location);
+        
+        // A second recording is turned away while the first runs
+        mockMvc.perform(post("/api/admin/jfr-recordings")
+                        .param("seconds", "1")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isServiceUnavailable());
+        
+        MvcResult collected = null;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (collected == null && System.currentTimeMillis() < deadline) {
+            MvcResult polled = mockMvc.perform(get(location)
+                            .header("Authorization", "Bearer " + jwt))
+                    .andReturn();
+            if (polled.getResponse().getStatus() == 202) {
+                assertNotNull(polled.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+                Thread.sleep(200);
+            } else {
+                collected = mockMvc.perform(asyncDispatch(polled))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                                containsString(".jfr")))
+                        .andReturn();
+            }
+        }
+        assertNotNull(collected, "Recording did not finish in time");
+        assertTrue(collected.getResponse().getContentAsByteArray().length > 0);
+        
+        // Collected once; the instance no longer holds it
+        mockMvc.perform(get(location)
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isNotFound());
+    }
+}
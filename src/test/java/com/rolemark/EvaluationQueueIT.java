@@ -0,0 +1,278 @@
+package com.rolemark;
+
+import com.rolemark.entity.Evaluation;
+import com.rolemark.entity.Resume;
+import com.rolemark.entity.ScoreBreakdown;
+import com.rolemark.service.EvaluationQueueService;
+import com.rolemark.service.EvaluationQueueService.ClaimedChunk;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// No background workers: the tests claim and complete chunks themselves
+@TestPropertySource(properties = {
+        "rolemark.evaluation-queue.workers=0",
+        "rolemark.evaluation-queue.lease=2s"
+})
+public class EvaluationQueueIT extends AbstractIntegrationTest {
+    
+    @Autowired
+    private EvaluationQueueService queueService;
+    
+    private record QueuedRun(String jwt, Long evaluationId, List<Long> resumeIds) {
+    }
+    
+    // Helper: Create a two-resume evaluation; both fit in one chunk
+    private QueuedRun evaluation(String email) throws Exception {
+        String jwt = registerUser(email, "password123");
+        Long roleId = createRole(jwt, "Queued Role", "Java services");
+        createKeywordCriterion(jwt, roleId, "Skills", 100, List.of("java"));
+        Resume first = uploadResume(jwt, roleId, "first.pdf", createPdf("Java developer"));
+        Resume second = uploadResume(jwt, roleId, "second.pdf", createPdf("Java and Docker developer"));
+        List<Long> resumeIds = List.of(first.getId(), second.getId());
+        return new QueuedRun(jwt, createEvaluation(jwt, roleId, resumeIds), resumeIds);
+    }
+    
+    // Helper: Queue a one-chunk run
+    private QueuedRun queuedRun(String email) throws Exception {
+        QueuedRun queued = evaluation(email);
+        run(queued.jwt(), queued.evaluationId());
+        return queued;
+    }
+    
+    private void run(String jwt, Long evaluationId) throws Exception {
+        mockMvc.perform(post("/api/evaluations/" + evaluationId + "/run")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isAccepted());
+    }
+    
+    // Helper: Hand-made scores of pct for every resume in the chunk, standing in for the scorer
+    private static List<ScoreBreakdown> scores(ClaimedChunk chunk, int pct) {
+        List<ScoreBreakdown> breakdowns = new ArrayList<>();
+        for (Long resumeId : chunk.getResumeIds()) {
+            ScoreBreakdown breakdown = new ScoreBreakdown();
+            breakdown.setEvaluationId(chunk.getEvaluationId());
+            breakdown.setRunNumber(chunk.getRunNumber());
+            breakdown.setResumeId(resumeId);
+            breakdown.setTotalScore(BigDecimal.valueOf(pct, 2).setScale(4));
+            breakdown.setTotalScorePct(BigDecimal.valueOf(pct).setScale(1));
+            breakdown.setBreakdownJson(Map.of("totalScorePct", (double) pct));
+            breakdown.setExplanationText("Scored " + pct + "%");
+            breakdowns.add(breakdown);
+        }
+        return breakdowns;
+    }
+    
+    // Helper: The served results, once the streamed body has been written
+    private ResultActions results(QueuedRun queued) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/evaluations/" + queued.evaluationId() + "/results")
+                        .header("Authorization", "Bearer " + queued.jwt()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+    }
+    
+    private ClaimedChunk claim(String owner, Long evaluationId) {
+        ClaimedChunk chunk = queueService.claim(owner).orElseThrow();
+        assertEquals(evaluationId, chunk.getEvaluationId());
+        return chunk;
+    }
+    
+    private static void awaitLeaseExpiry() throws InterruptedException {
+        Thread.sleep(2_500);
+    }
+    
+    @Test
+    void testTwoWorkersCannotClaimTheSameChunk() throws Exception {
+        QueuedRun queued = queuedRun("queue-race@example.com");
+        
+        int workers = 2;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        List<ClaimedChunk> claimed = new ArrayList<>();
+        try {
+            List<Future<Optional<ClaimedChunk>>> results = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                String owner = "worker-" + i;
+                Callable<Optional<ClaimedChunk>> claim = () -> {
+                    go.await();
+                    return queueService.claim(owner);
+                };
+                results.add(executor.submit(claim));
+            }
+            go.countDown();
+            for (Future<Optional<ClaimedChunk>> result : results) {
+                result.get().ifPresent(claimed::add);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(1, claimed.size());
+        assertEquals(queued.evaluationId(), claimed.get(0).getEvaluationId());
+        assertTrue(queueService.complete(claimed.get(0), scores(claimed.get(0), 50)));
+        assertEquals(Evaluation.Status.COMPLETED, evaluationRepository.findById(queued.evaluationId()).orElseThrow().getStatus());
+    }
+    
+    @Test
+    void testExpiredLeaseIsReclaimedAndStaleCompletionRejected() throws Exception {
+        QueuedRun queued = queuedRun("queue-lease@example.com");
+        ClaimedChunk first = claim("worker-a", queued.evaluationId());
+        
+        // A live lease keeps the chunk away from other workers
+        assertTrue(queueService.claim("worker-b").isEmpty());
+        
+        awaitLeaseExpiry();
+        ClaimedChunk second = claim("worker-b", queued.evaluationId());
+        assertEquals(first.getWorkItemId(), second.getWorkItemId());
+        assertEquals(2, second.getAttempt());
+        assertNotEquals(first.getLeaseToken(), second.getLeaseToken());
+        
+        // The first holder's token no longer fences the chunk, so its late results are dropped
+        assertFalse(queueService.complete(first, scores(first, 10)));
+        assertTrue(queueService.complete(second, scores(second, 90)));
+        
+        results(queued)
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].totalScorePct").value(90.0));
+    }
+    
+    @Test
+    void testExpiredChunkOfFailedEvaluationIsNotReclaimed() throws Exception {
+        QueuedRun queued = queuedRun("queue-failed@example.com");
+        ClaimedChunk chunk = claim("worker-a", queued.evaluationId());
+        
+        Evaluation evaluation = evaluationRepository.findById(queued.evaluationId()).orElseThrow();
+        evaluation.setStatus(Evaluation.Status.FAILED);
+        evaluationRepository.save(evaluation);
+        
+        awaitLeaseExpiry();
+        assertTrue(queueService.claim("worker-b").isEmpty());
+        assertFalse(queueService.complete(chunk, scores(chunk, 50)));
+    }
+    
+    @Test
+    void testRerunKeepsPreviousResultsUntilItCompletes() throws Exception {
+        QueuedRun queued = queuedRun("queue-rerun@example.com");
+        ClaimedChunk firstRun = claim("worker-a", queued.evaluationId());
+        assertTrue(queueService.complete(firstRun, scores(firstRun, 40)));
+        
+        run(queued.jwt(), queued.evaluationId());
+        ClaimedChunk secondRun = claim("worker-a", queued.evaluationId());
+        assertEquals(firstRun.getRunNumber() + 1, secondRun.getRunNumber());
+        
+        // While the re-run is in flight, the first run's scores are still served
+        results(queued)
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].totalScorePct").value(40.0));
+        
+        assertTrue(queueService.complete(secondRun, scores(secondRun, 70)));
+        results(queued)
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].totalScorePct").value(70.0));
+    }
+    
+    @Test
+    void testRunWithoutCandidatesIsRejected() throws Exception {
+        QueuedRun emptied = evaluation("queue-empty@example.com");
+        
+        // Deleting a resume takes its candidate row with it
+        for (Long resumeId : emptied.resumeIds()) {
+            mockMvc.perform(delete("/api/resumes/" + resumeId)
+                            .header("Authorization", "Bearer " + emptied.jwt()))
+                    .andExpect(status().isNoContent());
+        }
+        
+        mockMvc.perform(post("/api/evaluations/" + emptied.evaluationId() + "/run")
+                        .header("Authorization", "Bearer " + emptied.jwt()))
+                .andExpect(status().isBadRequest());
+        assertEquals(Evaluation.Status.CREATED,
+                evaluationRepository.findById(emptied.evaluationId()).orElseThrow().getStatus());
+    }
+    
+    // Helper: Start the run from several requests at once; returns each response's status and body
+    private List<MvcResult> concurrentRuns(String jwt, Long evaluationId, int requests) throws Exception {
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        List<MvcResult> responses = new ArrayList<>();
+        try {
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                Callable<MvcResult> run = () -> {
+                    go.await();
+                    return mockMvc.perform(post("/api/evaluations/" + evaluationId + "/run")
+                                    .header("Authorization", "Bearer " + jwt))
+                            .andReturn();
+                };
+                results.add(executor.submit(run));
+            }
+            go.countDown();
+            for (Future<MvcResult> result : results) {
+                responses.add(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return responses;
+    }
+    
+    @Test
+    void testConcurrentRunRequestsStartOneRun() throws Exception {
+        QueuedRun created = evaluation("queue-single-flight@example.com");
+        
+        List<MvcResult> responses = concurrentRuns(created.jwt(), created.evaluationId(), 4);
+        
+        int started = 0;
+        for (MvcResult response : responses) {
+            assertEquals(202, response.getResponse().getStatus());
+            if (response.getResponse().getContentAsString().contains("queued for scoring")) {
+                started++;
+            }
+        }
+        assertEquals(1, started);
+        Evaluation evaluation = evaluationRepository.findById(created.evaluationId()).orElseThrow();
+        assertEquals(Evaluation.Status.RUNNING, evaluation.getStatus());
+        assertEquals(1, evaluation.getRunNumber());
+        
+        // One run's worth of work: a single chunk, claimed once
+        ClaimedChunk chunk = claim("worker-a", created.evaluationId());
+        assertEquals(1, chunk.getRunNumber());
+        assertTrue(queueService.claim("worker-b").isEmpty());
+        assertTrue(queueService.complete(chunk, scores(chunk, 50)));
+    }
+    
+    @Test
+    void testConcurrentRequestsOfRejectedRunAreAllRejected() throws Exception {
+        String jwt = registerUser("queue-rejected@example.com", "password123");
+        Long roleId = createRole(jwt, "Unfinished Role", "Java services");
+        createKeywordCriterion(jwt, roleId, "Skills", 60, List.of("java"));
+        Resume first = uploadResume(jwt, roleId, "first.pdf", createPdf("Java developer"));
+        Resume second = uploadResume(jwt, roleId, "second.pdf", createPdf("Java and Docker developer"));
+        Long evaluationId = createEvaluation(jwt, roleId, List.of(first.getId(), second.getId()));
+        
+        // Waiters re-read the evaluation after the first request rolls back, rather than
+        // reporting a run that never started
+        for (MvcResult response : concurrentRuns(jwt, evaluationId, 4)) {
+            assertEquals(400, response.getResponse().getStatus());
+        }
+        assertEquals(Evaluation.Status.CREATED, evaluationRepository.findById(evaluationId).orElseThrow().getStatus());
+    }
+}
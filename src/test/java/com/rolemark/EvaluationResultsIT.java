@@ -0,0 +1,144 @@
+package com.rolemark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.rolemark.entity.Evaluation;
+import com.rolemark.entity.Resume;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class EvaluationResultsIT extends AbstractIntegrationTest {
+    
+    private record ScoredEvaluation(String jwt, Long evaluationId, Resume strong, Resume weak) {
+    }
+    
+    // Helper: Score two resumes against one keyword criterion; "strong" has both keywords, "weak" one
+    private ScoredEvaluation scoredEvaluation(String email) throws Exception {
+        String jwt = registerUser(email, "password123");
+        Long roleId = createRole(jwt, "Backend Engineer", "Java services running in Docker");
+        createKeywordCriterion(jwt, roleId, "Skills", 100, List.of("java", "docker"));
+        Resume strong = uploadResume(jwt, roleId, "strong.pdf", createPdf("Java developer shipping Docker images"));
+        Resume weak = uploadResume(jwt, roleId, "weak.pdf", createPdf("Java developer"));
+        Long evaluationId = createEvaluation(jwt, roleId, List.of(weak.getId(), strong.getId()));
+        
+        mockMvc.perform(post("/api/evaluations/" + evaluationId + "/run")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isAccepted());
+        assertEquals(Evaluation.Status.COMPLETED, awaitEvaluation(evaluationId).getStatus());
+        return new ScoredEvaluation(jwt, evaluationId, strong, weak);
+    }
+    
+    // Helper: GET a streamed route and return the body once the async dispatch has written it
+    private MvcResult getStreamed(String jwt, String path) throws Exception {
+        MvcResult started = mockMvc.perform(get(path)
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+    
+    @Test
+    void testResultsAreStreamedAsJsonArray() throws Exception {
+        ScoredEvaluation scored = scoredEvaluation("results-stream@example.com");
+        
+        MvcResult result = getStreamed(scored.jwt(), "/api/evaluations/" + scored.evaluationId() + "/results");
+        assertTrue(result.getResponse().getContentType().startsWith("application/json"));
+        
+        JsonNode results = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertTrue(results.isArray());
+        assertEquals(2, results.size());
+        for (JsonNode row : results) {
+            assertTrue(row.has("totalScorePct"));
+            assertTrue(row.has("breakdown"));
+        }
+    }
+    
+    @Test
+    void testNoServerTimingHeaderByDefault() throws Exception {
+        ScoredEvaluation scored = scoredEvaluation("timing-off@example.com");
+        
+        mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "untimed.pdf", "application/pdf", createPdf("Untimed resume")))
+                        .header("Authorization", "Bearer " + scored.jwt()))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Server-Timing"));
+        MvcResult result = getStreamed(scored.jwt(), "/api/evaluations/" + scored.evaluationId() + "/results");
+        assertNull(result.getResponse().getHeader("Server-Timing"));
+    }
+    
+    @Test
+    void testNdjsonExportRanksByScore() throws Exception {
+        ScoredEvaluation scored = scoredEvaluation("export-ndjson@example.com");
+        
+        MvcResult result = getStreamed(scored.jwt(),
+                "/api/evaluations/" + scored.evaluationId() + "/export?format=ndjson");
+        assertTrue(result.getResponse().getContentType().startsWith("application/x-ndjson"));
+        assertTrue(result.getResponse().getHeader("Content-Disposition")
+                .contains("evaluation-" + scored.evaluationId() + "-results.ndjson"));
+        
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(1, first.path("rank").asInt());
+        assertEquals(scored.strong().getId().longValue(), first.path("resumeId").asLong());
+        assertEquals("strong.pdf", first.path("filename").asText());
+        assertEquals(2, second.path("rank").asInt());
+        assertEquals(scored.weak().getId().longValue(), second.path("resumeId").asLong());
+        assertTrue(first.path("totalScore").decimalValue().compareTo(second.path("totalScore").decimalValue()) > 0);
+        
+        JsonNode criterionScore = first.path("criterionScores").get(0);
+        assertEquals("Skills", criterionScore.path("criterionName").asText());
+        assertFalse(criterionScore.path("score").isNull());
+    }
+    
+    @Test
+    void testCsvExportHasOneColumnPerCriterion() throws Exception {
+        ScoredEvaluation scored = scoredEvaluation("export-csv@example.com");
+        
+        MvcResult result = getStreamed(scored.jwt(),
+                "/api/evaluations/" + scored.evaluationId() + "/export?format=csv");
+        assertTrue(result.getResponse().getContentType().startsWith("text/csv"));
+        
+        String[] lines = result.getResponse().getContentAsString().split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("rank,resume_id,filename,total_score,total_score_pct,Skills", lines[0]);
+        assertTrue(lines[1].startsWith("1," + scored.strong().getId() + ",strong.pdf,"));
+        assertTrue(lines[2].startsWith("2," + scored.weak().getId() + ",weak.pdf,"));
+    }
+    
+    @Test
+    void testExportRejectsUnknownFormatAndOtherUsers() throws Exception {
+        ScoredEvaluation scored = scoredEvaluation("export-owner@example.com");
+        String path = "/api/evaluations/" + scored.evaluationId() + "/export";
+        
+        mockMvc.perform(get(path).param("format", "xlsx")
+                        .header("Authorization", "Bearer " + scored.jwt()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Unsupported export format")));
+        
+        // Nothing is streamed for an evaluation the caller does not own
+        String otherJwt = registerUser("export-other@example.com", "password123");
+        mockMvc.perform(get(path).header("Authorization", "Bearer " + otherJwt))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/evaluations/" + scored.evaluationId() + "/results")
+                        .header("Authorization", "Bearer " + otherJwt))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+        
+        // Without a token the request is turned away before anything is streamed
+        mockMvc.perform(get(path))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,96 @@
+package com.rolemark;
+
+import com.rolemark.entity.IngestionOutboxEvent;
+import com.rolemark.entity.Resume;
+import com.rolemark.service.IngestionOutboxService;
+import com.rolemark.service.IngestionOutboxService.ClaimedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// No stage pollers: the tests claim extract events themselves and check whose comes next.
+// A user's third queued upload is bulk; a user may hold two events in flight.
+@TestPropertySource(properties = {
+        "rolemark.ingestion.extract.workers=0",
+        "rolemark.ingestion.parse.workers=0",
+        "rolemark.ingestion.index.workers=0",
+        "rolemark.ingestion.pre-score.workers=0",
+        "rolemark.fair-scheduling.bulk-threshold=2",
+        "rolemark.fair-scheduling.bulk-weight=4",
+        "rolemark.fair-scheduling.max-in-flight-per-tenant=2"
+})
+public class FairSchedulingIT extends AbstractIntegrationTest {
+    
+    @Autowired
+    private IngestionOutboxService outboxService;
+    
+    // Helper: Upload a resume without waiting for ingestion, which nothing here runs
+    private Long upload(String jwt, String line) throws Exception {
+        MvcResult result = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "queued.pdf", "application/pdf", createPdf(line)))
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), Resume.class).getId();
+    }
+    
+    private ClaimedEvent claim() {
+        return outboxService.claim(IngestionOutboxEvent.Stage.EXTRACT, "test-poller", 3).orElseThrow();
+    }
+    
+    // Helper: Send a claimed event back to wait well past the test
+    private void park(ClaimedEvent event) {
+        outboxService.fail(event, "IOException: parked by test", Duration.ofHours(1));
+    }
+    
+    @Test
+    void testClaimsAlternateBetweenTenantsUpToTheCap() throws Exception {
+        String bulkUser = registerUser("fair-bulk@example.com", "password123");
+        String singleUser = registerUser("fair-single@example.com", "password123");
+        Long first = upload(bulkUser, "Bulk resume one");
+        Long second = upload(bulkUser, "Bulk resume two");
+        Long third = upload(bulkUser, "Bulk resume three");
+        Long single = upload(singleUser, "Single resume");
+        
+        // Equal load: the work due longest goes first
+        ClaimedEvent claimedFirst = claim();
+        assertEquals(first, claimedFirst.getResumeId());
+        assertFalse(claimedFirst.isBulk());
+        // The single upload jumps the rest of the import
+        assertEquals(single, claim().getResumeId());
+        assertEquals(second, claim().getResumeId());
+        
+        // The importing user is at the cap with work still due
+        assertTrue(outboxService.claim(IngestionOutboxEvent.Stage.EXTRACT, "test-poller", 3).isEmpty());
+        
+        park(claimedFirst);
+        ClaimedEvent claimedThird = claim();
+        assertEquals(third, claimedThird.getResumeId());
+        assertTrue(claimedThird.isBulk());
+    }
+    
+    @Test
+    void testBulkOnlyTenantYieldsToInteractiveWork() throws Exception {
+        String bulkUser = registerUser("fair-bulk-only@example.com", "password123");
+        upload(bulkUser, "Import resume one");
+        upload(bulkUser, "Import resume two");
+        Long bulk = upload(bulkUser, "Import resume three");
+        park(claim());
+        park(claim());
+        
+        // Only the bulk upload is left due; it has waited longest but weighs four times as much
+        String lateUser = registerUser("fair-late@example.com", "password123");
+        Long interactive = upload(lateUser, "Late resume");
+        
+        assertEquals(interactive, claim().getResumeId());
+        assertEquals(bulk, claim().getResumeId());
+    }
+}
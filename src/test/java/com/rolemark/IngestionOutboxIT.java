@@ -0,0 +1,132 @@
+package com.rolemark;
+
+import com.rolemark.entity.IngestionOutboxEvent;
+import com.rolemark.entity.Resume;
+import com.rolemark.repository.IngestionOutboxRepository;
+import com.rolemark.repository.ResumeUploadRepository;
+import com.rolemark.service.IngestionOutboxService;
+import com.rolemark.service.IngestionOutboxService.ClaimedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// No stage pollers: the tests claim and settle events themselves
+@TestPropertySource(properties = {
+        "rolemark.ingestion.extract.workers=0",
+        "rolemark.ingestion.parse.workers=0",
+        "rolemark.ingestion.index.workers=0",
+        "rolemark.ingestion.pre-score.workers=0"
+})
+public class IngestionOutboxIT extends AbstractIntegrationTest {
+    
+    @Autowired
+    private IngestionOutboxService outboxService;
+    
+    @Autowired
+    private IngestionOutboxRepository outboxRepository;
+    
+    @Autowired
+    private ResumeUploadRepository resumeUploadRepository;
+    
+    // Helper: Upload a resume without waiting for ingestion, which nothing here runs
+    private Resume upload(String email, String line) throws Exception {
+        String jwt = registerUser(email, "password123");
+        MvcResult result = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "queued.pdf", "application/pdf", createPdf(line)))
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), Resume.class);
+    }
+    
+    private ClaimedEvent claim(IngestionOutboxEvent.Stage stage, Long resumeId, int maxAttempts) {
+        ClaimedEvent event = outboxService.claim(stage, "test-poller", maxAttempts).orElseThrow();
+        assertEquals(resumeId, event.getResumeId());
+        return event;
+    }
+    
+    private IngestionOutboxEvent event(Long resumeId, IngestionOutboxEvent.Stage stage) {
+        return outboxRepository.findAll().stream()
+                .filter(e -> e.getResumeId().equals(resumeId) && e.getStage() == stage)
+                .findFirst()
+                .orElseThrow();
+    }
+    
+    @Test
+    void testRetryIsDelayedByBackoff() throws Exception {
+        Resume resume = upload("outbox-retry@example.com", "Retried resume");
+        ClaimedEvent first = claim(IngestionOutboxEvent.Stage.EXTRACT, resume.getId(), 3);
+        
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.fail(first, "IOException: disk full", Duration.ofMinutes(10));
+        
+        IngestionOutboxEvent retried = event(resume.getId(), IngestionOutboxEvent.Stage.EXTRACT);
+        assertEquals(IngestionOutboxEvent.Status.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertEquals("IOException: disk full", retried.getLastError());
+        assertTrue(retried.getAvailableAt().isAfter(before.plusMinutes(9)));
+        assertNull(retried.getLeaseToken());
+        
+        // Not due until the backoff has passed; the upload is kept for the retry
+        assertTrue(outboxService.claim(IngestionOutboxEvent.Stage.EXTRACT, "test-poller", 3).isEmpty());
+        assertTrue(resumeUploadRepository.existsById(resume.getId()));
+        assertEquals(Resume.IngestionStatus.PENDING, resumeRepository.findById(resume.getId()).orElseThrow().getIngestionStatus());
+    }
+    
+    @Test
+    void testTerminalFailureFailsResumeAndDropsUpload() throws Exception {
+        Resume resume = upload("outbox-failed@example.com", "Failed resume");
+        ClaimedEvent event = claim(IngestionOutboxEvent.Stage.EXTRACT, resume.getId(), 1);
+        
+        outboxService.fail(event, "PDF has no text", null);
+        
+        Resume failed = resumeRepository.findById(resume.getId()).orElseThrow();
+        assertEquals(Resume.IngestionStatus.FAILED, failed.getIngestionStatus());
+        assertEquals("PDF has no text", failed.getIngestionError());
+        assertEquals(IngestionOutboxEvent.Status.FAILED, event(resume.getId(), IngestionOutboxEvent.Stage.EXTRACT).getStatus());
+        assertFalse(resumeUploadRepository.existsById(resume.getId()));
+    }
+    
+    @Test
+    void testStaleLeaseCannotSettleEvent() throws Exception {
+        Resume resume = upload("outbox-stale@example.com", "Stale resume");
+        ClaimedEvent event = claim(IngestionOutboxEvent.Stage.EXTRACT, resume.getId(), 3);
+        outboxService.fail(event, "IOException: timeout", Duration.ZERO);
+        
+        // The first claim's token was released with the retry, so neither outcome lands
+        assertFalse(outboxService.complete(event, () -> IngestionOutboxEvent.Stage.PARSE));
+        outboxService.fail(event, "late failure", null);
+        assertEquals(Resume.IngestionStatus.PENDING, resumeRepository.findById(resume.getId()).orElseThrow().getIngestionStatus());
+        
+        ClaimedEvent retry = claim(IngestionOutboxEvent.Stage.EXTRACT, resume.getId(), 3);
+        assertEquals(2, retry.getAttempt());
+    }
+    
+    @Test
+    void testFailedPreScoreLeavesResumeUsable() throws Exception {
+        Resume resume = upload("outbox-prescore@example.com", "Pre-scored resume");
+        Resume ready = resumeRepository.findById(resume.getId()).orElseThrow();
+        ready.setIngestionStatus(Resume.IngestionStatus.READY);
+        resumeRepository.save(ready);
+        outboxRepository.deleteAll(List.of(event(resume.getId(), IngestionOutboxEvent.Stage.EXTRACT)));
+        outboxService.enqueue(resume.getId(), IngestionOutboxEvent.Stage.PRE_SCORE);
+        
+        ClaimedEvent event = claim(IngestionOutboxEvent.Stage.PRE_SCORE, resume.getId(), 1);
+        outboxService.fail(event, "Scoring timed out", null);
+        
+        assertEquals(IngestionOutboxEvent.Status.FAILED, event(resume.getId(), IngestionOutboxEvent.Stage.PRE_SCORE).getStatus());
+        Resume after = resumeRepository.findById(resume.getId()).orElseThrow();
+        assertEquals(Resume.IngestionStatus.READY, after.getIngestionStatus());
+        assertNull(after.getPreScorePct());
+    }
+}
@@ -0,0 +1,88 @@
+package com.rolemark;
+
+import com.rolemark.dto.SignupRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// One slow hashing thread and a one-slot queue, so a handful of signups saturates it;
+// the endpoint limiter is off so every 503 here comes from the password pool
+@TestPropertySource(properties = {
+        "rolemark.auth.bcrypt-strength=14",
+        "rolemark.auth.password-hashing.threads=1",
+        "rolemark.auth.password-hashing.queue-capacity=1",
+        "rolemark.auth.password-hashing.max-queue-wait=100ms",
+        "rolemark.auth.password-hashing.retry-after=3s",
+        "rolemark.concurrency-limits.enabled=false"
+})
+public class PasswordHashingIT extends AbstractIntegrationTest {
+    
+    // Helper: Send the signups at once; returns each response
+    private List<MvcResult> concurrentSignups(String prefix, int requests) throws Exception {
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        List<MvcResult> responses = new ArrayList<>();
+        try {
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                SignupRequest signupRequest = new SignupRequest();
+                signupRequest.setEmail(prefix + i + "@example.com");
+                signupRequest.setPassword("password123");
+                String body = objectMapper.writeValueAsString(signupRequest);
+                Callable<MvcResult> signup = () -> {
+                    go.await();
+                    return mockMvc.perform(post("/api/auth/register")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn();
+                };
+                results.add(executor.submit(signup));
+            }
+            go.countDown();
+            for (Future<MvcResult> result : results) {
+                responses.add(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return responses;
+    }
+    
+    @Test
+    void testSaturatedHashingPoolAnswers503() throws Exception {
+        List<MvcResult> responses = concurrentSignups("hashing-burst-", 6);
+        
+        int hashed = 0;
+        int shed = 0;
+        for (MvcResult response : responses) {
+            int status = response.getResponse().getStatus();
+            if (status == 200) {
+                hashed++;
+            } else {
+                assertEquals(503, status);
+                assertEquals("3", response.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+                assertTrue(response.getResponse().getContentAsString().contains("SERVICE_UNAVAILABLE"));
+                shed++;
+            }
+        }
+        // The thread hashes one signup; the rest overflow the queue or outwait it
+        assertTrue(hashed >= 1);
+        assertTrue(shed >= 1);
+        
+        // Once the burst has drained, signups are hashed again
+        registerUser("hashing-after@example.com", "password123");
+    }
+}
@@ -1,28 +1,38 @@
 package com.rolemark;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rolemark.dto.AuthResponse;
+import com.rolemark.dto.CursorPage;
 import com.rolemark.dto.LoginRequest;
-import com.rolemark.dto.RoleRequest;
-import com.rolemark.dto.RoleResponse;
-import com.rolemark.dto.SignupRequest;
+import com.rolemark.dto.ResumeSummary;
+import com.rolemark.entity.ExtractedSignal;
 import com.rolemark.entity.Resume;
+import com.rolemark.entity.ResumeText;
 import com.rolemark.exception.GlobalExceptionHandler;
+import com.rolemark.repository.ExtractedSignalRepository;
+import com.rolemark.repository.ExtractionCacheRepository;
+import com.rolemark.repository.ResumeTextRepository;
+import com.rolemark.repository.ResumeUploadRepository;
+import com.rolemark.service.ResumeParserService;
+import com.rolemark.service.ResumeTextService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
-import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,26 +40,25 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class ResumeIngestionIT extends AbstractIntegrationTest {
     
     @Autowired
-    private MockMvc mockMvc;
+    private ExtractionCacheRepository extractionCacheRepository;
     
     @Autowired
-    private ObjectMapper objectMapper;
+    private ExtractedSignalRepository extractedSignalRepository;
     
-    // Helper: Register a new user
-    private String registerUser(String email, String password) throws Exception {
-        SignupRequest signupRequest = new SignupRequest();
-        signupRequest.setEmail(email);
-        signupRequest.setPassword(password);
-        
-        MvcResult result = mockMvc.perform(post("/api/auth/register")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(signupRequest)))
-                .andExpect(status().isOk())
-                .andReturn();
-        
-        AuthResponse response = objectMapper.readValue(
-                result.getResponse().getContentAsString(), AuthResponse.class);
-        return response.getToken();
+    @Autowired
+    private ResumeTextService resumeTextService;
+    
+    @Autowired
+    private ResumeTextRepository resumeTextRepository;
+    
+    @Autowired
+    private ResumeUploadRepository resumeUploadRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private double cacheRequests(String result) {
+        return meterRegistry.get("rolemark.extraction.cache.requests").tag("result", result).counter().count();
     }
     
     // Helper: Login and get JWT token
@@ -69,24 +78,6 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
         return response.getToken();
     }
     
-    // Helper: Create a role and return its ID
-    private Long createRole(String jwtToken, String title, String jobDescription) throws Exception {
-        RoleRequest roleRequest = new RoleRequest();
-        roleRequest.setTitle(title);
-        roleRequest.setJobDescription(jobDescription);
-        
-        MvcResult result = mockMvc.perform(post("/api/roles")
-                        .header("Authorization", "Bearer " + jwtToken)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(roleRequest)))
-                .andExpect(status().isCreated())
-                .andReturn();
-        
-        RoleResponse response = objectMapper.readValue(
-                result.getResponse().getContentAsString(), RoleResponse.class);
-        return response.getId();
-    }
-    
     // PDF Factory: Generate a 1-page valid PDF
     private byte[] createOnePagePdf() throws Exception {
         try (PDDocument document = new PDDocument()) {
@@ -95,7 +86,7 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
             
             try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
                 contentStream.beginText();
-                contentStream.setFont(PDType1Font.HELVETICA, 12);
+                contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
                 contentStream.newLineAtOffset(50, 750);
                 contentStream.showText("Test Resume - Page 1");
                 contentStream.endText();
@@ -116,7 +107,7 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
                 
                 try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
                     contentStream.beginText();
-                    contentStream.setFont(PDType1Font.HELVETICA, 12);
+                    contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
                     contentStream.newLineAtOffset(50, 750);
                     contentStream.showText("Test Resume - Page " + i);
                     contentStream.endText();
@@ -129,6 +120,17 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
         }
     }
     
+    // PDF Factory: Generate a 1-page PDF with no text layer (like a scanned image)
+    private byte[] createNoTextPdf() throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            document.save(baos);
+            return baos.toByteArray();
+        }
+    }
+    
     // PDF Factory: Generate oversized PDF bytes (>2.5MB)
     // Since size is checked before parsing, we can create a valid PDF with many pages
     private byte[] createOversizedPdf() throws Exception {
@@ -142,7 +144,7 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
                 
                 try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
                     contentStream.beginText();
-                    contentStream.setFont(PDType1Font.HELVETICA, 12);
+                    contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
                     contentStream.newLineAtOffset(50, 750);
                     // Add substantial text to increase size
                     String text = "Test Resume - Page " + i + " - " + 
@@ -176,7 +178,7 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
                 
                 try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
                     contentStream.beginText();
-                    contentStream.setFont(PDType1Font.HELVETICA, 12);
+                    contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
                     contentStream.newLineAtOffset(50, 750);
                     String text = "Test Resume - Page " + i + " - " + 
                             "This is a longer text to increase the file size significantly. ".repeat(100);
@@ -214,6 +216,10 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
                 result.getResponse().getContentAsString(), Resume.class);
         assertNotNull(resume.getId());
         assertEquals("resume.pdf", resume.getFilename());
+        assertEquals(Resume.IngestionStatus.READY, awaitIngested(resume.getId()).getIngestionStatus());
+        assertFalse(resumeTextService.load(resume.getId()).isBlank());
+        // The raw bytes are only kept until their text is stored
+        assertFalse(resumeUploadRepository.existsById(resume.getId()));
         
         // Verify resume is in the list
         MvcResult listResult = mockMvc.perform(get("/api/resumes")
@@ -228,6 +234,30 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
         assertEquals(resume.getId(), resumes.get(0).getId());
     }
     
+    @Test
+    void testUploadForRoleIsPreScored() throws Exception {
+        String jwt = registerUser("prescore@example.com", "password123");
+        Long roleId = createRole(jwt, "Backend Engineer", "Java services running in Docker");
+        createKeywordCriterion(jwt, roleId, "Skills", 100, List.of("java", "docker"));
+        Long unscoredRoleId = createRole(jwt, "Unfinished Role", "Weights still being set");
+        createKeywordCriterion(jwt, unscoredRoleId, "Skills", 50, List.of("java"));
+        
+        Resume scored = uploadResume(jwt, roleId, "scored.pdf", createPdf("Java developer"));
+        Resume unscored = uploadResume(jwt, unscoredRoleId, "unscored.pdf", createPdf("Java engineer"));
+        
+        // PRE_SCORE runs after the resume turns READY, so give it a moment
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (resumeRepository.findById(scored.getId()).orElseThrow().getPreScorePct() == null
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, new BigDecimal("50.0").compareTo(
+                resumeRepository.findById(scored.getId()).orElseThrow().getPreScorePct()));
+        // A rubric whose weights do not sum to 100 leaves the pre-score empty
+        assertEquals(Resume.IngestionStatus.READY, unscored.getIngestionStatus());
+        assertNull(resumeRepository.findById(unscored.getId()).orElseThrow().getPreScorePct());
+    }
+    
     @Test
     void testUploadResumeSizeLimit() throws Exception {
         // Register and login user
@@ -281,6 +311,183 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
                    error.getMessage().contains("exceeds"));
     }
     
+    @Test
+    void testUploadResumeWithoutTextRejected() throws Exception {
+        // Register and login user
+        String email = "test4@example.com";
+        String password = "password123";
+        String jwt = registerUser(email, password);
+        
+        // Create a PDF with no fonts, rejected by preflight before PDFBox parses it
+        byte[] pdfBytes = createNoTextPdf();
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "scanned-resume.pdf", "application/pdf", pdfBytes);
+        
+        MvcResult result = mockMvc.perform(multipart("/api/resumes")
+                        .file(file)
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        
+        GlobalExceptionHandler.ErrorResponse error = objectMapper.readValue(
+                result.getResponse().getContentAsString(), GlobalExceptionHandler.ErrorResponse.class);
+        assertTrue(error.getMessage().contains("no extractable text"));
+    }
+    
+    @Test
+    void testIdenticalUploadsShareExtractionCache() throws Exception {
+        // Register two users who upload the same file
+        String jwtA = registerUser("cacheA@example.com", "password123");
+        String jwtB = registerUser("cacheB@example.com", "password123");
+        
+        byte[] pdfBytes = createOnePagePdf();
+        double hitsBefore = cacheRequests("hit");
+        double lookupsBefore = hitsBefore + cacheRequests("miss");
+        
+        MvcResult resultA = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "a.pdf", "application/pdf", pdfBytes))
+                        .header("Authorization", "Bearer " + jwtA))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Resume resumeA = objectMapper.readValue(resultA.getResponse().getContentAsString(), Resume.class);
+        assertEquals(Resume.IngestionStatus.READY, awaitIngested(resumeA.getId()).getIngestionStatus());
+        
+        MvcResult resultB = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "b.pdf", "application/pdf", pdfBytes))
+                        .header("Authorization", "Bearer " + jwtB))
+                .andExpect(status().isCreated())
+                .andReturn();
+        
+        Resume resumeB = objectMapper.readValue(resultB.getResponse().getContentAsString(), Resume.class);
+        assertEquals(Resume.IngestionStatus.READY, awaitIngested(resumeB.getId()).getIngestionStatus());
+        
+        // Second upload is served from the cache: same derived data, separate resume owned by B
+        assertNotEquals(resumeA.getId(), resumeB.getId());
+        assertNotEquals(resumeA.getUserId(), resumeB.getUserId());
+        assertEquals("b.pdf", resumeB.getFilename());
+        assertEquals(resumeA.getChecksumSha256(), resumeB.getChecksumSha256());
+        assertEquals(resumeTextService.load(resumeA.getId()), resumeTextService.load(resumeB.getId()));
+        assertTrue(extractionCacheRepository.findByChecksumSha256AndParserVersion(
+                resumeA.getChecksumSha256(), ResumeParserService.PARSER_VERSION).isPresent());
+        assertEquals(extractedSignalRepository.findByResumeId(resumeA.getId()).size(),
+                extractedSignalRepository.findByResumeId(resumeB.getId()).size());
+        
+        // One counted lookup per upload, however many stages read the cache
+        assertEquals(2, cacheRequests("hit") + cacheRequests("miss") - lookupsBefore);
+        assertTrue(cacheRequests("hit") - hitsBefore >= 1);
+    }
+    
+    @Test
+    void testDuplicateUploadReturnsExistingResume() throws Exception {
+        String jwt = registerUser("dedup@example.com", "password123");
+        Long roleId = createRole(jwt, "Dedup Role", "Job description for dedup");
+        byte[] pdfBytes = createOnePagePdf();
+        
+        MvcResult first = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "resume.pdf", "application/pdf", pdfBytes))
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("Idempotency-Key", "upload-1"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Resume original = objectMapper.readValue(first.getResponse().getContentAsString(), Resume.class);
+        
+        // Same file again, now for a role: existing resume is returned and linked to the role
+        MvcResult second = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "resume-copy.pdf", "application/pdf", pdfBytes))
+                        .param("roleId", String.valueOf(roleId))
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andReturn();
+        Resume duplicate = objectMapper.readValue(second.getResponse().getContentAsString(), Resume.class);
+        assertEquals(original.getId(), duplicate.getId());
+        assertEquals(roleId, duplicate.getRoleId());
+        
+        // Retrying with the same key replays the original resume
+        mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "resume.pdf", "application/pdf", pdfBytes))
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("Idempotency-Key", "upload-1"))
+                .andExpect(status().isOk());
+        
+        // Reusing the key for a different file is rejected
+        mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "other.pdf", "application/pdf", createOnePagePdf()))
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("Idempotency-Key", "upload-1"))
+                .andExpect(status().isBadRequest());
+        
+        MvcResult listResult = mockMvc.perform(get("/api/resumes")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<Resume> resumes = objectMapper.readValue(
+                listResult.getResponse().getContentAsString(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, Resume.class));
+        assertEquals(1, resumes.size());
+    }
+    
+    @Test
+    void testSameFileUploadedForTwoRoles() throws Exception {
+        String jwt = registerUser("two-roles@example.com", "password123");
+        Long firstRoleId = createRole(jwt, "First Role", "Job description for the first role");
+        Long secondRoleId = createRole(jwt, "Second Role", "Job description for the second role");
+        byte[] pdfBytes = createOnePagePdf();
+        
+        MvcResult firstResult = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "resume.pdf", "application/pdf", pdfBytes))
+                        .param("roleId", String.valueOf(firstRoleId))
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Resume first = objectMapper.readValue(firstResult.getResponse().getContentAsString(), Resume.class);
+        
+        // The same file for another role is filed there as its own resume
+        MvcResult secondResult = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "resume.pdf", "application/pdf", pdfBytes))
+                        .param("roleId", String.valueOf(secondRoleId))
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("Idempotency-Key", "second-role"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Resume second = awaitIngested(objectMapper.readValue(
+                secondResult.getResponse().getContentAsString(), Resume.class).getId());
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(secondRoleId, second.getRoleId());
+        assertEquals(Resume.IngestionStatus.READY, second.getIngestionStatus());
+        assertEquals(firstRoleId, resumeRepository.findById(first.getId()).orElseThrow().getRoleId());
+        
+        // Uploading it again for the first role still returns the first resume
+        MvcResult again = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "resume-copy.pdf", "application/pdf", pdfBytes))
+                        .param("roleId", String.valueOf(firstRoleId))
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(first.getId(), objectMapper.readValue(again.getResponse().getContentAsString(), Resume.class).getId());
+        
+        // A retry must name the role its key was first sent with
+        mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "resume.pdf", "application/pdf", pdfBytes))
+                        .param("roleId", String.valueOf(firstRoleId))
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("Idempotency-Key", "second-role"))
+                .andExpect(status().isBadRequest());
+        
+        // Each role lists its own copy
+        for (Long roleId : List.of(firstRoleId, secondRoleId)) {
+            MvcResult listResult = mockMvc.perform(get("/api/resumes")
+                            .param("roleId", String.valueOf(roleId))
+                            .header("Authorization", "Bearer " + jwt))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<Resume> resumes = objectMapper.readValue(
+                    listResult.getResponse().getContentAsString(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, Resume.class));
+            assertEquals(1, resumes.size());
+            assertEquals(roleId, resumes.get(0).getRoleId());
+        }
+    }
+    
     @Test
     void testUploadResumeRoleOwnership() throws Exception {
         // Register and login user A
@@ -415,9 +622,9 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
                 .andExpect(status().isOk())
                 .andReturn();
         
-        List<Resume> resumesA = objectMapper.readValue(
+        List<ResumeSummary> resumesA = objectMapper.readValue(
                 resultA.getResponse().getContentAsString(),
-                objectMapper.getTypeFactory().constructCollectionType(List.class, Resume.class));
+                objectMapper.getTypeFactory().constructCollectionType(List.class, ResumeSummary.class));
         assertEquals(2, resumesA.size());
         
         // User B should see only 1 resume
@@ -426,10 +633,98 @@ public class ResumeIngestionIT extends AbstractIntegrationTest {
                 .andExpect(status().isOk())
                 .andReturn();
         
-        List<Resume> resumesB = objectMapper.readValue(
+        List<ResumeSummary> resumesB = objectMapper.readValue(
                 resultB.getResponse().getContentAsString(),
-                objectMapper.getTypeFactory().constructCollectionType(List.class, Resume.class));
+                objectMapper.getTypeFactory().constructCollectionType(List.class, ResumeSummary.class));
         assertEquals(1, resumesB.size());
     }
+    
+    @Test
+    void testGetResumesKeysetPagination() throws Exception {
+        String jwt = registerUser("paging@example.com", "password123");
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(multipart("/api/resumes")
+                            .file(new MockMultipartFile("file", "paged" + i + ".pdf", "application/pdf", createOnePagePdf()))
+                            .header("Authorization", "Bearer " + jwt))
+                    .andExpect(status().isCreated());
+        }
+        
+        // First page: the two newest, with a cursor for the rest
+        MvcResult first = mockMvc.perform(get("/api/resumes")
+                        .param("limit", "2")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(CursorPage.NEXT_CURSOR_HEADER))
+                .andReturn();
+        List<ResumeSummary> firstPage = objectMapper.readValue(
+                first.getResponse().getContentAsString(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, ResumeSummary.class));
+        assertEquals(List.of("paged3.pdf", "paged2.pdf"),
+                firstPage.stream().map(ResumeSummary::getFilename).toList());
+        
+        // Last page: the oldest, and no further cursor
+        MvcResult second = mockMvc.perform(get("/api/resumes")
+                        .param("limit", "2")
+                        .param("cursor", first.getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER))
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER))
+                .andReturn();
+        List<ResumeSummary> secondPage = objectMapper.readValue(
+                second.getResponse().getContentAsString(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, ResumeSummary.class));
+        assertEquals(List.of("paged1.pdf"), secondPage.stream().map(ResumeSummary::getFilename).toList());
+        
+        // Filters narrow the same keyset order
+        mockMvc.perform(get("/api/resumes")
+                        .param("filenamePrefix", "PAGED2")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].filename").value("paged2.pdf"));
+        
+        mockMvc.perform(get("/api/resumes")
+                        .param("cursor", "not-a-cursor")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void testPageEndpointAndSourcePage() throws Exception {
+        String jwt = registerUser("pages@example.com", "password123");
+        byte[] pdfBytes = createPdf("Jane Doe - Bachelor of Science", "Backend Engineer Jan 2018 - Mar 2020");
+        
+        MvcResult upload = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "two-pages.pdf", "application/pdf", pdfBytes))
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Resume resume = objectMapper.readValue(upload.getResponse().getContentAsString(), Resume.class);
+        assertEquals(Resume.IngestionStatus.READY, awaitIngested(resume.getId()).getIngestionStatus());
+        
+        // Signals point at the page their evidence is on
+        List<ExtractedSignal> signals = extractedSignalRepository.findByResumeId(resume.getId());
+        ExtractedSignal range = signals.stream().filter(s -> s.getType().equals("DATE_RANGE")).findFirst().orElseThrow();
+        ExtractedSignal education = signals.stream().filter(s -> s.getType().equals("EDUCATION_LEVEL_ESTIMATE")).findFirst().orElseThrow();
+        assertEquals(2, range.getSourcePage());
+        assertEquals(1, education.getSourcePage());
+        
+        mockMvc.perform(get("/api/resumes/" + resume.getId() + "/pages/2")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pageNumber").value(2))
+                .andExpect(jsonPath("$.text").value(containsString("Jan 2018")));
+        mockMvc.perform(get("/api/resumes/" + resume.getId() + "/pages/3")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isNotFound());
+        
+        // A text stored before page breaks were kept has no known pages
+        ResumeText text = resumeTextRepository.findById(resume.getId()).orElseThrow();
+        text.setPaged(false);
+        resumeTextRepository.save(text);
+        mockMvc.perform(get("/api/resumes/" + resume.getId() + "/pages/1")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.text").value(nullValue()));
+    }
 }
-
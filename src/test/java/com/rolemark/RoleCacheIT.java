@@ -0,0 +1,169 @@
+package com.rolemark;
+
+import com.rolemark.dto.CriterionRequest;
+import com.rolemark.service.CacheInvalidationBus;
+import com.rolemark.service.InvalidatableCache;
+import com.rolemark.service.RoleAggregateCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class RoleCacheIT extends AbstractIntegrationTest {
+    
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+    
+    @Autowired
+    private RoleAggregateCache roleCache;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    /** Stands in for the role cache of a second instance; records the keys it is told to evict. */
+    private static class RecordingCache implements InvalidatableCache {
+        final List<String> evicted = Collections.synchronizedList(new ArrayList<>());
+        
+        @Override
+        public String cacheName() {
+            return RoleAggregateCache.NAME;
+        }
+        
+        @Override
+        public void evict(String key) {
+            evicted.add(key);
+        }
+        
+        @Override
+        public void evictAll() {
+        }
+    }
+    
+    // Helper: Wait until the other instance has evicted key
+    private static boolean awaitEvicted(RecordingCache cache, String key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!cache.evicted.contains(key) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        return cache.evicted.contains(key);
+    }
+    
+    @Test
+    void testCommittedWriteEvictsOnOtherInstances() throws Exception {
+        RecordingCache otherInstance = new RecordingCache();
+        CacheInvalidationBus otherBus = new CacheInvalidationBus(List.of(otherInstance), jdbcTemplate,
+                dataSourceProperties, true);
+        otherBus.start();
+        try {
+            // Give the other instance time to LISTEN before anything is published
+            Thread.sleep(1_500);
+            
+            transactionTemplate.executeWithoutResult(status -> {
+                invalidationBus.publish(RoleAggregateCache.NAME, 4242L);
+                status.setRollbackOnly();
+            });
+            transactionTemplate.executeWithoutResult(status ->
+                    invalidationBus.publish(RoleAggregateCache.NAME, 4343L));
+            
+            assertTrue(awaitEvicted(otherInstance, "4343"));
+            // Notices ride on the writer's transaction, so the rolled-back one never arrived
+            assertFalse(otherInstance.evicted.contains("4242"));
+        } finally {
+            otherBus.stop();
+        }
+    }
+    
+    @Test
+    void testCriterionWriteInvalidatesCachedRole() throws Exception {
+        String jwt = registerUser("role-cache@example.com", "password123");
+        Long roleId = createRole(jwt, "Cached Role", "Job description for the cache");
+        
+        mockMvc.perform(get("/api/roles/" + roleId + "/criteria")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        long cachedVersion = roleCache.find(roleId).orElseThrow().getVersion();
+        
+        createKeywordCriterion(jwt, roleId, "Skills", 100, List.of("java"));
+        
+        mockMvc.perform(get("/api/roles/" + roleId + "/criteria")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        assertNotEquals(cachedVersion, roleCache.find(roleId).orElseThrow().getVersion());
+    }
+    
+    @Test
+    void testConcurrentCreatesStopAtCriteriaLimit() throws Exception {
+        String jwt = registerUser("criteria-limit@example.com", "password123");
+        Long roleId = createRole(jwt, "Limited Role", "Job description for the limit");
+        for (int i = 0; i < 14; i++) {
+            createKeywordCriterion(jwt, roleId, "Criterion " + i, 1, List.of("java"));
+        }
+        
+        CriterionRequest request = new CriterionRequest();
+        request.setName("Last");
+        request.setWeight(1);
+        request.setType("KEYWORD_SKILL");
+        request.setConfig(Map.of("requiredKeywords", List.of("java")));
+        String body = objectMapper.writeValueAsString(request);
+        
+        int attempts = 4;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                Callable<Integer> create = () -> {
+                    go.await();
+                    return mockMvc.perform(post("/api/roles/" + roleId + "/criteria")
+                                    .header("Authorization", "Bearer " + jwt)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn().getResponse().getStatus();
+                };
+                statuses.add(executor.submit(create));
+            }
+            go.countDown();
+            
+            int created = 0;
+            for (Future<Integer> status : statuses) {
+                int code = status.get();
+                if (code == 201) {
+                    created++;
+                } else {
+                    assertEquals(400, code);
+                }
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        mockMvc.perform(get("/api/roles/" + roleId + "/criteria")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(jsonPath("$.length()").value(15));
+    }
+}
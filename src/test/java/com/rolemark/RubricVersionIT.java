@@ -0,0 +1,82 @@
+package com.rolemark;
+
+import com.rolemark.repository.RubricVersionRepository;
+import com.rolemark.service.RoleAggregate;
+import com.rolemark.service.RoleAggregateCache;
+import com.rolemark.service.RubricVersionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RubricVersionIT extends AbstractIntegrationTest {
+    
+    @Autowired
+    private RubricVersionService rubricVersionService;
+    
+    @Autowired
+    private RubricVersionRepository rubricVersionRepository;
+    
+    @Autowired
+    private RoleAggregateCache roleCache;
+    
+    @Test
+    void testConcurrentFirstRunsShareOneVersion() throws Exception {
+        String jwt = registerUser("rubric-race@example.com", "password123");
+        Long roleId = createRole(jwt, "Raced Role", "Job description for the race");
+        createKeywordCriterion(jwt, roleId, "Skills", 100, List.of("java"));
+        RoleAggregate role = roleCache.find(roleId).orElseThrow();
+        long versionsBefore = rubricVersionRepository.count();
+        
+        int runs = 8;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(runs);
+        Set<Long> versionIds = new HashSet<>();
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                Callable<Long> resolve = () -> {
+                    go.await();
+                    return rubricVersionService.resolveVersionId(role);
+                };
+                results.add(executor.submit(resolve));
+            }
+            go.countDown();
+            for (Future<Long> result : results) {
+                versionIds.add(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        // The losers of the insert race hit ON CONFLICT DO NOTHING and read the winner's row
+        assertEquals(1, versionIds.size());
+        assertEquals(versionsBefore + 1, rubricVersionRepository.count());
+    }
+    
+    @Test
+    void testChangedRubricGetsNewVersion() throws Exception {
+        String jwt = registerUser("rubric-change@example.com", "password123");
+        Long roleId = createRole(jwt, "Changed Role", "Job description before the change");
+        createKeywordCriterion(jwt, roleId, "Skills", 60, List.of("java"));
+        
+        Long first = rubricVersionService.resolveVersionId(roleCache.find(roleId).orElseThrow());
+        assertEquals(first, rubricVersionService.resolveVersionId(roleCache.find(roleId).orElseThrow()));
+        
+        createKeywordCriterion(jwt, roleId, "Tools", 40, List.of("docker"));
+        Long second = rubricVersionService.resolveVersionId(roleCache.find(roleId).orElseThrow());
+        assertNotEquals(first, second);
+        assertEquals(2, ((List<?>) rubricVersionRepository.findById(second).orElseThrow()
+                .getCriteriaJson().get("criteria")).size());
+    }
+}
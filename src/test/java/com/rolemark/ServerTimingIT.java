@@ -0,0 +1,72 @@
+package com.rolemark;
+
+import com.rolemark.config.ServerTimingFilter;
+import com.rolemark.entity.Evaluation;
+import com.rolemark.entity.Resume;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@TestPropertySource(properties = "rolemark.server-timing.enabled=true")
+public class ServerTimingIT extends AbstractIntegrationTest {
+    
+    // Helper: Upload a resume, check its Server-Timing and wait until it is ingested
+    private Resume uploadTimed(String jwt, Long roleId, String filename, String line) throws Exception {
+        MvcResult result = mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", filename, "application/pdf", createPdf(line)))
+                        .param("roleId", String.valueOf(roleId))
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(ServerTimingFilter.HEADER, allOf(
+                        containsString("hash;dur="), containsString("extract;dur="),
+                        containsString("db-write;dur="), containsString("total;dur="))))
+                .andReturn();
+        Resume resume = objectMapper.readValue(result.getResponse().getContentAsString(), Resume.class);
+        return awaitIngested(resume.getId());
+    }
+    
+    @Test
+    void testHeaderOnUploadRunAndResults() throws Exception {
+        String jwt = registerUser("timing-on@example.com", "password123");
+        Long roleId = createRole(jwt, "Backend Engineer", "Java services");
+        createKeywordCriterion(jwt, roleId, "Skills", 100, List.of("java"));
+        Resume first = uploadTimed(jwt, roleId, "first.pdf", "Java developer");
+        Resume second = uploadTimed(jwt, roleId, "second.pdf", "Go developer");
+        Long evaluationId = createEvaluation(jwt, roleId, List.of(first.getId(), second.getId()));
+        
+        mockMvc.perform(post("/api/evaluations/" + evaluationId + "/run")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(ServerTimingFilter.HEADER, allOf(
+                        containsString("db-read;dur="), containsString("db-write;dur="))));
+        assertEquals(Evaluation.Status.COMPLETED, awaitEvaluation(evaluationId).getStatus());
+        
+        // Results are streamed on the MVC executor; the request's timing goes with them
+        MvcResult started = mockMvc.perform(get("/api/evaluations/" + evaluationId + "/results")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.HEADER, allOf(
+                        containsString("db-read;dur="), containsString("total;dur="))));
+    }
+    
+    @Test
+    void testNoHeaderOnOtherRoutes() throws Exception {
+        String jwt = registerUser("timing-other@example.com", "password123");
+        
+        mockMvc.perform(get("/api/resumes").header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTimingFilter.HEADER));
+    }
+}
@@ -0,0 +1,63 @@
+package com.rolemark;
+
+import com.rolemark.entity.IngestionOutboxEvent;
+import com.rolemark.repository.IngestionOutboxRepository;
+import com.rolemark.service.IngestionOutboxService;
+import com.rolemark.service.IngestionOutboxService.ClaimedEvent;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// No stage pollers: the test claims the extract event itself, as a worker would
+@TestPropertySource(properties = {
+        "rolemark.ingestion.extract.workers=0",
+        "rolemark.ingestion.parse.workers=0",
+        "rolemark.ingestion.index.workers=0",
+        "rolemark.ingestion.pre-score.workers=0",
+        "management.tracing.sampling.probability=1.0"
+})
+public class TracingIT extends AbstractIntegrationTest {
+    
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    
+    @Autowired
+    private IngestionOutboxService outboxService;
+    
+    @Autowired
+    private IngestionOutboxRepository outboxRepository;
+    
+    @Autowired
+    private Tracer tracer;
+    
+    @Test
+    void testQueuedStageContinuesTheUploadTrace() throws Exception {
+        String jwt = registerUser("traced-upload@example.com", "password123");
+        
+        // The caller's trace; the upload request span joins it
+        mockMvc.perform(multipart("/api/resumes")
+                        .file(new MockMultipartFile("file", "traced.pdf", "application/pdf", createPdf("Traced resume")))
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01"))
+                .andExpect(status().isCreated());
+        
+        // The outbox row carries the trace across the queue (trace_parent, V13)
+        IngestionOutboxEvent queued = outboxRepository.findAll().stream()
+                .filter(event -> event.getStage() == IngestionOutboxEvent.Stage.EXTRACT)
+                .findFirst().orElseThrow();
+        assertNotNull(queued.getTraceParent());
+        assertTrue(queued.getTraceParent().startsWith("00-" + TRACE_ID + "-"));
+        
+        ClaimedEvent claimed = outboxService.claim(IngestionOutboxEvent.Stage.EXTRACT, "test-poller", 3).orElseThrow();
+        assertEquals(queued.getTraceParent(), claimed.getTraceParent());
+        assertNull(tracer.currentSpan());
+        try (var ignored = outboxService.startSpan(claimed)) {
+            assertEquals(TRACE_ID, tracer.currentSpan().context().traceId());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.rolemark.bench;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Picks a BCrypt cost (BCRYPT_STRENGTH) for a target login p99. Not a test; run it by hand:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.rolemark.bench.BcryptCostBench [targetP99Ms] [hashingThreads] [secondsPerCost]
+ * </pre>
+ *
+ * For each cost from 8 to 14, {@code hashingThreads} threads (PASSWORD_HASHING_THREADS;
+ * default half the cores, as in the application) check passwords back to back for
+ * {@code secondsPerCost}. The report shows the per-login latency and the login rate the
+ * pool sustains at that cost. The recommended cost is the highest whose p99 stays
+ * under the target. Queueing adds to that p99 once logins arrive faster than the
+ * sustained rate, which is where the application starts shedding with 503s.
+ */
+public class BcryptCostBench {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    public static void main(String[] args) throws Exception {
+        long targetP99Millis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        long secondsPerCost = args.length > 2 ? Long.parseLong(args[2]) : 3;
+
+        System.out.printf("target p99=%dms hashing threads=%d%n", targetP99Millis, threads);
+        System.out.printf("%-5s %8s %8s %8s %12s%n", "cost", "p50 ms", "p99 ms", "max ms", "logins/s");
+
+        int recommended = -1;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int cost = 8; cost <= 14; cost++) {
+                BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+                String hash = encoder.encode(PASSWORD);
+                encoder.matches(PASSWORD, hash); // warm up
+
+                long deadline = System.nanoTime() + secondsPerCost * 1_000_000_000L;
+                long start = System.nanoTime();
+                List<Future<List<Long>>> workers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    workers.add(pool.submit(() -> {
+                        List<Long> latencies = new ArrayList<>();
+                        // At least a few samples even when one check outlasts the budget
+                        while (latencies.size() < 3 || System.nanoTime() < deadline) {
+                            long began = System.nanoTime();
+                            encoder.matches(PASSWORD, hash);
+                            latencies.add(System.nanoTime() - began);
+                        }
+                        return latencies;
+                    }));
+                }
+                List<Long> latencies = new ArrayList<>();
+                for (Future<List<Long>> worker : workers) {
+                    latencies.addAll(worker.get());
+                }
+                double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+                latencies.sort(null);
+
+                double p99 = millis(latencies, 0.99);
+                System.out.printf("%-5d %8.1f %8.1f %8.1f %12.1f%n", cost,
+                        millis(latencies, 0.50), p99, latencies.get(latencies.size() - 1) / 1e6,
+                        latencies.size() / elapsedSeconds);
+                if (p99 <= targetP99Millis) {
+                    recommended = cost;
+                } else {
+                    // Each further cost doubles the work; none of them can meet the target
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (recommended < 0) {
+            System.out.println("No cost from 8 up meets the target on this machine");
+        } else {
+            System.out.println("Recommended BCRYPT_STRENGTH=" + recommended);
+        }
+    }
+
+    private static double millis(List<Long> sorted, double percentile) {
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+}
@@ -0,0 +1,135 @@
+package com.rolemark.bench;
+
+import com.rolemark.config.WorkExecutors;
+import com.rolemark.service.PdfTextExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares request execution models under mixed I/O and CPU load. Not a test; run it by hand:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.rolemark.bench.ExecutorModelBench [requests] [clients] [ioMillis]
+ * </pre>
+ *
+ * Each simulated request waits {@code ioMillis} (a database read), extracts text from a
+ * two-page PDF (CPU), then waits again (a write). {@code clients} requests are kept in
+ * flight until {@code requests} have completed. Models:
+ * <ul>
+ *   <li>platform: 200 platform threads, like Tomcat's default pool, CPU work inline</li>
+ *   <li>platform+cpu-pool: the same, with CPU work on {@link WorkExecutors}' bounded pool</li>
+ *   <li>virtual+cpu-pool: a virtual thread per request, CPU work on the bounded pool</li>
+ * </ul>
+ */
+public class ExecutorModelBench {
+    
+    private static final int TOMCAT_MAX_THREADS = 200;
+    
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long ioMillis = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        byte[] pdf = twoPagePdf();
+        
+        System.out.printf("requests=%d clients=%d io=%dms cores=%d%n",
+                requests, clients, ioMillis, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-18s %10s %8s %8s %8s %8s%n", "model", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        
+        WorkExecutors platform = new WorkExecutors(false, 0, new SimpleMeterRegistry());
+        WorkExecutors virtual = new WorkExecutors(true, 0, new SimpleMeterRegistry());
+        try {
+            // Warm up the JIT and PDFBox once before measuring
+            run("warmup", Executors.newFixedThreadPool(TOMCAT_MAX_THREADS), null, pdf, requests / 4, clients, ioMillis, false);
+            
+            run("platform", Executors.newFixedThreadPool(TOMCAT_MAX_THREADS), null, pdf, requests, clients, ioMillis, true);
+            run("platform+cpu-pool", Executors.newFixedThreadPool(TOMCAT_MAX_THREADS), platform, pdf, requests, clients, ioMillis, true);
+            run("virtual+cpu-pool", Executors.newVirtualThreadPerTaskExecutor(), virtual, pdf, requests, clients, ioMillis, true);
+        } finally {
+            platform.shutdown();
+            virtual.shutdown();
+        }
+    }
+    
+    private static void run(String model, ExecutorService requestExecutor, WorkExecutors cpu, byte[] pdf,
+                            int requests, int clients, long ioMillis, boolean report) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(clients);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long submitted = System.nanoTime();
+            requestExecutor.execute(() -> {
+                try {
+                    Thread.sleep(ioMillis);
+                    if (cpu != null) {
+                        cpu.onCpu(() -> PdfTextExtractor.extractPages(pdf, 5, null, 1));
+                    } else {
+                        PdfTextExtractor.extractPages(pdf, 5, null, 1);
+                    }
+                    Thread.sleep(ioMillis);
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - submitted;
+                    inFlight.release();
+                }
+            });
+        }
+        requestExecutor.shutdown();
+        requestExecutor.awaitTermination(10, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        
+        if (!report) {
+            return;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-18s %10.0f %8.1f %8.1f %8.1f %8.1f%s%n", model,
+                requests / (elapsed / 1e9),
+                millis(latencies, 0.50), millis(latencies, 0.99), millis(latencies, 0.999),
+                latencies[latencies.length - 1] / 1e6,
+                failures.get() > 0 ? "  (" + failures.get() + " failed)" : "");
+    }
+    
+    private static double millis(long[] sorted, double percentile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+    
+    private static byte[] twoPagePdf() throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 0; p < 2; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
+                    content.setLeading(12);
+                    content.newLineAtOffset(50, 750);
+                    for (int line = 0; line < 55; line++) {
+                        content.showText("Senior Java engineer, 2018 - 2024: Spring Boot, PostgreSQL, Docker, Kubernetes " + line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
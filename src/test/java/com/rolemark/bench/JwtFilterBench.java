@@ -0,0 +1,99 @@
+package com.rolemark.bench;
+
+import com.rolemark.config.JwtUtil;
+import com.rolemark.security.JwtAuthenticationFilter;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Measures the per-request cost of JWT authentication. Not a test; run it by hand:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.rolemark.bench.JwtFilterBench [iterations]
+ * </pre>
+ *
+ * Cases:
+ * <ul>
+ *   <li>rebuilt-per-call: the filter's former work, key and parser rebuilt for each of
+ *   three verifications of the same token</li>
+ *   <li>filter, no cache: {@link JwtAuthenticationFilter} verifying once with the shared parser</li>
+ *   <li>filter, claims cache: the same with the verified-claims cache on</li>
+ * </ul>
+ * Each case runs several rounds after a warm-up; the median round is reported.
+ */
+public class JwtFilterBench {
+    
+    private static final String SECRET = "benchmarkSecretKeyThatIsLongEnoughForHmacSha256";
+    private static final int ROUNDS = 7;
+    
+    private static long sink;
+    
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        JwtUtil uncached = new JwtUtil(SECRET, 0, new SimpleMeterRegistry());
+        JwtUtil cached = new JwtUtil(SECRET, 10_000, new SimpleMeterRegistry());
+        String token = cached.generateToken("bench@example.com", UUID.randomUUID());
+        JwtAuthenticationFilter uncachedFilter = new JwtAuthenticationFilter(uncached);
+        JwtAuthenticationFilter cachedFilter = new JwtAuthenticationFilter(cached);
+        
+        System.out.printf("iterations=%d rounds=%d%n", iterations, ROUNDS);
+        System.out.printf("%-22s %12s%n", "case", "ns/request");
+        report("rebuilt-per-call", iterations, () -> rebuiltPerCall(token));
+        report("filter, no cache", iterations, () -> filter(uncachedFilter, token));
+        report("filter, claims cache", iterations, () -> filter(cachedFilter, token));
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+    
+    private static void report(String name, int iterations, Step step) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            step.run();
+        }
+        long[] rounds = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                step.run();
+            }
+            rounds[round] = (System.nanoTime() - start) / iterations;
+        }
+        Arrays.sort(rounds);
+        System.out.printf("%-22s %12d%n", name, rounds[ROUNDS / 2]);
+    }
+    
+    private static void rebuiltPerCall(String token) {
+        Jwts.parser().verifyWith(key()).build().parseSignedClaims(token);
+        Claims email = Jwts.parser().verifyWith(key()).build().parseSignedClaims(token).getPayload();
+        Claims userId = Jwts.parser().verifyWith(key()).build().parseSignedClaims(token).getPayload();
+        sink += email.getSubject().length() + userId.get("userId", String.class).length();
+    }
+    
+    private static SecretKey key() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static void filter(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roles");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        sink += SecurityContextHolder.getContext().getAuthentication().hashCode();
+        SecurityContextHolder.clearContext();
+    }
+    
+    private interface Step {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,106 @@
+package com.rolemark.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdLimiterTest {
+    
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(5).toNanos();
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private AimdLimiter limiter(int initialLimit, double tenantShare) {
+        return new AimdLimiter("test", initialLimit, 1, 64, Duration.ofSeconds(1), 0.5, tenantShare, meterRegistry);
+    }
+    
+    private double rejected(String reason) {
+        return meterRegistry.get("rolemark.concurrency.rejected").tag("reason", reason).counter().count();
+    }
+    
+    @Test
+    void testRequestsOverTheLimitAreRejected() {
+        AimdLimiter limiter = limiter(2, 1.0);
+        
+        assertEquals(AimdLimiter.Admission.ADMITTED, limiter.tryAcquire("a"));
+        assertEquals(AimdLimiter.Admission.ADMITTED, limiter.tryAcquire("b"));
+        assertEquals(AimdLimiter.Admission.OVERLOADED, limiter.tryAcquire("c"));
+        assertEquals(1, rejected("limit"));
+        
+        limiter.release("a", FAST, false);
+        assertEquals(AimdLimiter.Admission.ADMITTED, limiter.tryAcquire("c"));
+    }
+    
+    @Test
+    void testTenantIsHeldToItsShare() {
+        AimdLimiter limiter = limiter(4, 0.5);
+        assertEquals(2, limiter.getTenantLimit());
+        
+        assertEquals(AimdLimiter.Admission.ADMITTED, limiter.tryAcquire("busy"));
+        assertEquals(AimdLimiter.Admission.ADMITTED, limiter.tryAcquire("busy"));
+        assertEquals(AimdLimiter.Admission.TENANT_LIMITED, limiter.tryAcquire("busy"));
+        assertEquals(1, rejected("tenant"));
+        
+        // The rest of the limit is left to others
+        assertEquals(AimdLimiter.Admission.ADMITTED, limiter.tryAcquire("quiet"));
+        assertEquals(3, limiter.getInFlight());
+        
+        limiter.release("busy", FAST, false);
+        assertEquals(AimdLimiter.Admission.ADMITTED, limiter.tryAcquire("busy"));
+    }
+    
+    @Test
+    void testTenantMayAlwaysHoldOneRequest() {
+        AimdLimiter limiter = limiter(1, 0.1);
+        
+        assertEquals(1, limiter.getTenantLimit());
+        assertEquals(AimdLimiter.Admission.ADMITTED, limiter.tryAcquire("a"));
+        assertEquals(AimdLimiter.Admission.TENANT_LIMITED, limiter.tryAcquire("a"));
+        assertEquals(AimdLimiter.Admission.OVERLOADED, limiter.tryAcquire("b"));
+    }
+    
+    @Test
+    void testSlowOrShedRequestCutsTheLimitOncePerInterval() {
+        AimdLimiter limiter = limiter(8, 1.0);
+        
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+        limiter.release("a", SLOW, false);
+        assertEquals(4, limiter.getLimit());
+        
+        // A second slow request within the same interval does not cut again
+        limiter.release("a", FAST, true);
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+    
+    @Test
+    void testLimitGrowsOnlyWhileInUse() {
+        AimdLimiter limiter = limiter(2, 1.0);
+        
+        // With one request held, each request brings the limit into use
+        limiter.tryAcquire("held");
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire("a");
+            limiter.release("a", FAST, false);
+        }
+        assertEquals(3, limiter.getLimit());
+        
+        AimdLimiter idle = limiter(8, 1.0);
+        for (int i = 0; i < 50; i++) {
+            idle.tryAcquire("a");
+            idle.release("a", FAST, false);
+        }
+        assertEquals(8, idle.getLimit());
+    }
+    
+    @Test
+    void testInvalidTenantShareIsRejected() {
+        assertThrows(IllegalStateException.class, () -> limiter(4, 0));
+        assertThrows(IllegalStateException.class, () -> limiter(4, 1.5));
+    }
+}
@@ -0,0 +1,145 @@
+package com.rolemark.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+    
+    private final AimdLimiter limiter = new AimdLimiter("upload", 4, 1, 64, Duration.ofSeconds(1), 0.9, 0.5,
+            new SimpleMeterRegistry());
+    
+    // Tenants are named by the X-Tenant header here, standing in for the bearer token
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+            List.of(new ConcurrencyLimitFilter.Route("POST", "/api/resumes", limiter),
+                    new ConcurrencyLimitFilter.Route("POST", "/resumes", limiter)),
+            request -> request.getHeader("X-Tenant"),
+            Duration.ofSeconds(2),
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+    
+    private final JwtUtil jwtUtil = new JwtUtil("test-secret-that-is-long-enough-for-hs256", 100, new SimpleMeterRegistry());
+    
+    // Callers as the app sees them behind the load balancer: all from its address
+    private MockHttpServletRequest behindProxy(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr("10.0.0.2");
+        if (token != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return request;
+    }
+    
+    private MockHttpServletResponse send(String method, String path, String tenant) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-Tenant", tenant);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+    
+    @Test
+    void testAdmittedRequestIsReleased() throws Exception {
+        MockHttpServletResponse response = send("POST", "/api/resumes", "a");
+        
+        assertEquals(200, response.getStatus());
+        assertEquals(0, limiter.getInFlight());
+    }
+    
+    @Test
+    void testUnmatchedRequestPassesThrough() throws Exception {
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+        
+        assertEquals(200, send("GET", "/api/resumes", "a").getStatus());
+        assertEquals(200, send("POST", "/api/roles", "a").getStatus());
+    }
+    
+    @Test
+    void testTenantOverItsShareGets429() throws Exception {
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+        
+        MockHttpServletResponse response = send("POST", "/api/resumes", "a");
+        
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentType().startsWith("application/json"));
+        assertTrue(response.getContentAsString().contains("TOO_MANY_REQUESTS"));
+        // Other tenants still get in
+        assertEquals(200, send("POST", "/api/resumes", "b").getStatus());
+    }
+    
+    @Test
+    void testFullLimitGets503() throws Exception {
+        for (String tenant : List.of("a", "b", "c", "d")) {
+            limiter.tryAcquire(tenant);
+        }
+        
+        MockHttpServletResponse response = send("POST", "/api/resumes", "e");
+        
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("SERVICE_UNAVAILABLE"));
+    }
+    
+    @Test
+    void testAnonymousCallersBehindOneProxyShareOnlyTheClassLimit() throws Exception {
+        AimdLimiter auth = new AimdLimiter("auth", 4, 1, 64, Duration.ofSeconds(1), 0.9, 0.5, new SimpleMeterRegistry());
+        ConcurrencyLimitFilter authFilter = new ConcurrencyLimitFilter(
+                List.of(new ConcurrencyLimitFilter.Route(null, "/api/auth/**", auth)),
+                request -> ConcurrencyLimitConfig.tenantOf(request, jwtUtil),
+                Duration.ofSeconds(2),
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        // Three sign-ins in flight from different people, well over one tenant's share of 2
+        for (int i = 0; i < 3; i++) {
+            assertEquals(AimdLimiter.Admission.ADMITTED,
+                    auth.tryAcquire(ConcurrencyLimitConfig.tenantOf(behindProxy(null), jwtUtil)));
+        }
+        
+        MockHttpServletResponse fourth = new MockHttpServletResponse();
+        authFilter.doFilter(behindProxy(null), fourth, new MockFilterChain());
+        assertEquals(200, fourth.getStatus());
+        
+        // At the class limit everyone is shed alike
+        auth.tryAcquire(ConcurrencyLimitConfig.tenantOf(behindProxy(null), jwtUtil));
+        MockHttpServletResponse fifth = new MockHttpServletResponse();
+        authFilter.doFilter(behindProxy(null), fifth, new MockFilterChain());
+        assertEquals(503, fifth.getStatus());
+    }
+    
+    @Test
+    void testSignedInUserBehindProxyKeepsItsShare() {
+        String token = jwtUtil.generateToken("user@example.com", UUID.randomUUID());
+        String tenant = ConcurrencyLimitConfig.tenantOf(behindProxy(token), jwtUtil);
+        
+        assertTrue(tenant.startsWith("user:"));
+        assertEquals(AimdLimiter.Admission.ADMITTED, limiter.tryAcquire(tenant));
+        assertEquals(AimdLimiter.Admission.ADMITTED, limiter.tryAcquire(tenant));
+        assertEquals(AimdLimiter.Admission.TENANT_LIMITED, limiter.tryAcquire(tenant));
+        // An invalid token counts as no token
+        assertNull(ConcurrencyLimitConfig.tenantOf(behindProxy("not-a-jwt"), jwtUtil));
+    }
+    
+    @Test
+    void testFormRouteGetsPlainText() throws Exception {
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+        
+        MockHttpServletResponse response = send("POST", "/resumes", "a");
+        
+        assertEquals(429, response.getStatus());
+        assertTrue(response.getContentType().startsWith("text/plain"));
+        assertEquals("Too many concurrent upload requests, please retry shortly", response.getContentAsString());
+    }
+}
@@ -0,0 +1,130 @@
+package com.rolemark.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+    
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hs256";
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private JwtUtil jwtUtil(String secret, int maxSize) {
+        return new JwtUtil(secret, maxSize, meterRegistry);
+    }
+    
+    // Helper: A token signed with secret that expires after ttlMillis
+    private static String token(String secret, UUID userId, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .subject("user@example.com")
+                .claim("userId", userId.toString())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlMillis))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+    
+    private double cacheRequests(String result) {
+        return meterRegistry.get("rolemark.jwt.claims.cache.requests").tag("result", result).counter().count();
+    }
+    
+    private double cacheSize() {
+        return meterRegistry.get("rolemark.jwt.claims.cache.size").gauge().value();
+    }
+    
+    @Test
+    void testRepeatedTokenIsVerifiedOnce() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 100);
+        UUID userId = UUID.randomUUID();
+        String token = jwtUtil.generateToken("user@example.com", userId);
+        
+        assertEquals(userId, jwtUtil.verify(token).orElseThrow().getUserId());
+        assertEquals(userId, jwtUtil.verify(token).orElseThrow().getUserId());
+        
+        assertEquals(1, cacheRequests("miss"));
+        assertEquals(1, cacheRequests("hit"));
+    }
+    
+    @Test
+    void testCachedTokenIsRejectedOnceExpired() throws Exception {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 100);
+        String token = token(SECRET, UUID.randomUUID(), 1_500);
+        
+        assertTrue(jwtUtil.verify(token).isPresent());
+        assertEquals(1, cacheSize());
+        
+        // The cache never extends a token past its own expiry
+        Thread.sleep(1_600);
+        assertTrue(jwtUtil.verify(token).isEmpty());
+        assertEquals(0, cacheSize());
+    }
+    
+    @Test
+    void testTokenOfRotatedSecretIsRejected() {
+        // Rotating the secret revokes every token; nothing cached under the old one carries over
+        JwtUtil jwtUtil = jwtUtil(SECRET, 100);
+        String foreign = token("another-secret-that-is-long-enough-for-hs256", UUID.randomUUID(), 60_000);
+        
+        assertTrue(jwtUtil.verify(foreign).isEmpty());
+        assertTrue(jwtUtil.verify(foreign).isEmpty());
+        assertEquals(0, cacheSize());
+        assertEquals(0, cacheRequests("hit"));
+    }
+    
+    @Test
+    void testTamperedTokenIsRejected() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 100);
+        String token = jwtUtil.generateToken("user@example.com", UUID.randomUUID());
+        assertTrue(jwtUtil.verify(token).isPresent());
+        
+        // A different string is a different cache key, so it is checked on its own
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertTrue(jwtUtil.verify(tampered).isEmpty());
+    }
+    
+    @Test
+    void testCacheStaysWithinMaxSize() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 3);
+        
+        for (int i = 0; i < 10; i++) {
+            assertTrue(jwtUtil.verify(token(SECRET, UUID.randomUUID(), 60_000)).isPresent());
+            assertTrue(cacheSize() <= 3);
+        }
+    }
+    
+    @Test
+    void testExpiredEntriesAreSweptWithoutBeingLookedUp() throws Exception {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 3);
+        assertTrue(jwtUtil.verify(token(SECRET, UUID.randomUUID(), 1_500)).isPresent());
+        Thread.sleep(1_600);
+        
+        // The expired token stays until the third insert sweeps, though the cache is not full
+        assertTrue(jwtUtil.verify(token(SECRET, UUID.randomUUID(), 60_000)).isPresent());
+        assertEquals(2, cacheSize());
+        assertTrue(jwtUtil.verify(token(SECRET, UUID.randomUUID(), 60_000)).isPresent());
+        assertEquals(2, cacheSize());
+    }
+    
+    @Test
+    void testDisabledCacheVerifiesEveryTime() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 0);
+        String token = jwtUtil.generateToken("user@example.com", UUID.randomUUID());
+        
+        Optional<JwtUtil.VerifiedToken> first = jwtUtil.verify(token);
+        Optional<JwtUtil.VerifiedToken> second = jwtUtil.verify(token);
+        
+        assertTrue(first.isPresent());
+        assertNotSame(first.get(), second.orElseThrow());
+        assertEquals(0, cacheSize());
+    }
+}
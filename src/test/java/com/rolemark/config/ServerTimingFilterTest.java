@@ -0,0 +1,70 @@
+package com.rolemark.config;
+
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+    
+    private final ServerTimingFilter filter = new ServerTimingFilter(List.of(
+            new ServerTimingFilter.Route("POST", "/api/resumes"),
+            new ServerTimingFilter.Route("POST", "/api/evaluations/*/run"),
+            new ServerTimingFilter.Route("GET", "/api/evaluations/*/results")));
+    
+    private MockHttpServletResponse send(String method, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, path), response, new MockFilterChain());
+        return response;
+    }
+    
+    @Test
+    void testHeaderOnConfiguredRoutes() throws Exception {
+        assertNotNull(send("POST", "/api/resumes").getHeader(ServerTimingFilter.HEADER));
+        assertNotNull(send("POST", "/api/evaluations/7/run").getHeader(ServerTimingFilter.HEADER));
+        assertNotNull(send("GET", "/api/evaluations/7/results").getHeader(ServerTimingFilter.HEADER));
+    }
+    
+    @Test
+    void testNoHeaderOnOtherRoutes() throws Exception {
+        assertNull(send("GET", "/api/resumes").getHeader(ServerTimingFilter.HEADER));
+        assertNull(send("POST", "/api/evaluations").getHeader(ServerTimingFilter.HEADER));
+    }
+    
+    @Test
+    void testHeaderCoversStagesTimedByTheHandler() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/resumes"), response, (request, servletResponse) ->
+                ServerTiming.time(ServerTiming.HASH, () -> null));
+        
+        assertTrue(response.getHeader(ServerTimingFilter.HEADER).startsWith("hash;dur="));
+        assertNull(ServerTiming.current());
+    }
+    
+    @Test
+    void testStreamedBodySetsHeaderWhenItCommits() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/evaluations/7/results");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<ServletResponse> streamed = new AtomicReference<>();
+        
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            servletRequest.startAsync();
+            streamed.set(servletResponse);
+        });
+        // The body is still to be written on another thread
+        assertNull(response.getHeader(ServerTimingFilter.HEADER));
+        
+        streamed.get().getOutputStream().write("[]".getBytes());
+        streamed.get().flushBuffer();
+        
+        assertNotNull(response.getHeader(ServerTimingFilter.HEADER));
+        assertEquals("[]", response.getContentAsString());
+    }
+}
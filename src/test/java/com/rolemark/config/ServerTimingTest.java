@@ -0,0 +1,61 @@
+package com.rolemark.config;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingTest {
+    
+    @AfterEach
+    void tearDown() {
+        ServerTiming.clear();
+    }
+    
+    @Test
+    void testAccessorIsRegisteredThroughServiceLoader() {
+        assertTrue(ContextRegistry.getInstance().getThreadLocalAccessors().stream()
+                .anyMatch(accessor -> accessor instanceof ServerTiming.Accessor));
+    }
+    
+    @Test
+    void testTimingFollowsContextOntoAnotherThread() throws Exception {
+        ServerTiming timing = ServerTiming.start();
+        Callable<Object> task = ContextSnapshotFactory.builder().build().captureAll()
+                .wrap(() -> ServerTiming.time(ServerTiming.SCORE, () -> null));
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(task).get();
+            // The pool thread is left without the request's timing
+            assertNull(executor.submit(ServerTiming::current).get());
+        } finally {
+            executor.shutdown();
+        }
+        
+        assertTrue(timing.headerValue().startsWith("score;dur="));
+    }
+    
+    @Test
+    void testRepeatedStageCountsCalls() {
+        ServerTiming timing = ServerTiming.start();
+        
+        ServerTiming.time(ServerTiming.DB_READ, () -> null);
+        ServerTiming.time(ServerTiming.DB_READ, () -> null);
+        
+        String header = timing.headerValue();
+        assertTrue(header.matches("db-read;dur=\\d+\\.\\d{2};desc=\"2 calls\", total;dur=\\d+\\.\\d{2}"), header);
+    }
+    
+    @Test
+    void testOutsideARequestWorkJustRuns() {
+        assertEquals("done", ServerTiming.time(ServerTiming.HASH, () -> "done"));
+        assertNull(ServerTiming.current());
+    }
+}
@@ -0,0 +1,121 @@
+package com.rolemark.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkTracingTest {
+    
+    private final List<SpanData> finished = new CopyOnWriteArrayList<>();
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(new CollectingExporter()))
+            .build();
+    private final io.opentelemetry.api.trace.Tracer otelTracer = tracerProvider.get("test");
+    private final Tracer tracer = new OtelTracer(otelTracer, new OtelCurrentTraceContext(), event -> {
+    });
+    private final WorkTracing workTracing = new WorkTracing(tracer, new OtelPropagator(
+            ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otelTracer));
+    
+    /** Keeps finished spans for the assertions. */
+    private class CollectingExporter implements SpanExporter {
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            finished.addAll(spans);
+            return CompletableResultCode.ofSuccess();
+        }
+        
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+        
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+    
+    private SpanData finishedSpan(String name) {
+        return finished.stream().filter(span -> span.getName().equals(name)).findFirst().orElseThrow();
+    }
+    
+    @Test
+    void testQueuedWorkJoinsTheTraceThatQueuedIt() throws Exception {
+        // What the request stores on the outbox row or work item (trace_parent)
+        Span request = tracer.nextSpan().name("http post /api/resumes").start();
+        String traceParent;
+        try (Tracer.SpanInScope ignored = tracer.withSpan(request)) {
+            traceParent = workTracing.currentTraceParent();
+        } finally {
+            request.end();
+        }
+        assertEquals("00-" + request.context().traceId() + "-" + request.context().spanId() + "-01", traceParent);
+        
+        // A worker claims the row later, on a thread the request's context never reached
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            worker.submit(() -> {
+                assertNull(tracer.currentSpan());
+                try (WorkTracing.ScopedSpan ignored = workTracing.startSpan("ingestion extract", traceParent)) {
+                    workTracing.inSpan("ResumeTextRepository.save", () -> null);
+                }
+            }).get();
+        } finally {
+            worker.shutdown();
+        }
+        
+        SpanData stage = finishedSpan("ingestion extract");
+        assertEquals(request.context().traceId(), stage.getTraceId());
+        assertEquals(request.context().spanId(), stage.getParentSpanId());
+        SpanData write = finishedSpan("ResumeTextRepository.save");
+        assertEquals(request.context().traceId(), write.getTraceId());
+        assertEquals(stage.getSpanId(), write.getParentSpanId());
+    }
+    
+    @Test
+    void testNoTraceParentOutsideATrace() {
+        assertNull(workTracing.currentTraceParent());
+    }
+    
+    @Test
+    void testWorkQueuedOutsideATraceStartsItsOwn() {
+        try (WorkTracing.ScopedSpan ignored = workTracing.startSpan("evaluation chunk", null)) {
+            assertNotNull(tracer.currentSpan());
+        }
+        
+        SpanData chunk = finishedSpan("evaluation chunk");
+        assertFalse(chunk.getParentSpanContext().isValid());
+        assertNull(tracer.currentSpan());
+    }
+    
+    @Test
+    void testWorkOutsideATraceRunsUntraced() {
+        assertEquals("done", workTracing.inSpan("ResumeService.checksum", () -> "done"));
+        
+        assertTrue(finished.isEmpty());
+    }
+}
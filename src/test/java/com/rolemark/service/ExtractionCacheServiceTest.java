@@ -0,0 +1,89 @@
+package com.rolemark.service;
+
+import com.rolemark.entity.ExtractedSignal;
+import com.rolemark.entity.ExtractionCacheEntry;
+import com.rolemark.repository.ExtractionCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExtractionCacheServiceTest {
+    
+    private static final String CHECKSUM = "a".repeat(64);
+    private static final List<Map<String, Object>> SIGNALS_JSON = List.of(Map.of(
+            "type", "SKILL", "value", "java", "evidenceSnippet", "Java developer",
+            "confidence", "HIGH", "sourcePage", 1));
+    
+    private final ExtractionCacheRepository repository = mock(ExtractionCacheRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExtractionCacheService cache = new ExtractionCacheService(repository, true, meterRegistry);
+    
+    private double count(String result) {
+        return meterRegistry.get("rolemark.extraction.cache.requests").tag("result", result).counter().count();
+    }
+    
+    private void cacheEntry() {
+        ExtractionCacheEntry entry = new ExtractionCacheEntry();
+        entry.setExtractedText("Java developer");
+        entry.setSignalsJson(SIGNALS_JSON);
+        entry.setCreatedAt(LocalDateTime.now());
+        when(repository.findByChecksumSha256AndParserVersion(CHECKSUM, ResumeParserService.PARSER_VERSION))
+                .thenReturn(Optional.of(entry));
+        when(repository.findSignalsByChecksumSha256AndParserVersionAndCreatedAtGreaterThanEqual(
+                eq(CHECKSUM), eq(ResumeParserService.PARSER_VERSION), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(() -> SIGNALS_JSON));
+        when(repository.existsByChecksumSha256AndParserVersionAndCreatedAtGreaterThanEqual(
+                eq(CHECKSUM), eq(ResumeParserService.PARSER_VERSION), any(LocalDateTime.class)))
+                .thenReturn(true);
+    }
+    
+    @Test
+    void testOneIngestionCountsOneLookup() {
+        cacheEntry();
+        
+        // EXTRACT, PARSE and INDEX of one upload
+        assertTrue(cache.lookup(CHECKSUM).isPresent());
+        List<ExtractedSignal> signals = cache.cachedSignals(CHECKSUM).orElseThrow();
+        assertTrue(cache.contains(CHECKSUM));
+        
+        assertEquals(1, count("hit"));
+        assertEquals(0, count("miss"));
+        assertEquals(1, signals.size());
+        assertEquals("java", signals.get(0).getValue());
+        assertEquals(1, signals.get(0).getSourcePage());
+    }
+    
+    @Test
+    void testMissIsCountedOnce() {
+        when(repository.findByChecksumSha256AndParserVersion(anyString(), anyInt())).thenReturn(Optional.empty());
+        
+        assertTrue(cache.lookup(CHECKSUM).isEmpty());
+        assertTrue(cache.cachedSignals(CHECKSUM).isEmpty());
+        assertFalse(cache.contains(CHECKSUM));
+        
+        assertEquals(0, count("hit"));
+        assertEquals(1, count("miss"));
+    }
+    
+    @Test
+    void testDisabledCacheNeverQueries() {
+        ExtractionCacheService disabled = new ExtractionCacheService(repository, false, meterRegistry);
+        
+        assertTrue(disabled.lookup(CHECKSUM).isEmpty());
+        assertTrue(disabled.cachedSignals(CHECKSUM).isEmpty());
+        assertFalse(disabled.contains(CHECKSUM));
+        
+        verifyNoInteractions(repository);
+    }
+}
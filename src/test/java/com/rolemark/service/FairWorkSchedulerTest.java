@@ -0,0 +1,74 @@
+package com.rolemark.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairWorkSchedulerTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void testWorkIsBulkFromTheThreshold() {
+        FairWorkScheduler scheduler = new FairWorkScheduler(4, 4, 3, List.of(), meterRegistry);
+        
+        assertFalse(scheduler.isBulk(2));
+        assertTrue(scheduler.isBulk(3));
+    }
+    
+    @Test
+    void testQueueWaitTagsOnlyListedTenants() {
+        UUID listed = UUID.randomUUID();
+        FairWorkScheduler scheduler = new FairWorkScheduler(4, 4, 10, List.of(listed), meterRegistry);
+        LocalDateTime dueAt = LocalDateTime.now();
+        
+        scheduler.recordQueueWait("evaluation", listed, false, dueAt, dueAt.plusSeconds(1));
+        for (int i = 0; i < 20; i++) {
+            scheduler.recordQueueWait("evaluation", UUID.randomUUID(), false, dueAt, dueAt.plusSeconds(2));
+        }
+        
+        // Twenty unlisted users share one series
+        assertEquals(2, meterRegistry.find("rolemark.queue.wait").timers().size());
+        assertEquals(1, meterRegistry.get("rolemark.queue.wait").tag("tenant", listed.toString()).timer().count());
+        assertEquals(20, meterRegistry.get("rolemark.queue.wait").tag("tenant", FairWorkScheduler.OTHER_TENANTS).timer().count());
+    }
+    
+    @Test
+    void testQueueWaitIsPublishedAsHistogram() {
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        FairWorkScheduler scheduler = new FairWorkScheduler(4, 4, 10, List.of(), prometheus);
+        LocalDateTime dueAt = LocalDateTime.now();
+        
+        scheduler.recordQueueWait("evaluation", UUID.randomUUID(), false, dueAt, dueAt.plusSeconds(1));
+        
+        // Buckets aggregate across instances; client-side quantiles would not
+        String scrape = prometheus.scrape();
+        assertTrue(scrape.contains("rolemark_queue_wait_seconds_bucket{"));
+        assertFalse(scrape.contains("quantile="));
+    }
+    
+    @Test
+    void testQueueWaitBeforeDueIsZero() {
+        FairWorkScheduler scheduler = new FairWorkScheduler(4, 4, 10, List.of(), meterRegistry);
+        LocalDateTime dueAt = LocalDateTime.now();
+        
+        scheduler.recordQueueWait("ingestion.extract", UUID.randomUUID(), true, dueAt, dueAt.minusSeconds(1));
+        
+        Timer timer = meterRegistry.get("rolemark.queue.wait").tag("priority", "bulk").timer();
+        assertEquals(0, timer.totalTime(TimeUnit.NANOSECONDS));
+    }
+    
+    @Test
+    void testInvalidCapIsRejected() {
+        assertThrows(IllegalStateException.class, () -> new FairWorkScheduler(0, 4, 10, List.of(), meterRegistry));
+    }
+}
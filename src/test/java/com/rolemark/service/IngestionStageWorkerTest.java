@@ -0,0 +1,113 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkExecutors;
+import com.rolemark.config.WorkTracing;
+import com.rolemark.entity.IngestionOutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class IngestionStageWorkerTest {
+    
+    private IngestionOutboxService outboxService;
+    private WorkTracing.ScopedSpan span;
+    
+    /** A stage whose work is whatever the test sets. */
+    private static class StubStage extends IngestionStageWorker {
+        Supplier<IngestionOutboxEvent.Stage> result;
+        Exception failure;
+        
+        StubStage(IngestionOutboxService outboxService) {
+            super(outboxService, mock(WorkExecutors.class), IngestionOutboxEvent.Stage.PARSE,
+                    0, 3, Duration.ofSeconds(10), Duration.ofSeconds(1));
+        }
+        
+        @Override
+        protected Supplier<IngestionOutboxEvent.Stage> prepare(Long resumeId) throws Exception {
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+    }
+    
+    @BeforeEach
+    void setUp() {
+        outboxService = mock(IngestionOutboxService.class);
+        span = mock(WorkTracing.ScopedSpan.class);
+        when(outboxService.startSpan(any())).thenReturn(span);
+    }
+    
+    private static IngestionOutboxService.ClaimedEvent claimed(int attempt) {
+        IngestionOutboxEvent event = new IngestionOutboxEvent();
+        event.setId(1L);
+        event.setResumeId(7L);
+        event.setTenantId(UUID.randomUUID());
+        event.setStage(IngestionOutboxEvent.Stage.PARSE);
+        event.setStatus(IngestionOutboxEvent.Status.RUNNING);
+        event.setAttempts(attempt);
+        event.setLeaseToken(UUID.randomUUID());
+        return new IngestionOutboxService.ClaimedEvent(event);
+    }
+    
+    @Test
+    void testSuccessCompletesWithCommitStep() {
+        StubStage stage = new StubStage(outboxService);
+        stage.result = () -> IngestionOutboxEvent.Stage.INDEX;
+        IngestionOutboxService.ClaimedEvent event = claimed(1);
+        
+        stage.process(event);
+        
+        verify(outboxService).complete(event, stage.result);
+        verify(outboxService, never()).fail(any(), any(), any());
+        verify(span).close();
+    }
+    
+    @Test
+    void testTransientFailureBacksOffExponentially() {
+        StubStage stage = new StubStage(outboxService);
+        stage.failure = new IllegalStateException("database hiccup");
+        
+        IngestionOutboxService.ClaimedEvent first = claimed(1);
+        IngestionOutboxService.ClaimedEvent second = claimed(2);
+        stage.process(first);
+        stage.process(second);
+        
+        verify(outboxService).fail(eq(first), eq("IllegalStateException: database hiccup"), eq(Duration.ofSeconds(10)));
+        verify(outboxService).fail(eq(second), anyString(), eq(Duration.ofSeconds(20)));
+        verify(span, times(2)).error(stage.failure);
+    }
+    
+    @Test
+    void testLastAttemptFailsForGood() {
+        StubStage stage = new StubStage(outboxService);
+        stage.failure = new IllegalStateException("still down");
+        IngestionOutboxService.ClaimedEvent last = claimed(3);
+        
+        stage.process(last);
+        
+        verify(outboxService).fail(eq(last), anyString(), isNull());
+    }
+    
+    @Test
+    void testRejectedInputIsNotRetried() {
+        StubStage stage = new StubStage(outboxService);
+        stage.failure = new IllegalArgumentException("PDF has no text");
+        IngestionOutboxService.ClaimedEvent event = claimed(1);
+        
+        stage.process(event);
+        
+        verify(outboxService).fail(eq(event), eq("PDF has no text"), isNull());
+        verify(outboxService, never()).complete(any(), any());
+    }
+}
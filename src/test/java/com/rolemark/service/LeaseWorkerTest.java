@@ -0,0 +1,93 @@
+package com.rolemark.service;
+
+import com.rolemark.config.WorkExecutors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaseWorkerTest {
+    
+    private final WorkExecutors workExecutors = new WorkExecutors(false, 1, new SimpleMeterRegistry());
+    private final StubWorker worker = new StubWorker();
+    
+    /** Hands out queued lease tokens as work and holds each until the test releases it. */
+    private class StubWorker extends LeaseWorker<UUID> {
+        final BlockingQueue<UUID> queued = new LinkedBlockingQueue<>();
+        final BlockingQueue<List<UUID>> renewals = new LinkedBlockingQueue<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch processing = new CountDownLatch(1);
+        
+        StubWorker() {
+            super(workExecutors, "stub", 1, Duration.ofMillis(50));
+        }
+        
+        @Override
+        protected Optional<UUID> claim(String owner) {
+            return Optional.ofNullable(queued.poll());
+        }
+        
+        @Override
+        protected void awaitWork(long timeoutMillis) throws InterruptedException {
+            Thread.sleep(timeoutMillis);
+        }
+        
+        @Override
+        protected void process(UUID work) {
+            processing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        @Override
+        protected UUID leaseToken(UUID work) {
+            return work;
+        }
+        
+        @Override
+        protected Duration lease() {
+            return Duration.ofSeconds(3);
+        }
+        
+        @Override
+        protected void renewLeases(List<UUID> leaseTokens) {
+            renewals.add(leaseTokens);
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+        workExecutors.shutdown();
+    }
+    
+    @Test
+    void testHeartbeatRenewsOnlyHeldLeases() throws Exception {
+        UUID token = UUID.randomUUID();
+        worker.queued.add(token);
+        worker.start();
+        assertTrue(worker.processing.await(5, TimeUnit.SECONDS));
+        
+        assertEquals(List.of(token), worker.renewals.poll(5, TimeUnit.SECONDS));
+        
+        worker.release.countDown();
+        List<UUID> renewed;
+        do {
+            renewed = worker.renewals.poll(5, TimeUnit.SECONDS);
+            assertNotNull(renewed);
+        } while (!renewed.isEmpty());
+    }
+}
@@ -0,0 +1,46 @@
+package com.rolemark.service;
+
+import com.rolemark.entity.ExtractedSignal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeParserServiceTest {
+    
+    private final ResumeParserService parser = new ResumeParserService(new SimpleMeterRegistry());
+    
+    private static ExtractedSignal signal(List<ExtractedSignal> signals, String type) {
+        return signals.stream().filter(s -> s.getType().equals(type)).findFirst().orElseThrow();
+    }
+    
+    @Test
+    void testSignalsRecordTheirSourcePage() {
+        List<ExtractedSignal> signals = parser.parseResume(List.of(
+                "Jane Doe\nBachelor of Science, Computer Science",
+                "Experience\nBackend Engineer Jan 2018 - Mar 2020"));
+        
+        assertEquals(2, signal(signals, "DATE_RANGE").getSourcePage());
+        assertEquals(2, signal(signals, "EXPERIENCE_YEARS_ESTIMATE").getSourcePage());
+        assertEquals(1, signal(signals, "EDUCATION_LEVEL_ESTIMATE").getSourcePage());
+        assertEquals("BACHELOR", signal(signals, "EDUCATION_LEVEL_ESTIMATE").getValue());
+    }
+    
+    @Test
+    void testUnpagedTextHasNoSourcePage() {
+        // Stored as one block before page breaks were kept: evidence may be on any page
+        List<ExtractedSignal> signals = parser.parseUnpaged(
+                "Jane Doe\nBachelor of Science\nBackend Engineer Jan 2018 - Mar 2020");
+        
+        assertEquals("2018-01-01 to 2020-03-01", signal(signals, "DATE_RANGE").getValue());
+        assertTrue(signals.stream().allMatch(s -> s.getSourcePage() == null));
+    }
+    
+    @Test
+    void testPageSeparatorSplitsStoredText() {
+        List<String> pages = PdfTextExtractor.splitPages(PdfTextExtractor.joinPages(List.of("one", "", "three")));
+        assertEquals(List.of("one", "", "three"), pages);
+    }
+}
@@ -0,0 +1,159 @@
+package com.rolemark.service;
+
+import com.rolemark.entity.Criterion;
+import com.rolemark.entity.Role;
+import com.rolemark.repository.CriterionRepository;
+import com.rolemark.repository.RoleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RoleAggregateCacheTest {
+    
+    private final UUID owner = UUID.randomUUID();
+    private RoleRepository roleRepository;
+    private CriterionRepository criterionRepository;
+    
+    @BeforeEach
+    void setUp() {
+        roleRepository = mock(RoleRepository.class);
+        criterionRepository = mock(CriterionRepository.class);
+        when(roleRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(role(invocation.getArgument(0))));
+        when(criterionRepository.findByRoleId(anyLong())).thenReturn(List.of(criterion(40)));
+    }
+    
+    private RoleAggregateCache cache(Duration ttl, int maxSize) {
+        return new RoleAggregateCache(roleRepository, criterionRepository, new SimpleMeterRegistry(), ttl, maxSize);
+    }
+    
+    private Role role(Long id) {
+        Role role = new Role();
+        role.setId(id);
+        role.setUserId(owner);
+        role.setTitle("Role " + id);
+        role.setJobDescription("Description");
+        return role;
+    }
+    
+    private static Criterion criterion(int weight) {
+        Criterion criterion = new Criterion();
+        criterion.setId(1L);
+        criterion.setName("Skills");
+        criterion.setWeight(weight);
+        criterion.setType("KEYWORD_SKILL");
+        criterion.setConfigJson(Map.of("requiredKeywords", List.of("java")));
+        return criterion;
+    }
+    
+    // Helper: Run extra work in the middle of the next load of roleId, after the role row is read
+    private void duringNextLoad(Long roleId, Runnable work) {
+        when(criterionRepository.findByRoleId(roleId)).thenAnswer(invocation -> {
+            work.run();
+            return List.of(criterion(40));
+        }).thenReturn(List.of(criterion(40)));
+    }
+    
+    @Test
+    void testSecondLookupIsServedFromMemory() {
+        RoleAggregateCache cache = cache(Duration.ofMinutes(10), 100);
+        
+        RoleAggregate first = cache.getOwned(owner, 1L);
+        RoleAggregate second = cache.getOwned(owner, 1L);
+        
+        assertSame(first, second);
+        assertEquals(40, second.getWeightSum());
+        verify(roleRepository, times(1)).findById(1L);
+    }
+    
+    @Test
+    void testOtherOwnerIsReportedAsMissing() {
+        RoleAggregateCache cache = cache(Duration.ofMinutes(10), 100);
+        
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> cache.getOwned(UUID.randomUUID(), 1L));
+        assertEquals("Role not found", error.getMessage());
+    }
+    
+    @Test
+    void testEvictReloadsRole() {
+        RoleAggregateCache cache = cache(Duration.ofMinutes(10), 100);
+        RoleAggregate before = cache.getOwned(owner, 1L);
+        
+        when(criterionRepository.findByRoleId(1L)).thenReturn(List.of(criterion(100)));
+        cache.evict("1");
+        RoleAggregate after = cache.getOwned(owner, 1L);
+        
+        assertEquals(100, after.getWeightSum());
+        assertNotEquals(before.getVersion(), after.getVersion());
+        verify(roleRepository, times(2)).findById(1L);
+    }
+    
+    @Test
+    void testExpiredEntryIsReloaded() {
+        RoleAggregateCache cache = cache(Duration.ZERO, 100);
+        
+        cache.getOwned(owner, 1L);
+        cache.getOwned(owner, 1L);
+        
+        verify(roleRepository, times(2)).findById(1L);
+    }
+    
+    @Test
+    void testLoadOverlappingInvalidationOfSameRoleIsNotCached() {
+        RoleAggregateCache cache = cache(Duration.ofMinutes(10), 100);
+        duringNextLoad(1L, () -> cache.evict("1"));
+        
+        cache.getOwned(owner, 1L);
+        cache.getOwned(owner, 1L);
+        
+        verify(roleRepository, times(2)).findById(1L);
+    }
+    
+    @Test
+    void testInvalidatingAnotherRoleDoesNotBlockCaching() {
+        RoleAggregateCache cache = cache(Duration.ofMinutes(10), 100);
+        duringNextLoad(1L, () -> cache.evict("2"));
+        
+        cache.getOwned(owner, 1L);
+        cache.getOwned(owner, 1L);
+        
+        verify(roleRepository, times(1)).findById(1L);
+    }
+    
+    @Test
+    void testLoadOverlappingEvictAllIsNotCached() {
+        RoleAggregateCache cache = cache(Duration.ofMinutes(10), 100);
+        duringNextLoad(1L, cache::evictAll);
+        
+        cache.getOwned(owner, 1L);
+        cache.getOwned(owner, 1L);
+        
+        verify(roleRepository, times(2)).findById(1L);
+    }
+    
+    @Test
+    void testTrimmedInvalidationStillBlocksOverlappingLoad() {
+        // With room for one entry, loading role 3 trims role 1's invalidation while role 1 loads
+        RoleAggregateCache cache = cache(Duration.ofMinutes(10), 1);
+        duringNextLoad(1L, () -> {
+            cache.evict("1");
+            cache.evict("2");
+            cache.getOwned(owner, 3L);
+        });
+        
+        cache.getOwned(owner, 1L);
+        cache.getOwned(owner, 1L);
+        
+        verify(roleRepository, times(2)).findById(1L);
+    }
+}
@@ -0,0 +1,119 @@
+package com.rolemark.service;
+
+import com.rolemark.entity.Criterion;
+import com.rolemark.entity.Role;
+import com.rolemark.repository.RubricVersionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RubricVersionServiceTest {
+    
+    private final RubricVersionRepository repository = mock(RubricVersionRepository.class);
+    private final RubricVersionService service = new RubricVersionService(repository);
+    
+    private static RoleAggregate role(String title, String jobDescription, List<Criterion> criteria) {
+        Role role = new Role();
+        role.setId(7L);
+        role.setUserId(UUID.randomUUID());
+        role.setTitle(title);
+        role.setJobDescription(jobDescription);
+        return new RoleAggregate(role, criteria, 0);
+    }
+    
+    private static Criterion criterion(long id, String name, int weight, Map<String, Object> config) {
+        Criterion criterion = new Criterion();
+        criterion.setId(id);
+        criterion.setRoleId(7L);
+        criterion.setName(name);
+        criterion.setWeight(weight);
+        criterion.setType("KEYWORD_SKILL");
+        criterion.setConfigJson(config);
+        return criterion;
+    }
+    
+    // Helper: Config map whose keys iterate in the given order
+    private static Map<String, Object> config(Object... keysAndValues) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            config.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return config;
+    }
+    
+    @Test
+    void testHashIgnoresCriterionOrder() {
+        Criterion skills = criterion(1, "Skills", 60, config("requiredKeywords", List.of("java")));
+        Criterion tools = criterion(2, "Tools", 40, config("requiredKeywords", List.of("docker")));
+        
+        assertEquals(
+                service.contentHash(role("Backend", "Builds services", List.of(skills, tools))),
+                service.contentHash(role("Backend", "Builds services", List.of(tools, skills))));
+    }
+    
+    @Test
+    void testHashIgnoresConfigKeyOrder() {
+        Criterion first = criterion(1, "Skills", 100,
+                config("requiredKeywords", List.of("java"), "optionalKeywords", List.of("kotlin")));
+        Criterion second = criterion(1, "Skills", 100,
+                config("optionalKeywords", List.of("kotlin"), "requiredKeywords", List.of("java")));
+        
+        assertEquals(
+                service.contentHash(role("Backend", "Builds services", List.of(first))),
+                service.contentHash(role("Backend", "Builds services", List.of(second))));
+    }
+    
+    @Test
+    void testHashKeepsWhitespaceAndContentChanges() {
+        Criterion skills = criterion(1, "Skills", 100, config("requiredKeywords", List.of("java")));
+        String hash = service.contentHash(role("Backend", "Builds services", List.of(skills)));
+        
+        // The stored text is what evaluations ran against, so whitespace edits are a new version
+        assertNotEquals(hash, service.contentHash(role("Backend", "Builds  services", List.of(skills))));
+        assertNotEquals(hash, service.contentHash(role("Backend", "Builds services\n", List.of(skills))));
+        assertNotEquals(hash, service.contentHash(role("Backend", "Builds services",
+                List.of(criterion(1, "Skills", 100, config("requiredKeywords", List.of("java ")))))));
+        assertNotEquals(hash, service.contentHash(role("Backend", "Builds services",
+                List.of(criterion(1, "Skills", 90, config("requiredKeywords", List.of("java")))))));
+    }
+    
+    @Test
+    void testHashIsStableHex() {
+        String hash = service.contentHash(role("Backend", "Builds services", List.of()));
+        
+        assertEquals(64, hash.length());
+        assertTrue(hash.matches("[0-9a-f]+"));
+        assertEquals(hash, service.contentHash(role("Backend", "Builds services", List.of())));
+    }
+    
+    @Test
+    void testKnownRubricIsNotInsertedAgain() {
+        RoleAggregate role = role("Backend", "Builds services", List.of());
+        String hash = service.contentHash(role);
+        when(repository.findIdByRoleIdAndContentHash(7L, hash)).thenReturn(Optional.of(3L));
+        
+        assertEquals(3L, service.resolveVersionId(role));
+        verify(repository, never()).insertIfAbsent(anyLong(), anyString(), anyString(), anyString(), anyString());
+    }
+    
+    @Test
+    void testNewRubricIsInsertedThenReadBack() {
+        RoleAggregate role = role("Backend", "Builds services", List.of());
+        String hash = service.contentHash(role);
+        // A concurrent run may have inserted the row first; the read after the insert finds it either way
+        when(repository.findIdByRoleIdAndContentHash(7L, hash)).thenReturn(Optional.empty(), Optional.of(5L));
+        
+        assertEquals(5L, service.resolveVersionId(role));
+        verify(repository).insertIfAbsent(eq(7L), eq(hash), eq("Backend"), eq("Builds services"), anyString());
+    }
+}
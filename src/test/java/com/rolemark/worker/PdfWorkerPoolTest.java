@@ -0,0 +1,92 @@
+package com.rolemark.worker;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfWorkerPoolTest {
+    
+    // Helper: Wait until the pool has the given number of idle workers
+    private static List<Long> awaitIdle(PdfWorkerPool pool, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (pool.idleWorkerPids().size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        List<Long> pids = pool.idleWorkerPids();
+        assertEquals(count, pids.size(), "idle workers");
+        return pids;
+    }
+    
+    private static byte[] createOnePagePdf() throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            
+            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                contentStream.beginText();
+                contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                contentStream.newLineAtOffset(50, 750);
+                contentStream.showText("Worker pool test");
+                contentStream.endText();
+            }
+            
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            document.save(baos);
+            return baos.toByteArray();
+        }
+    }
+    
+    @Test
+    void testPrestartedWorkerExtractsAndIsRecycled() throws Exception {
+        try (PdfWorkerPool pool = new PdfWorkerPool(1, "128m", 15_000, 1)) {
+            pool.prestart();
+            long first = awaitIdle(pool, 1).get(0);
+            
+            List<String> pages = pool.extractPages(createOnePagePdf(), 5);
+            assertEquals(1, pages.size());
+            assertTrue(pages.get(0).contains("Worker pool test"));
+            
+            // One document per worker: the used worker is retired and a fresh one started
+            long second = awaitIdle(pool, 1).get(0);
+            assertNotEquals(first, second);
+        }
+    }
+    
+    @Test
+    void testCrashedIdleWorkerIsReplaced() throws Exception {
+        try (PdfWorkerPool pool = new PdfWorkerPool(1, "128m", 15_000, 100)) {
+            pool.prestart();
+            long pid = awaitIdle(pool, 1).get(0);
+            ProcessHandle.of(pid).ifPresent(process -> {
+                process.destroyForcibly();
+                process.onExit().join();
+            });
+            
+            List<String> pages = pool.extractPages(createOnePagePdf(), 5);
+            assertEquals(1, pages.size());
+            assertNotEquals(pid, awaitIdle(pool, 1).get(0));
+        }
+    }
+    
+    @Test
+    void testMissedDeadlineKillsWorker() throws Exception {
+        // Far too short for a first extraction, which loads PDFBox in the worker
+        try (PdfWorkerPool pool = new PdfWorkerPool(1, "128m", 1, 100)) {
+            pool.prestart();
+            long pid = awaitIdle(pool, 1).get(0);
+            
+            assertThrows(IllegalArgumentException.class, () -> pool.extractPages(createOnePagePdf(), 5));
+            
+            ProcessHandle.of(pid).ifPresent(process -> process.onExit().join());
+            assertNotEquals(pid, awaitIdle(pool, 1).get(0));
+        }
+    }
+}